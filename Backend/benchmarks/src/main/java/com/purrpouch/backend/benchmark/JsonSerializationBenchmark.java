@@ -0,0 +1,117 @@
+package com.purrpouch.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.KitMeal;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.model.UserAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the graphs returned by the order and meal-kit
+ * endpoints, with the same date handling as the application's ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private AiMealKitDto mealKit;
+    private String mealKitJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        User user = new User("benchmark", "benchmark@purrpouch.com");
+        user.setId(1L);
+        UserAddress address = new UserAddress();
+        address.setId(1L);
+        address.setUser(user);
+        address.setFullName("Nguyen Van A");
+        address.setPhoneNumber("+84912345678");
+        address.setProvince("Ho Chi Minh City");
+        address.setDistrict("District 1");
+        address.setWard("Ben Nghe");
+        address.setStreetAddress("1 Le Loi");
+        address.setLatitude(10.7769);
+        address.setLongitude(106.7009);
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setTotalPrice(new BigDecimal("450000"));
+        order.setRecurring(true);
+        order.setRecurringFrequency(Order.RecurringFrequency.WEEKLY);
+        order.setPreferredDeliveryTime(LocalTime.of(18, 30));
+        order.setNextDeliveryDate(LocalDateTime.of(2026, 1, 1, 18, 30));
+        order.setDeliveryAddress(address);
+
+        mealKit = new AiMealKitDto();
+        mealKit.setKitId(1L);
+        mealKit.setKitName("Mochi's sensitive stomach week");
+        mealKit.setCatProfileId(1L);
+        List<AiMealKitDto.MealDto> meals = new ArrayList<>();
+        for (KitMeal.MealType mealType : KitMeal.MealType.values()) {
+            AiMealKitDto.MealDto meal = new AiMealKitDto.MealDto();
+            meal.setMealType(mealType);
+            List<AiMealKitDto.FoodItemDto> items = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                AiMealKitDto.FoodItemDto item = new AiMealKitDto.FoodItemDto();
+                item.setFoodSkuId((long) i);
+                item.setName("Recipe " + i);
+                item.setType("WET");
+                item.setBrand("Brand " + i);
+                item.setQuantity(new BigDecimal("0.5"));
+                item.setUnit("pouch");
+                items.add(item);
+            }
+            meal.setFoodItems(items);
+            meals.add(meal);
+        }
+        mealKit.setMeals(meals);
+        mealKitJson = objectMapper.writeValueAsString(mealKit);
+    }
+
+    @Benchmark
+    public String serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String serializeMealKit() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(mealKit);
+    }
+
+    @Benchmark
+    public AiMealKitDto deserializeMealKit() throws JsonProcessingException {
+        return objectMapper.readValue(mealKitJson, AiMealKitDto.class);
+    }
+}
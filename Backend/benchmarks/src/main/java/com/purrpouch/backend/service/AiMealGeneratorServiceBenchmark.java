@@ -0,0 +1,74 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodAttributes;
+import com.purrpouch.backend.model.FoodSku;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiMealGeneratorServiceBenchmark {
+
+    @Param({ "20", "200" })
+    private int skuCount;
+
+    private AiMealGeneratorService aiMealGeneratorService;
+    private List<FoodSku> foodSkus;
+    private List<String> chatHistory;
+
+    @Setup
+    public void setUp() {
+        aiMealGeneratorService = new AiMealGeneratorService();
+        CatProfile.ProteinType[] proteins = CatProfile.ProteinType.values();
+        FoodSku.FoodType[] types = FoodSku.FoodType.values();
+        foodSkus = new ArrayList<>();
+        for (int i = 0; i < skuCount; i++) {
+            FoodSku sku = new FoodSku();
+            sku.setId((long) i);
+            sku.setName("Recipe " + i);
+            sku.setType(types[i % types.length]);
+            sku.setBrand("Brand " + (i % 7));
+            sku.setUnit("pouch");
+            sku.setPricePerUnit(new BigDecimal("25000"));
+            sku.setAvailableStock(100 + i);
+            sku.setDescription(i % 2 == 0 ? "Grain free recipe with real meat as the first ingredient" : null);
+            sku.setAttributeMask(FoodAttributes.encode(Set.of(proteins[i % proteins.length]),
+                    Set.of(CatProfile.DietaryRequirement.SENSITIVE_STOMACH), Set.of()));
+            foodSkus.add(sku);
+        }
+        chatHistory = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chatHistory.add("User: message number " + i + " about what my cat likes to eat in the evening");
+        }
+    }
+
+    @Benchmark
+    public String formatFoodSkuData() {
+        return aiMealGeneratorService.formatFoodSkuData(foodSkus);
+    }
+
+    @Benchmark
+    public String formatChatHistory() {
+        return aiMealGeneratorService.formatChatHistory(chatHistory);
+    }
+}
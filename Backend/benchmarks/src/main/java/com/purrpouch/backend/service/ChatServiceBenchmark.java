@@ -0,0 +1,56 @@
+package com.purrpouch.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatServiceBenchmark {
+
+    private static final String LIST_RESPONSE = """
+            Great question! Based on Mochi's profile, here is what I would suggest:
+
+            1. Royal Canin Sensitive Digestion wet food, half a pouch twice a day
+            2. A salmon-based dry food as a topper to encourage drinking
+            - Keep fresh water available and consider a fountain
+            * Avoid chicken-based treats because of the allergy noted in the profile
+
+            I recommend introducing new food gradually over seven days to avoid stomach upset.
+            """;
+
+    private static final String PROSE_RESPONSE = "Cats that are older than ten years often benefit from a senior "
+            + "formula. Hill's Science Diet Senior is a common choice. Purina Pro Plan also has a sensitive stomach "
+            + "line. Always check with your veterinarian before switching. Mochi seems healthy overall!";
+
+    private ChatService chatService;
+
+    @Setup
+    public void setUp() {
+        chatService = new ChatService();
+    }
+
+    @Benchmark
+    public List<String> extractRecommendationsFromList() {
+        return chatService.extractRecommendations(LIST_RESPONSE);
+    }
+
+    @Benchmark
+    public List<String> extractRecommendationsFromProse() {
+        return chatService.extractRecommendations(PROSE_RESPONSE);
+    }
+}
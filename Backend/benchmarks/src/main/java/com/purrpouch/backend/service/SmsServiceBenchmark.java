@@ -0,0 +1,40 @@
+package com.purrpouch.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmsServiceBenchmark {
+
+    @Param({ "0912 345 678", "+84912345678", "912345678" })
+    private String phoneNumber;
+
+    private SmsService smsService;
+
+    @Setup
+    public void setUp() {
+        smsService = new SmsService(new RestTemplateBuilder());
+    }
+
+    @Benchmark
+    public String normalizePhoneNumber() {
+        return smsService.normalizePhoneNumber(phoneNumber);
+    }
+}
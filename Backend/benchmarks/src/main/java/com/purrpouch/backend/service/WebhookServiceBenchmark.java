@@ -0,0 +1,45 @@
+package com.purrpouch.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookServiceBenchmark {
+
+    @Param({ "pay-prefix", "dashed-uuid", "no-uuid" })
+    private String format;
+
+    private WebhookService webhookService;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        webhookService = new WebhookService();
+        content = switch (format) {
+            case "pay-prefix" -> "PAY e8aad83dfc704db7853a5c75c706c745 Ma giao dich Trace123456 Trace 123456";
+            case "dashed-uuid" -> "CK thanh toan don hang e8aad83d-fc70-4db7-853a-5c75c706c745 tai PurrPouch";
+            default -> "Chuyen tien an trua cho ban, khong co ma don hang trong noi dung nay";
+        };
+    }
+
+    @Benchmark
+    public String extractUuidFromContent() {
+        return webhookService.extractUuidFromContent(content);
+    }
+}
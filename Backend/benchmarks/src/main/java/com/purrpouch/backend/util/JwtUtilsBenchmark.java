@@ -0,0 +1,57 @@
+package com.purrpouch.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtils = new JwtUtils();
+        // Normally injected from jwt.secret and jwt.expirationMs
+        setField("jwtSecret", "benchmarksecretkey12345678901234567890123456789");
+        setField("jwtExpirationMs", 86_400_000);
+        token = jwtUtils.generateTokenFromEmail("benchmark@purrpouch.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateTokenFromEmail("benchmark@purrpouch.com");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String readEmailFromToken() {
+        return jwtUtils.getEmailFromJwtToken(token);
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtils.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtils, value);
+    }
+}
@@ -0,0 +1,67 @@
+package com.purrpouch.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * JSON calls against the backend, each one timed under an endpoint name such
+ * as "POST /api/orders" so ids in paths do not split the statistics
+ */
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final URI baseUrl;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+
+    public ApiClient(HttpClient httpClient, URI baseUrl, ObjectMapper objectMapper, LatencyStats stats) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+    }
+
+    /**
+     * Send a request and return the parsed body; non-2xx answers are recorded
+     * as errors and thrown
+     *
+     * @param name  Endpoint name the latency is recorded under
+     * @param token Bearer token, or null for anonymous calls
+     */
+    public JsonNode send(String name, String method, String path, Object body, String token)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(name, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        stats.record(name, System.nanoTime() - start, success);
+
+        if (!success) {
+            throw new IOException(name + " returned " + response.statusCode() + ": " + new String(response.body()));
+        }
+        return response.body().length == 0 ? objectMapper.missingNode() : objectMapper.readTree(response.body());
+    }
+}
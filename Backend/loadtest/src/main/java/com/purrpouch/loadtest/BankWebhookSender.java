@@ -0,0 +1,41 @@
+package com.purrpouch.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays the bank: posts the Pay2S transfer notification the backend would get
+ * once a customer pays the VietQR code for an order
+ */
+public class BankWebhookSender {
+
+    private final ApiClient apiClient;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public BankWebhookSender(ApiClient apiClient) {
+        this.apiClient = apiClient;
+    }
+
+    /**
+     * Report an incoming transfer whose content carries the order's payment UUID
+     */
+    public void notifyTransfer(String paymentUuid, BigDecimal amount) throws IOException, InterruptedException {
+        long number = sequence.incrementAndGet();
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("id", String.valueOf(number));
+        transaction.put("gateway", "MBBank");
+        transaction.put("transactionDate", LocalDate.now().toString());
+        transaction.put("transactionNumber", "LT" + number);
+        transaction.put("accountNumber", "0000000000");
+        transaction.put("content", "PAY " + paymentUuid + " Ma giao dich Trace" + String.format("%06d", number));
+        transaction.put("transferType", "IN");
+        transaction.put("transferAmount", amount);
+        apiClient.send("POST /api/webhook/pay2s", "POST", "/api/webhook/pay2s",
+                Map.of("transactions", List.of(transaction)), null);
+    }
+}
@@ -0,0 +1,162 @@
+package com.purrpouch.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One virtual customer: signs up and logs in (password and Google), listens
+ * for payment pushes, then repeatedly manages a cat, generates an AI kit,
+ * checks out and pays through the bank webhook. In the slow-LLM scenario it
+ * only asks the chat assistant questions after logging in.
+ */
+public class CustomerJourney implements Runnable {
+
+    static final String PAYMENT_NOTIFICATION = "WS /user/queue/payments (webhook to PAID)";
+    static final String ITERATION = "journey iteration";
+
+    private static final BigDecimal KIT_PRICE = new BigDecimal("250000");
+
+    private final String customer;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final ApiClient api;
+    private final BankWebhookSender bank;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+
+    private String token;
+    private long userId;
+
+    public CustomerJourney(String customer, LoadTestOptions options, HttpClient httpClient, ApiClient api,
+            BankWebhookSender bank, ObjectMapper objectMapper, LatencyStats stats) {
+        this.customer = customer;
+        this.options = options;
+        this.httpClient = httpClient;
+        this.api = api;
+        this.bank = bank;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+    }
+
+    @Override
+    public void run() {
+        try {
+            signUpAndLogIn();
+            signInWithGoogle();
+        } catch (Exception e) {
+            System.err.println(customer + " could not sign in: " + e.getMessage());
+            return;
+        }
+        if (options.scenario() == LoadTestOptions.Scenario.SLOW_LLM) {
+            askQuestions();
+            return;
+        }
+        try (PaymentNotificationListener notifications = PaymentNotificationListener.connect(httpClient,
+                options.baseUrl(), token, objectMapper, options.notificationTimeout())) {
+            for (int i = 0; i < options.iterations(); i++) {
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    shop(notifications);
+                    success = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    System.err.println(customer + " iteration " + i + " failed: " + e.getMessage());
+                } finally {
+                    stats.record(ITERATION, System.nanoTime() - start, success);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println(customer + " could not open the payment WebSocket: " + e.getMessage());
+        }
+    }
+
+    private void askQuestions() {
+        for (int i = 0; i < options.iterations(); i++) {
+            try {
+                api.send("POST /api/chat/send", "POST", "/api/chat/send",
+                        Map.of("message", "How much wet food should an adult cat eat per day?"), token);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println(customer + " question " + i + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void signUpAndLogIn() throws Exception {
+        String email = customer + "@loadtest.purrpouch.local";
+        api.send("POST /api/auth/signup", "POST", "/api/auth/signup",
+                Map.of("username", customer, "email", email, "password", "loadtest-password"), null);
+        JsonNode jwt = api.send("POST /api/auth/signin", "POST", "/api/auth/signin",
+                Map.of("email", email, "password", "loadtest-password"), null);
+        token = jwt.path("token").asText();
+        userId = jwt.path("id").asLong();
+    }
+
+    // A separate Google account, verified by the fake Firebase on the backend
+    private void signInWithGoogle() throws Exception {
+        String idToken = FakeIdTokens.mint("google-" + customer, "g-" + customer + "@loadtest.purrpouch.local",
+                "g-" + customer);
+        api.send("POST /api/auth/google-auth", "POST", "/api/auth/google-auth", Map.of("idToken", idToken), null);
+    }
+
+    private void shop(PaymentNotificationListener notifications) throws Exception {
+        // Cat profile CRUD
+        Map<String, Object> cat = new LinkedHashMap<>();
+        cat.put("name", "Miso");
+        cat.put("breed", "British Shorthair");
+        cat.put("weight", 4.2);
+        cat.put("age", 3);
+        cat.put("proteinPreferences", List.of("CHICKEN", "SALMON"));
+        cat.put("dietaryRequirements", List.of("HAIRBALL_CONTROL"));
+        cat.put("allergies", List.of("NO_BEEF"));
+        long catId = api.send("POST /api/cat-profiles", "POST", "/api/cat-profiles", cat, token)
+                .path("id").asLong();
+        api.send("GET /api/cat-profiles", "GET", "/api/cat-profiles", null, token);
+        api.send("GET /api/cat-profiles/{id}", "GET", "/api/cat-profiles/" + catId, null, token);
+        cat.put("weight", 4.4);
+        api.send("PUT /api/cat-profiles/{id}", "PUT", "/api/cat-profiles/" + catId, cat, token);
+
+        // AI kit generation, answered by the canned model
+        JsonNode kit = api.send("POST /api/meal-kits/generate", "POST", "/api/meal-kits/generate",
+                Map.of("catId", catId, "chatHistory", List.of("She likes salmon and is a bit overweight")), token);
+        long kitId = kit.path("kitId").asLong();
+
+        // Checkout
+        JsonNode order = api.send("POST /api/orders", "POST", "/api/orders",
+                Map.of("userId", userId, "kitItems", Map.of(String.valueOf(kitId), 1), "totalPrice", KIT_PRICE),
+                token);
+        long orderId = order.path("id").asLong();
+        String paymentUuid = UUID.randomUUID().toString().replace("-", "");
+        api.send("PUT /api/orders/{id}/payment-uuid", "PUT", "/api/orders/" + orderId + "/payment-uuid",
+                Map.of("paymentUuid", paymentUuid), token);
+
+        // Payment through the bank webhook, confirmed over the WebSocket
+        var paid = notifications.awaitStatus(orderId);
+        long start = System.nanoTime();
+        bank.notifyTransfer(paymentUuid, KIT_PRICE);
+        try {
+            String status = paid.get(options.notificationTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            stats.record(PAYMENT_NOTIFICATION, System.nanoTime() - start, "PAID".equals(status));
+        } catch (TimeoutException e) {
+            stats.record(PAYMENT_NOTIFICATION, System.nanoTime() - start, false);
+            throw new TimeoutException("No PAID notification for order " + orderId);
+        }
+        api.send("GET /api/orders/{id}", "GET", "/api/orders/" + orderId, null, token);
+
+        api.send("DELETE /api/cat-profiles/{id}", "DELETE", "/api/cat-profiles/" + catId, null, token);
+    }
+}
@@ -0,0 +1,25 @@
+package com.purrpouch.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Mints the unsigned ID tokens the backend's loadtest profile accepts in
+ * place of Firebase-issued ones (see FakeFirebaseIdentityService)
+ */
+public final class FakeIdTokens {
+
+    private static final String HEADER = "{\"alg\":\"none\",\"typ\":\"JWT\",\"kid\":\"purrpouch-loadtest\"}";
+
+    private FakeIdTokens() {
+    }
+
+    public static String mint(String uid, String email, String name) {
+        String payload = "{\"sub\":\"" + uid + "\",\"email\":\"" + email + "\",\"name\":\"" + name + "\"}";
+        return encode(HEADER) + "." + encode(payload) + ".";
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
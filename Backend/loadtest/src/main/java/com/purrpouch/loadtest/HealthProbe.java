@@ -0,0 +1,39 @@
+package com.purrpouch.loadtest;
+
+/**
+ * Hits the cheap health endpoint at a fixed interval while the load runs.
+ * Its latency shows whether requests wait for a free server thread: with the
+ * platform pool saturated by slow LLM calls it climbs to the LLM latency.
+ */
+public class HealthProbe implements Runnable {
+
+    static final String NAME = "GET /actuator/health (probe)";
+
+    private static final long INTERVAL_MS = 200;
+
+    private final ApiClient api;
+    private volatile boolean running = true;
+
+    public HealthProbe(ApiClient api) {
+        this.api = api;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                api.send(NAME, "GET", "/actuator/health", null, null);
+                Thread.sleep(INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Recorded as an error by the client; keep probing
+            }
+        }
+    }
+}
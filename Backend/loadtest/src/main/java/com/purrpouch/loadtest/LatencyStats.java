@@ -0,0 +1,67 @@
+package com.purrpouch.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency samples per endpoint, kept in full so percentiles are exact
+ */
+public class LatencyStats {
+
+    private final Map<String, Samples> samplesByName = new ConcurrentHashMap<>();
+
+    public void record(String name, long nanos, boolean success) {
+        samplesByName.computeIfAbsent(name, key -> new Samples()).add(nanos, success);
+    }
+
+    /**
+     * Summaries sorted by name, with throughput over the given wall time
+     */
+    public List<Summary> summarize(double elapsedSeconds) {
+        List<Summary> summaries = new ArrayList<>();
+        samplesByName.forEach((name, samples) -> summaries.add(samples.summarize(name, elapsedSeconds)));
+        summaries.sort(Comparator.comparing(Summary::name));
+        return summaries;
+    }
+
+    public record Summary(String name, int count, long errors, double throughputPerSecond, double p50Ms,
+            double p99Ms, double maxMs) {
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long value, boolean success) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarize(String name, double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new Summary(name, size, errors, elapsedSeconds > 0 ? size / elapsedSeconds : 0,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99),
+                    size > 0 ? sorted[size - 1] / 1e6 : 0);
+        }
+
+        // Nearest-rank percentile
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(rank - 1, 0)] / 1e6;
+        }
+    }
+}
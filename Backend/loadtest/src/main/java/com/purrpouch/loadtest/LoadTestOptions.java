@@ -0,0 +1,46 @@
+package com.purrpouch.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as --name=value
+ *
+ * @param scenario              What each customer does, see {@link Scenario}
+ * @param users                 Concurrent virtual customers
+ * @param iterations            Rounds per customer after signing in
+ * @param rampUp                Time over which customers are started
+ * @param notificationTimeout   How long to wait for the WebSocket PAID push
+ * @param report                Where the JSON report is written
+ */
+public record LoadTestOptions(URI baseUrl, Scenario scenario, int users, int iterations, Duration rampUp,
+        Duration notificationTimeout, Path report) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Scenario.valueOf(values.getOrDefault("scenario", "shop").toUpperCase().replace('-', '_')),
+                Integer.parseInt(values.getOrDefault("users", "20")),
+                Integer.parseInt(values.getOrDefault("iterations", "5")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("ramp-up-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("notification-timeout-seconds", "10"))),
+                Path.of(values.getOrDefault("report", "loadtest-report.json")));
+    }
+
+    public enum Scenario {
+        /** Sign-up, cat CRUD, AI kit, checkout, webhook payment and WebSocket push */
+        SHOP,
+        /** Only chat questions, each waiting on the LLM; pair with many users to saturate threads */
+        SLOW_LLM
+    }
+}
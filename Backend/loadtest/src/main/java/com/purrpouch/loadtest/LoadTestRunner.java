@@ -0,0 +1,86 @@
+package com.purrpouch.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs concurrent customer journeys against a backend started with the
+ * loadtest profile and reports throughput and p50/p99 latency per endpoint
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyStats stats = new LatencyStats();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ApiClient api = new ApiClient(httpClient, options.baseUrl(), objectMapper, stats);
+        BankWebhookSender bank = new BankWebhookSender(api);
+
+        // Unique per run, so the same backend can be driven repeatedly
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        ExecutorService customers = Executors.newFixedThreadPool(options.users());
+        HealthProbe probe = new HealthProbe(api);
+        Thread probeThread = new Thread(probe, "health-probe");
+        probeThread.start();
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        for (int i = 0; i < options.users(); i++) {
+            String customer = "lt-" + runId + "-" + i;
+            long delayMs = options.rampUp().toMillis() * i / Math.max(options.users(), 1);
+            customers.submit(() -> {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                new CustomerJourney(customer, options, httpClient, api, bank, objectMapper, stats).run();
+            });
+        }
+        customers.shutdown();
+        customers.awaitTermination(1, TimeUnit.DAYS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        probe.stop();
+        probeThread.join();
+
+        List<LatencyStats.Summary> summaries = stats.summarize(elapsedSeconds);
+        print(System.out, summaries, elapsedSeconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("baseUrl", options.baseUrl().toString());
+        report.put("scenario", options.scenario().name());
+        report.put("users", options.users());
+        report.put("iterations", options.iterations());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("endpoints", summaries);
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+    }
+
+    private static void print(PrintStream out, List<LatencyStats.Summary> summaries, double elapsedSeconds) {
+        out.printf("%nRan for %.1f s%n", elapsedSeconds);
+        out.printf("%-45s %8s %7s %9s %10s %10s %10s%n", "endpoint", "count", "errors", "req/s", "p50 ms",
+                "p99 ms", "max ms");
+        for (LatencyStats.Summary summary : summaries) {
+            out.printf("%-45s %8d %7d %9.1f %10.1f %10.1f %10.1f%n", summary.name(), summary.count(),
+                    summary.errors(), summary.throughputPerSecond(), summary.p50Ms(), summary.p99Ms(),
+                    summary.maxMs());
+        }
+    }
+}
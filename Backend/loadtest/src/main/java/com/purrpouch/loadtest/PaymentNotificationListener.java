@@ -0,0 +1,129 @@
+package com.purrpouch.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal STOMP client on the raw WebSocket transport of the /ws SockJS
+ * endpoint, subscribed to the user's payment queue like the web app is
+ */
+public class PaymentNotificationListener implements WebSocket.Listener, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    // Order id to the status pushed for it; created by whichever side comes first
+    private final Map<Long, CompletableFuture<String>> statusByOrder = new ConcurrentHashMap<>();
+    private final StringBuilder buffer = new StringBuilder();
+    private WebSocket webSocket;
+
+    private PaymentNotificationListener(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static PaymentNotificationListener connect(HttpClient httpClient, URI baseUrl, String jwt,
+            ObjectMapper objectMapper, Duration timeout) throws Exception {
+        PaymentNotificationListener listener = new PaymentNotificationListener(objectMapper);
+        URI uri = URI.create(baseUrl.toString().replaceFirst("^http", "ws").replaceFirst("/$", "")
+                + "/ws/websocket");
+        listener.webSocket = httpClient.newWebSocketBuilder()
+                .connectTimeout(timeout)
+                .buildAsync(uri, listener)
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        listener.send("CONNECT", "accept-version:1.2", "host:" + baseUrl.getHost(), "heart-beat:0,0",
+                "Authorization:Bearer " + jwt);
+        listener.connected.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        listener.send("SUBSCRIBE", "id:payments", "destination:/user/queue/payments");
+        return listener;
+    }
+
+    /**
+     * Status pushed for the order; register before triggering the payment
+     */
+    public CompletableFuture<String> awaitStatus(long orderId) {
+        return statusByOrder.computeIfAbsent(orderId, id -> new CompletableFuture<>());
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        buffer.append(data);
+        int end;
+        while ((end = buffer.indexOf("\0")) >= 0) {
+            String frame = buffer.substring(0, end);
+            buffer.delete(0, end + 1);
+            handleFrame(frame.stripLeading());
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        fail(error);
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        fail(new IOException("WebSocket closed: " + statusCode + " " + reason));
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (webSocket != null && !webSocket.isOutputClosed()) {
+            send("DISCONNECT");
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+    }
+
+    private void handleFrame(String frame) {
+        if (frame.isEmpty()) {
+            return; // heart-beat
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        String command = frame.substring(0, frame.indexOf('\n') > 0 ? frame.indexOf('\n') : frame.length());
+        String body = headersEnd >= 0 ? frame.substring(headersEnd + 2) : "";
+        switch (command) {
+            case "CONNECTED" -> connected.complete(null);
+            case "MESSAGE" -> handleUpdates(body);
+            case "ERROR" -> fail(new IOException("STOMP error: " + frame));
+            default -> {
+            }
+        }
+    }
+
+    // The user queue carries {"updates": [{"orderId": 1, "status": "PAID", ...}]}
+    private void handleUpdates(String body) {
+        try {
+            for (JsonNode update : objectMapper.readTree(body).path("updates")) {
+                awaitStatus(update.path("orderId").asLong()).complete(update.path("status").asText());
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable error) {
+        connected.completeExceptionally(error);
+        statusByOrder.values().forEach(future -> future.completeExceptionally(error));
+    }
+
+    private void send(String command, String... headers) {
+        StringBuilder frame = new StringBuilder(command).append('\n');
+        for (String header : headers) {
+            frame.append(header).append('\n');
+        }
+        frame.append('\n').append('\0');
+        webSocket.sendText(frame, true).join();
+    }
+}
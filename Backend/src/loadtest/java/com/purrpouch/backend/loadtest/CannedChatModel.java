@@ -0,0 +1,148 @@
+package com.purrpouch.backend.loadtest;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ChatModel answering without a network call, after a configurable delay that
+ * stands in for LLM latency. Meal-kit prompts get a valid kit built from the
+ * food list in the prompt; everything else gets a short canned answer.
+ */
+public class CannedChatModel implements ChatModel {
+
+    // Matches the lines AiMealGeneratorService.formatFoodSkuData writes
+    private static final Pattern FOOD_LINE = Pattern
+            .compile("ID: (\\d+), Name: \"[^\"]*\", Type: (WET|DRY|TOPPING|SNACK)");
+
+    // Matches the cat sections of household prompts
+    private static final Pattern CAT_LINE = Pattern.compile("Cat ID: (\\d+)");
+
+    private static final int STREAM_CHUNK_CHARS = 8;
+
+    private static final String CHAT_ANSWER = "For an adult cat, a mix of wet food at breakfast and dinner with a "
+            + "measured portion of dry food at lunch keeps hydration and calories balanced. "
+            + "Royal Canin Indoor and Hill's Science Diet Adult are both good fits; "
+            + "add a light topping for picky eaters and keep treats under 10% of daily calories.";
+
+    private final long latencyMs;
+    private final long jitterMs;
+
+    public CannedChatModel(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String systemPrompt = systemPrompt(prompt.getInstructions());
+        String answer;
+        if (systemPrompt.contains("Generate one meal kit per cat")) {
+            answer = householdJson(systemPrompt);
+        } else if (systemPrompt.contains("Generate a meal kit in JSON format")) {
+            answer = mealKitJson(systemPrompt);
+        } else {
+            answer = CHAT_ANSWER;
+        }
+        simulateLatency();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(answer))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        // Token-sized chunks, so streaming consumers see partial answers
+        return Flux.defer(() -> {
+            String answer = call(prompt).getResult().getOutput().getContent();
+            List<String> chunks = new ArrayList<>();
+            for (int i = 0; i < answer.length(); i += STREAM_CHUNK_CHARS) {
+                chunks.add(answer.substring(i, Math.min(answer.length(), i + STREAM_CHUNK_CHARS)));
+            }
+            return Flux.fromIterable(chunks)
+                    .map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return OpenAiChatOptions.builder().model(OpenAiApi.ChatModel.GPT_4_O_MINI).build();
+    }
+
+    private void simulateLatency() {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String systemPrompt(List<Message> messages) {
+        for (Message message : messages) {
+            if (message instanceof SystemMessage) {
+                return message.getContent();
+            }
+        }
+        return "";
+    }
+
+    private static String householdJson(String systemPrompt) {
+        Map<String, List<String>> idsByType = foodIdsByType(systemPrompt);
+        List<String> kits = new ArrayList<>();
+        Matcher matcher = CAT_LINE.matcher(systemPrompt);
+        while (matcher.find()) {
+            kits.add(kitJson(idsByType).replaceFirst("\\{", "{\"catId\": " + matcher.group(1) + ", "));
+        }
+        return "{\"kits\": [" + String.join(", ", kits) + "]}";
+    }
+
+    private static String mealKitJson(String systemPrompt) {
+        return kitJson(foodIdsByType(systemPrompt));
+    }
+
+    private static Map<String, List<String>> foodIdsByType(String systemPrompt) {
+        Map<String, List<String>> idsByType = new HashMap<>();
+        Matcher matcher = FOOD_LINE.matcher(systemPrompt);
+        while (matcher.find()) {
+            idsByType.computeIfAbsent(matcher.group(2), type -> new ArrayList<>()).add(matcher.group(1));
+        }
+        return idsByType;
+    }
+
+    private static String kitJson(Map<String, List<String>> idsByType) {
+        return "{\"kitName\": \"Load test kit\", \"meals\": ["
+                + meal("BREAKFAST", pick(idsByType, "WET"), pick(idsByType, "TOPPING")) + ", "
+                + meal("LUNCH", pick(idsByType, "DRY"), pick(idsByType, "SNACK")) + ", "
+                + meal("DINNER", pick(idsByType, "WET"), pick(idsByType, "TOPPING")) + "]}";
+    }
+
+    private static String pick(Map<String, List<String>> idsByType, String type) {
+        List<String> ids = idsByType.get(type);
+        // An unknown id makes the generator fall back, like a bad LLM answer would
+        return ids == null || ids.isEmpty() ? "0" : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static String meal(String mealType, String mainId, String sideId) {
+        return "{\"mealType\": \"" + mealType + "\", \"foodItems\": ["
+                + "{\"foodSkuId\": " + mainId + ", \"quantity\": 1.0}, "
+                + "{\"foodSkuId\": " + sideId + ", \"quantity\": 0.5}]}";
+    }
+}
@@ -0,0 +1,61 @@
+package com.purrpouch.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.ErrorCode;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.purrpouch.backend.security.firebase.FirebaseIdentity;
+import com.purrpouch.backend.security.firebase.FirebaseIdentityService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * FirebaseIdentityService that needs no Firebase project. Accepts unsigned
+ * tokens shaped like ID tokens, whose header carries kid "purrpouch-loadtest"
+ * and whose payload carries sub, email, name and picture; the load driver
+ * mints them itself.
+ */
+public class FakeFirebaseIdentityService implements FirebaseIdentityService {
+
+    public static final String KEY_ID = "purrpouch-loadtest";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public FirebaseIdentity verifyIdToken(String idToken) throws FirebaseAuthException {
+        String[] parts = idToken != null ? idToken.split("\\.") : new String[0];
+        if (parts.length < 2) {
+            throw invalidToken("Token is not in JWT format");
+        }
+        try {
+            JsonNode header = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[0]));
+            if (!KEY_ID.equals(header.path("kid").asText())) {
+                throw invalidToken("Token was not issued for load testing");
+            }
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            String uid = payload.path("sub").asText(null);
+            if (uid == null || uid.isEmpty()) {
+                throw invalidToken("Token has no subject");
+            }
+            return new FirebaseIdentity(uid, payload.path("email").asText(null), payload.path("name").asText(null),
+                    payload.path("picture").asText(null));
+        } catch (FirebaseAuthException e) {
+            throw e;
+        } catch (Exception e) {
+            throw invalidToken("Token could not be decoded: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String createUser(String email, String password, String displayName, boolean emailVerified) {
+        return "loadtest-" + UUID.nameUUIDFromBytes(email.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FirebaseAuthException invalidToken(String message) {
+        return new FirebaseAuthException(ErrorCode.INVALID_ARGUMENT, message, null, null,
+                AuthErrorCode.INVALID_ID_TOKEN);
+    }
+}
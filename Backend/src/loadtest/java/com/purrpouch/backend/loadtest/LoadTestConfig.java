@@ -0,0 +1,65 @@
+package com.purrpouch.backend.loadtest;
+
+import com.purrpouch.backend.config.TimedChatModel;
+import com.purrpouch.backend.security.firebase.FirebaseIdentityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Local stand-ins for the external services, so the whole backend can be
+ * load-tested on one machine. Enabled with the loadtest profile, together
+ * with application-loadtest.properties (in-memory database, mock SMS).
+ * Because it accepts unsigned tokens, it refuses to start unless
+ * app.loadtest.allow-unsigned-tokens is set and the database is in-memory H2.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Value("${app.loadtest.allow-unsigned-tokens:false}")
+    private boolean allowUnsignedTokens;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${app.loadtest.llm-latency-ms:800}")
+    private long llmLatencyMs;
+
+    @Value("${app.loadtest.llm-jitter-ms:400}")
+    private long llmJitterMs;
+
+    @PostConstruct
+    public void checkEnvironment() {
+        if (!allowUnsignedTokens) {
+            throw new IllegalStateException(
+                    "The loadtest profile accepts unsigned tokens; set app.loadtest.allow-unsigned-tokens=true to use it");
+        }
+        if (!datasourceUrl.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("The loadtest profile only runs against an in-memory H2 database, not "
+                    + (datasourceUrl.isEmpty() ? "the default datasource" : datasourceUrl));
+        }
+    }
+
+    @Bean
+    public ChatModel chatModel(MeterRegistry meterRegistry) {
+        // Still timed, so LLM latency shows up next to the endpoint numbers
+        return new TimedChatModel(new CannedChatModel(llmLatencyMs, llmJitterMs), meterRegistry, "canned");
+    }
+
+    @Bean
+    public ChatModel fastChatModel(MeterRegistry meterRegistry) {
+        // The fast tier answers short chat turns in about half the time
+        return new TimedChatModel(new CannedChatModel(llmLatencyMs / 2, llmJitterMs / 2), meterRegistry,
+                "canned-fast");
+    }
+
+    @Bean
+    public FirebaseIdentityService firebaseIdentityService() {
+        return new FakeFirebaseIdentityService();
+    }
+}
@@ -0,0 +1,67 @@
+package com.purrpouch.backend.loadtest;
+
+import com.purrpouch.backend.model.CatProfile.ProteinType;
+import com.purrpouch.backend.model.FoodAttributes;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.repository.FoodSkuRepository;
+import com.purrpouch.backend.service.FoodSkuIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills the empty load-test database with a food catalog, so meal-kit
+ * generation and checkout have SKUs to work with
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    @Autowired
+    private FoodSkuRepository foodSkuRepository;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Value("${app.loadtest.skus-per-type:10}")
+    private int skusPerType;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (foodSkuRepository.count() > 0) {
+            return;
+        }
+        ProteinType[] proteins = ProteinType.values();
+        List<FoodSku> skus = new ArrayList<>();
+        for (FoodSku.FoodType type : FoodSku.FoodType.values()) {
+            for (int i = 0; i < skusPerType; i++) {
+                ProteinType protein = proteins[i % proteins.length];
+                FoodSku sku = new FoodSku();
+                sku.setName(type + " " + protein + " #" + i);
+                sku.setType(type);
+                sku.setBrand("LoadTest");
+                sku.setUnit(type == FoodSku.FoodType.DRY ? "g" : "pouch");
+                sku.setPricePerUnit(BigDecimal.valueOf(10_000 + 1_000L * i));
+                sku.setDescription("Seeded for load testing");
+                sku.setAvailableStock(1_000_000);
+                sku.setAttributeMask(FoodAttributes.encode(Set.of(protein), Set.of(), Set.of()));
+                skus.add(sku);
+            }
+        }
+        foodSkuRepository.saveAll(skus);
+        foodSkuIndexService.invalidate();
+        logger.info("Seeded {} food SKUs for load testing", skus.size());
+    }
+}
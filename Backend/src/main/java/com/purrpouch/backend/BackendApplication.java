@@ -2,14 +2,45 @@ package com.purrpouch.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.Map;
+
 @SpringBootApplication
 @EnableScheduling
 public class BackendApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BackendApplication.class, args);
+		SpringApplication application = new SpringApplication(BackendApplication.class);
+		// Lowest precedence, so application properties can override them
+		application.setDefaultProperties(Map.of(
+				"management.endpoints.web.exposure.include", "health,prometheus",
+				"management.metrics.distribution.percentiles-histogram.http.server.requests", "true",
+				"management.metrics.tags.application", "purrpouch-backend"));
+		application.addListeners(redisOnlyInClusterMode());
+		application.run(args);
+	}
+
+	/**
+	 * Redis is only the CLUSTER broker mode's pub/sub bus. Other nodes leave out
+	 * its auto-configuration and health check, so health is not DOWN on
+	 * deployments without a Redis server.
+	 */
+	private static ApplicationListener<ApplicationEnvironmentPreparedEvent> redisOnlyInClusterMode() {
+		return event -> {
+			if ("CLUSTER".equals(event.getEnvironment().getProperty("app.websocket.broker.mode"))) {
+				return;
+			}
+			event.getEnvironment().getPropertySources().addLast(new MapPropertySource("redisDefaults", Map.of(
+					"spring.autoconfigure.exclude",
+					"org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,"
+							+ "org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration,"
+							+ "org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration",
+					"management.health.redis.enabled", "false")));
+		};
 	}
 
 }
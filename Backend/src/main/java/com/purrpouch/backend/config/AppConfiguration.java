@@ -1,12 +1,18 @@
 package com.purrpouch.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -20,14 +26,40 @@ public class AppConfiguration {
         return new OpenAiApi(openAiApiKey);
     }
 
+    // The loadtest profile swaps in a canned model, see LoadTestConfig
     @Bean
-    public ChatModel chatModel(OpenAiApi openAiApi) {
-        return new OpenAiChatModel(openAiApi,
-                OpenAiChatOptions.builder().model(OpenAiApi.ChatModel.GPT_4_O_MINI).build());
+    @Profile("!loadtest")
+    public ChatModel chatModel(OpenAiApi openAiApi, MeterRegistry meterRegistry,
+            @Value("${app.llm.standard-tier.model:gpt-4o-mini}") String model) {
+        return new TimedChatModel(new OpenAiChatModel(openAiApi,
+                OpenAiChatOptions.builder().model(model).build()), meterRegistry, "openai");
     }
 
+    // Cheaper, faster tier for short chat turns; answers are capped in length
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Profile("!loadtest")
+    public ChatModel fastChatModel(OpenAiApi openAiApi, MeterRegistry meterRegistry,
+            @Value("${app.llm.fast-tier.model:gpt-4o-mini}") String model,
+            @Value("${app.llm.fast-tier.max-tokens:400}") int maxTokens) {
+        return new TimedChatModel(new OpenAiChatModel(openAiApi,
+                OpenAiChatOptions.builder().model(model).maxTokens(maxTokens).build()), meterRegistry, "openai-fast");
+    }
+
+    // Embeddings for catalog retrieval; "hashing" is a local embedder needing no network.
+    // Primary over the one the OpenAI starter auto-configures
+    @Bean
+    @Primary
+    public EmbeddingModel embeddingModel(OpenAiApi openAiApi,
+            @Value("${app.embeddings.provider:openai}") String provider,
+            @Value("${app.embeddings.hashing-dimensions:512}") int hashingDimensions) {
+        return "hashing".equals(provider)
+                ? new HashingEmbeddingModel(hashingDimensions)
+                : new OpenAiEmbeddingModel(openAiApi);
+    }
+
+    // Built from Boot's builder so requests are recorded as http.client.requests
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.purrpouch.backend.config;
+
+import com.purrpouch.backend.config.ClusterMessageBus.ClusterMessage;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker channel interceptor for CLUSTER mode. Messages the application sends
+ * to the local broker are published on the cluster bus, and messages other
+ * nodes publish are replayed into the local broker channel, so a client sees
+ * every update no matter which node it is connected to.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "CLUSTER")
+public class ClusterFanOutInterceptor implements ChannelInterceptor {
+
+    static final String ORIGIN_HEADER = "clusterOrigin";
+
+    @Autowired
+    private ClusterMessageBus clusterMessageBus;
+
+    @Autowired
+    @Lazy
+    @Qualifier("brokerChannel")
+    private MessageChannel brokerChannel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong received = new AtomicLong();
+
+    @PostConstruct
+    public void subscribe() {
+        clusterMessageBus.subscribe(this::deliverRemote);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (shouldPublish(message)) {
+            Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+            clusterMessageBus.publish(new ClusterMessage(nodeId,
+                    SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+                    contentType != null ? contentType.toString() : null,
+                    (byte[]) message.getPayload()));
+            published.incrementAndGet();
+        }
+        return message;
+    }
+
+    private boolean shouldPublish(Message<?> message) {
+        if (message.getHeaders().containsKey(ORIGIN_HEADER) || !(message.getPayload() instanceof byte[])) {
+            return false;
+        }
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type != null && type != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        // User destinations are published unresolved; each node resolves them against its own sessions
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && (destination.startsWith("/topic/") || destination.startsWith("/user/"));
+    }
+
+    private void deliverRemote(ClusterMessage clusterMessage) {
+        if (nodeId.equals(clusterMessage.getOriginNodeId())) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(clusterMessage.getDestination());
+        if (clusterMessage.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(clusterMessage.getContentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, clusterMessage.getOriginNodeId());
+        brokerChannel.send(MessageBuilder.createMessage(clusterMessage.getPayload(), accessor.getMessageHeaders()));
+        received.incrementAndGet();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+}
@@ -0,0 +1,32 @@
+package com.purrpouch.backend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.function.Consumer;
+
+/**
+ * Pub/sub channel shared by all application nodes in CLUSTER broker mode
+ */
+public interface ClusterMessageBus {
+
+    void publish(ClusterMessage message);
+
+    void subscribe(Consumer<ClusterMessage> listener);
+
+    /**
+     * A broker message as it crosses between nodes
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    class ClusterMessage {
+        private String originNodeId;
+        private String destination;
+        private String contentType;
+        private byte[] payload;
+    }
+}
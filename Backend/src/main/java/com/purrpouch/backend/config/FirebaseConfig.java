@@ -6,12 +6,14 @@ import com.google.firebase.FirebaseOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 
 @Configuration
+@Profile("!loadtest")
 public class FirebaseConfig {
 
     @Value("${firebase.config-file}")
@@ -0,0 +1,24 @@
+package com.purrpouch.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics wiring beyond what Spring Boot auto-configures (JVM, GC, Hikari
+ * pool, HTTP server/client, Spring Data repository invocations)
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Value("${app.metrics.hibernate-statistics:true}")
+    private boolean hibernateStatistics;
+
+    // Hibernate only collects statistics when asked; Boot then exposes them as hibernate.* metrics
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.putIfAbsent("hibernate.generate_statistics",
+                String.valueOf(hibernateStatistics));
+    }
+}
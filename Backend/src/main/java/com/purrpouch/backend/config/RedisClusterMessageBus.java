@@ -0,0 +1,84 @@
+package com.purrpouch.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "CLUSTER")
+public class RedisClusterMessageBus implements ClusterMessageBus, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisClusterMessageBus.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Value("${app.websocket.cluster.channel:purrpouch:websocket}")
+    private String channel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Consumer<ClusterMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        container.destroy();
+    }
+
+    @Override
+    public void publish(ClusterMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (IOException e) {
+            logger.error("Failed to publish cluster message for {}", message.getDestination(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ClusterMessage clusterMessage = objectMapper.readValue(message.getBody(), ClusterMessage.class);
+            for (Consumer<ClusterMessage> listener : listeners) {
+                listener.accept(clusterMessage);
+            }
+        } catch (IOException e) {
+            logger.error("Dropping unreadable cluster message", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.purrpouch.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+/**
+ * ChatModel decorator recording the duration and token usage of every LLM
+ * call
+ */
+public class TimedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final MeterRegistry meterRegistry;
+    private final String client;
+
+    public TimedChatModel(ChatModel delegate, MeterRegistry meterRegistry, String client) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.client = client;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            ChatResponse response = delegate.call(prompt);
+            if (response != null && response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+                countTokens("prompt", response.getMetadata().getUsage().getPromptTokens());
+                countTokens("generation", response.getMetadata().getUsage().getGenerationTokens());
+            }
+            return response;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(timer("call", outcome));
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        // Timed until the stream completes, fails or is cancelled by the subscriber
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return delegate.stream(prompt).doFinally(signal -> sample.stop(timer("stream",
+                    switch (signal) {
+                        case ON_COMPLETE -> "success";
+                        case ON_ERROR -> "error";
+                        default -> "cancelled";
+                    })));
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("purrpouch.outbound.calls")
+                .description("Outbound client call latency")
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void countTokens(String type, Long tokens) {
+        if (tokens != null) {
+            meterRegistry.counter("purrpouch.outbound.tokens", "client", client, "type", type).increment(tokens);
+        }
+    }
+}
@@ -1,24 +1,103 @@
 package com.purrpouch.backend.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /**
+     * SIMPLE keeps subscriptions in memory on a single node. RELAY forwards
+     * them to an external STOMP broker (e.g. RabbitMQ). CLUSTER keeps the
+     * in-memory broker and fans messages out to other nodes over Redis.
+     */
+    public enum BrokerMode {
+        SIMPLE, RELAY, CLUSTER
+    }
+
     @Autowired
     private WebSocketSecurityConfig webSocketSecurityConfig;
 
+    // Only created in CLUSTER mode
+    @Autowired(required = false)
+    private ClusterFanOutInterceptor clusterFanOutInterceptor;
+
+    @Value("${app.websocket.broker.mode:SIMPLE}")
+    private BrokerMode brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    // Clients only send CONNECT/SUBSCRIBE frames, so the inbound pool stays small
+    @Value("${app.websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // A slow client is dropped once this much is buffered for it or a send blocks this long
+    @Value("${app.websocket.send-buffer-size-limit:131072}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${app.websocket.message-size-limit:16384}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // For broadcasting
+        switch (brokerMode) {
+            case RELAY:
+                config.enableStompBrokerRelay("/topic", "/queue")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode)
+                        // Share user sessions between nodes so user destinations resolve anywhere
+                        .setUserDestinationBroadcast("/topic/unresolved-user")
+                        .setUserRegistryBroadcast("/topic/user-registry");
+                break;
+            case CLUSTER:
+                config.enableSimpleBroker("/topic", "/queue");
+                config.configureBrokerChannel().interceptors(clusterFanOutInterceptor);
+                break;
+            default:
+                config.enableSimpleBroker("/topic", "/queue"); // Broadcast topics and per-user queues
+        }
         config.setApplicationDestinationPrefixes("/app"); // Prefix for server-side message handling
+        config.setUserDestinationPrefix("/user"); // Resolved to the sessions of the connected principal
     }
 
     @Override
@@ -31,5 +110,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketSecurityConfig);
+        // Pools grow past the core size only once the queue is full
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    public BrokerMode getBrokerMode() {
+        return brokerMode;
     }
 }
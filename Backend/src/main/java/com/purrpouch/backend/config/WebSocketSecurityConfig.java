@@ -1,8 +1,12 @@
 package com.purrpouch.backend.config;
 
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.service.MealKitJobService;
+import com.purrpouch.backend.service.PaymentNotificationService;
 import com.purrpouch.backend.util.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -10,17 +14,38 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
 
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Configuration
 public class WebSocketSecurityConfig implements ChannelInterceptor {
 
+    // The only destinations clients may subscribe to. Exact names only: the
+    // brokers match patterns, so a subscription to /topic/** would receive
+    // every user's payment and job updates.
+    private static final String USER_PAYMENTS_DESTINATION = "/user" + PaymentNotificationService.USER_PAYMENTS_QUEUE;
+    private static final Pattern ORDER_PAYMENT_TOPIC = Pattern.compile("/topic/payment/(\\d{1,18})");
+    private static final Pattern MEAL_KIT_JOB_TOPIC = Pattern.compile(
+            Pattern.quote(MealKitJobService.JOB_TOPIC) + "([0-9a-fA-F-]+)");
+
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Lazy: the job service needs the messaging template built by the broker config
+    @Autowired
+    @Lazy
+    private MealKitJobService mealKitJobService;
+
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(this);
     }
@@ -53,8 +78,50 @@ public class WebSocketSecurityConfig implements ChannelInterceptor {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 accessor.setUser(authentication);
             }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            authorizeSubscription(accessor);
         }
 
         return message;
     }
+
+    /**
+     * Subscriptions are allowed to the user's own payment queue, to the
+     * payment topic of an order they own and to the topic of a meal kit job
+     * they submitted. Everything else is refused.
+     */
+    private void authorizeSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            throw new AccessDeniedException("Subscription without a destination");
+        }
+        if (USER_PAYMENTS_DESTINATION.equals(destination)) {
+            requireUser(accessor);
+            return;
+        }
+        Matcher payment = ORDER_PAYMENT_TOPIC.matcher(destination);
+        if (payment.matches()) {
+            Long orderId = Long.valueOf(payment.group(1));
+            if (!orderRepository.existsByIdAndUserEmail(orderId, requireUser(accessor).getName())) {
+                throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+            }
+            return;
+        }
+        Matcher job = MEAL_KIT_JOB_TOPIC.matcher(destination);
+        if (job.matches()) {
+            if (!mealKitJobService.isOwnedBy(job.group(1), requireUser(accessor).getName())) {
+                throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+            }
+            return;
+        }
+        throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+    }
+
+    private static Principal requireUser(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        if (user == null) {
+            throw new AccessDeniedException("Authentication required to subscribe to " + accessor.getDestination());
+        }
+        return user;
+    }
 }
@@ -1,13 +1,24 @@
 package com.purrpouch.backend.controller;
 
+import com.purrpouch.backend.model.FoodSku;
 import com.purrpouch.backend.model.User;
 import com.purrpouch.backend.model.Order.OrderStatus;
 import com.purrpouch.backend.model.Delivery.DeliveryStatus;
+import com.purrpouch.backend.payload.request.BulkStatusUpdateRequest;
+import com.purrpouch.backend.payload.request.FoodSkuAttributesRequest;
 import com.purrpouch.backend.payload.request.auth.CreateAdminRequest;
 import com.purrpouch.backend.payload.response.MessageResponse;
 import com.purrpouch.backend.service.AdminService;
+import com.purrpouch.backend.service.BulkStatusService;
 import com.purrpouch.backend.service.OrderService;
+import com.purrpouch.backend.service.DeliveryBatchingService;
+import com.purrpouch.backend.service.DeliverySchedulerService;
 import com.purrpouch.backend.service.DeliveryService;
+import com.purrpouch.backend.service.FoodService;
+import com.purrpouch.backend.service.KitSuggestionService;
+import com.purrpouch.backend.service.OutboxService;
+import com.purrpouch.backend.service.SemanticAnswerCacheService;
+import com.purrpouch.backend.service.WebSocketStatsService;
 import com.purrpouch.backend.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +26,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -38,6 +51,30 @@ public class AdminController {
     @Autowired
     private DeliveryService deliveryService;
 
+    @Autowired
+    private DeliverySchedulerService deliverySchedulerService;
+
+    @Autowired
+    private DeliveryBatchingService deliveryBatchingService;
+
+    @Autowired
+    private BulkStatusService bulkStatusService;
+
+    @Autowired
+    private FoodService foodService;
+
+    @Autowired
+    private WebSocketStatsService webSocketStatsService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private KitSuggestionService kitSuggestionService;
+
+    @Autowired
+    private SemanticAnswerCacheService semanticAnswerCacheService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -100,6 +137,17 @@ public class AdminController {
         }
     }
 
+    // Update the status of many orders, by ids or filter criteria
+    @PutMapping("/orders/status/bulk")
+    public ResponseEntity<?> bulkUpdateOrderStatus(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(bulkStatusService.updateOrderStatuses(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error updating order statuses: " + e.getMessage()));
+        }
+    }
+
     // Get all users
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers(
@@ -154,16 +202,19 @@ public class AdminController {
         }
     }
 
-    // Get all deliveries
+    // Get deliveries newest first, one cursor page at a time
     @GetMapping("/deliveries")
     public ResponseEntity<?> getAllDeliveries(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long cursor,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-            Page<?> deliveries = deliveryService.getAllDeliveriesForAdmin(pageable, status);
-            return ResponseEntity.ok(deliveries);
+            DeliveryStatus deliveryStatus = status != null && !status.isEmpty() ? DeliveryStatus.valueOf(status)
+                    : null;
+            return ResponseEntity.ok(deliveryService.getAllDeliveriesForAdmin(deliveryStatus, from, to, cursor,
+                    size));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error fetching deliveries: " + e.getMessage()));
@@ -185,6 +236,96 @@ public class AdminController {
         }
     }
 
+    // Update the status of many deliveries, by ids or filter criteria
+    @PutMapping("/deliveries/status/bulk")
+    public ResponseEntity<?> bulkUpdateDeliveryStatus(@RequestBody BulkStatusUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(bulkStatusService.updateDeliveryStatuses(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error updating delivery statuses: " + e.getMessage()));
+        }
+    }
+
+    // Group a day's pending deliveries into routes (defaults to today)
+    @GetMapping("/deliveries/routes")
+    public ResponseEntity<?> getDeliveryRoutes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(deliveryBatchingService.planRoutes(date != null ? date : LocalDate.now()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error planning delivery routes: " + e.getMessage()));
+        }
+    }
+
+    // Run the delivery scheduling sweeps now instead of waiting for the schedule
+    @PostMapping("/deliveries/sweep")
+    public ResponseEntity<?> sweepDeliveries() {
+        try {
+            Map<String, Integer> result = new HashMap<>();
+            result.put("scheduled", deliverySchedulerService.extendRecurringSchedules());
+            result.put("overdue", deliverySchedulerService.sweepOverdueDeliveries());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error sweeping deliveries: " + e.getMessage()));
+        }
+    }
+
+    // Set the structured attributes used for compatibility matching
+    @PutMapping("/food-skus/{foodSkuId}/attributes")
+    public ResponseEntity<?> updateFoodSkuAttributes(
+            @PathVariable Long foodSkuId,
+            @RequestBody FoodSkuAttributesRequest request) {
+        try {
+            FoodSku foodSku = foodService.updateFoodSkuAttributes(foodSkuId, request.getProteins(),
+                    request.getFormulas(), request.getAllergens());
+            return ResponseEntity.ok(foodSku);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error updating food attributes: " + e.getMessage()));
+        }
+    }
+
+    // WebSocket broker and subscriber statistics for this node
+    @GetMapping("/websocket/stats")
+    public ResponseEntity<?> getWebSocketStats() {
+        return ResponseEntity.ok(webSocketStatsService.getStats());
+    }
+
+    // Order event outbox backlog and consumer lag
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<?> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+
+    // Last pre-generation run and number of stored kit suggestions
+    @GetMapping("/kit-suggestions/stats")
+    public ResponseEntity<?> getKitSuggestionStats() {
+        return ResponseEntity.ok(kitSuggestionService.getStats());
+    }
+
+    // Hit rate, size and saved model latency of the chat answer cache
+    @GetMapping("/chat/answer-cache/stats")
+    public ResponseEntity<?> getChatAnswerCacheStats() {
+        return ResponseEntity.ok(semanticAnswerCacheService.getStats());
+    }
+
+    // Relay order events again, from an event id onward and optionally for one order
+    @PostMapping("/outbox/replay")
+    public ResponseEntity<?> replayOutbox(
+            @RequestParam(required = false) Long fromEventId,
+            @RequestParam(required = false) Long orderId) {
+        try {
+            int replayed = outboxService.replay(fromEventId, orderId);
+            return ResponseEntity.ok(new MessageResponse(replayed + " order events queued for replay"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error replaying order events: " + e.getMessage()));
+        }
+    }
+
     // Analytics endpoints
     @GetMapping("/analytics/orders")
     public ResponseEntity<?> getOrderAnalytics(@RequestParam(defaultValue = "week") String timeFrame) {
@@ -208,6 +349,17 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/analytics/skus")
+    public ResponseEntity<?> getSkuRevenueAnalytics(@RequestParam(defaultValue = "week") String timeFrame) {
+        try {
+            Map<String, Object> analytics = adminService.getSkuRevenueAnalytics(timeFrame);
+            return ResponseEntity.ok(analytics);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error fetching SKU analytics: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/analytics/customers")
     public ResponseEntity<?> getCustomerAnalytics(@RequestParam(defaultValue = "week") String timeFrame) {
         try {
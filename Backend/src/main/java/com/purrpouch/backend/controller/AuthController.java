@@ -9,6 +9,8 @@ import com.purrpouch.backend.payload.request.auth.LoginRequest;
 import com.purrpouch.backend.payload.request.auth.SignupRequest;
 import com.purrpouch.backend.payload.response.MessageResponse;
 import com.purrpouch.backend.payload.response.auth.JwtResponse;
+import com.purrpouch.backend.security.firebase.FirebaseIdentity;
+import com.purrpouch.backend.security.firebase.FirebaseIdentityService;
 import com.purrpouch.backend.service.AuthService;
 import com.purrpouch.backend.util.JwtUtils;
 
@@ -20,8 +22,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -41,6 +41,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private FirebaseIdentityService firebaseIdentityService;
+
     @GetMapping("/user-info")
     public ResponseEntity<?> getUserInfo() {
         User user = authService.getCurrentUser();
@@ -140,7 +143,7 @@ public class AuthController {
             }
 
             // Verify the Firebase ID token directly
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+            FirebaseIdentity decodedToken = firebaseIdentityService.verifyIdToken(idToken);
             String uid = decodedToken.getUid();
             String email = decodedToken.getEmail();
             String name = decodedToken.getName();
@@ -0,0 +1,94 @@
+package com.purrpouch.backend.controller;
+
+import com.purrpouch.backend.payload.response.MessageResponse;
+import com.purrpouch.backend.service.CartService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CartController {
+
+    @Autowired
+    private CartService cartService;
+
+    /**
+     * Get the current user's cart at current prices
+     */
+    @GetMapping
+    public ResponseEntity<?> getCart() {
+        return ResponseEntity.ok(cartService.getCart());
+    }
+
+    /**
+     * Replace the whole cart
+     */
+    @PutMapping
+    public ResponseEntity<?> replaceCart(@RequestBody CartRequest request) {
+        try {
+            return ResponseEntity.ok(cartService.replaceItems(request.getKitItems()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Set the quantity of one kit; zero removes it
+     */
+    @PutMapping("/items/{kitId}")
+    public ResponseEntity<?> setQuantity(@PathVariable Long kitId, @RequestBody CartItemRequest request) {
+        try {
+            return ResponseEntity.ok(cartService.setQuantity(kitId, request.getQuantity()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Remove one kit from the cart
+     */
+    @DeleteMapping("/items/{kitId}")
+    public ResponseEntity<?> removeItem(@PathVariable Long kitId) {
+        return ResponseEntity.ok(cartService.setQuantity(kitId, 0));
+    }
+
+    /**
+     * Empty the cart
+     */
+    @DeleteMapping
+    public ResponseEntity<?> clearCart() {
+        cartService.clear();
+        return ResponseEntity.ok(new MessageResponse("Cart cleared"));
+    }
+
+    public static class CartRequest {
+        private Map<Long, Integer> kitItems = new HashMap<>();
+
+        public Map<Long, Integer> getKitItems() {
+            return kitItems;
+        }
+
+        public void setKitItems(Map<Long, Integer> kitItems) {
+            this.kitItems = kitItems;
+        }
+    }
+
+    public static class CartItemRequest {
+        private int quantity;
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -14,7 +14,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/cat-profiles")
@@ -25,10 +24,7 @@ public class CatProfileController {
 
     @GetMapping
     public ResponseEntity<List<CatProfileResponse>> getAllCatProfiles() {
-        List<CatProfileResponse> catProfiles = catProfileService.getCurrentUserCatProfiles()
-                .stream()
-                .map(CatProfileResponse::fromEntity)
-                .collect(Collectors.toList());
+        List<CatProfileResponse> catProfiles = catProfileService.getCurrentUserCatProfileResponses();
         return ResponseEntity.ok(catProfiles);
     }
 
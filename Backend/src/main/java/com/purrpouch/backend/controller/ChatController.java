@@ -1,8 +1,12 @@
 
 package com.purrpouch.backend.controller;
 
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import com.purrpouch.backend.model.ChatMessage;
 import com.purrpouch.backend.model.ChatResponse;
@@ -29,11 +33,14 @@ public class ChatController {
     @Autowired
     private ChatService chatService;
 
-    @Operation(summary = "Send a chat message", description = "Send a chat message and receive an AI-generated response")
+    @Operation(summary = "Send a chat message", description = "Send a chat message and receive an AI-generated response. "
+            + "Send Cache-Control: no-cache to skip answers cached for similar questions")
     @ApiResponse(responseCode = "200", description = "Message processed successfully")
     @PostMapping("/send")
-    public ResponseEntity<?> sendMessage(@RequestBody ChatMessage chatMessage) {
-        ChatResponse response = chatService.processMessage(chatMessage);
+    public ResponseEntity<?> sendMessage(@RequestBody ChatMessage chatMessage,
+            @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl) {
+        boolean bypassCache = cacheControl != null && cacheControl.toLowerCase().contains("no-cache");
+        ChatResponse response = chatService.processMessage(chatMessage, bypassCache);
         return ResponseEntity.ok(response);
     }
 
@@ -46,6 +53,35 @@ public class ChatController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Get conversation statistics", description = "Retrieve turn count and prompt size statistics for the current user's conversation about a cat")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @ApiResponse(responseCode = "401", description = "Not signed in")
+    @GetMapping("/conversations/{catId}/stats")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getConversationStats(
+            @Parameter(description = "ID of the cat the conversation is about") @PathVariable String catId) {
+        try {
+            return ResponseEntity.ok(chatService.getConversationStats(catId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Clear a conversation", description = "Forget the current user's remembered conversation about a cat")
+    @ApiResponse(responseCode = "200", description = "Conversation cleared successfully")
+    @ApiResponse(responseCode = "401", description = "Not signed in")
+    @DeleteMapping("/conversations/{catId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> clearConversation(
+            @Parameter(description = "ID of the cat the conversation is about") @PathVariable String catId) {
+        try {
+            chatService.clearConversation(catId);
+            return ResponseEntity.ok(Map.of("message", "Conversation cleared"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Generate an AI meal kit", description = "Create a customized meal kit for a cat based on chat history")
     @ApiResponse(responseCode = "200", description = "Meal kit generated successfully", content = @Content(schema = @Schema(implementation = AiMealKitDto.class)))
     @ApiResponse(responseCode = "400", description = "Failed to generate meal kit")
@@ -80,4 +116,25 @@ public class ChatController {
             return ResponseEntity.badRequest().body("Failed to generate meal kit");
         }
     }
+
+    @Operation(summary = "Generate AI meal kits for a household", description = "Create a meal kit for each of several cats with a single AI call")
+    @ApiResponse(responseCode = "200", description = "One meal kit per cat, in request order")
+    @ApiResponse(responseCode = "400", description = "Missing or too many cat IDs")
+    @ApiResponse(responseCode = "404", description = "A cat was not found")
+    @PostMapping("/generate-household-meal-kits")
+    public ResponseEntity<?> generateHouseholdMealKits(@RequestBody Map<String, Object> request) {
+        try {
+            List<Long> catIds = new ArrayList<>();
+            if (request.get("catIds") instanceof List<?> ids) {
+                for (Object id : ids) {
+                    catIds.add(Long.valueOf(id.toString()));
+                }
+            }
+            return ResponseEntity.ok(chatService.generateHouseholdMealKits(catIds.stream().distinct().toList()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
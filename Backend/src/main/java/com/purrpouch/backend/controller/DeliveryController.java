@@ -16,12 +16,15 @@ public class DeliveryController {
     private DeliveryService deliveryService;
 
     /**
-     * Get all deliveries for a user
+     * Get a page of a user's deliveries, newest first
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getUserDeliveries(@PathVariable Long userId) {
-        List<Delivery> deliveries = deliveryService.getUserDeliveries(userId);
-        return ResponseEntity.ok(deliveries);
+    public ResponseEntity<?> getUserDeliveries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Delivery.DeliveryStatus status) {
+        return ResponseEntity.ok(deliveryService.getUserDeliveries(userId, status, cursor, size));
     }
 
     /**
@@ -2,6 +2,7 @@ package com.purrpouch.backend.controller;
 
 import com.purrpouch.backend.model.FoodSku;
 import com.purrpouch.backend.service.FoodService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,6 +40,25 @@ public class FoodController {
         }
     }
 
+    /**
+     * Get in-stock food SKUs compatible with a cat, best matches first
+     */
+    @GetMapping("/skus/compatible/{catProfileId}")
+    public ResponseEntity<?> getCompatibleFoodSkus(@PathVariable Long catProfileId,
+            @RequestParam(required = false) String type) {
+        FoodSku.FoodType foodType;
+        try {
+            foodType = type != null ? FoodSku.FoodType.valueOf(type.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid food type: " + type);
+        }
+        try {
+            return ResponseEntity.ok(foodService.getCompatibleFoodSkus(catProfileId, foodType));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Get food SKU by ID
      */
@@ -2,12 +2,19 @@ package com.purrpouch.backend.controller;
 
 import com.purrpouch.backend.dto.AiMealKitDto;
 import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.payload.response.MealKitJobResponse;
+import com.purrpouch.backend.payload.response.MessageResponse;
 import com.purrpouch.backend.service.ChatService;
 import com.purrpouch.backend.service.FoodService;
+import com.purrpouch.backend.service.KitSuggestionService;
+import com.purrpouch.backend.service.MealKitJobService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +30,12 @@ public class MealKitController {
     @Autowired
     private ChatService chatService;
 
+    @Autowired
+    private MealKitJobService mealKitJobService;
+
+    @Autowired
+    private KitSuggestionService kitSuggestionService;
+
     /**
      * Get all meal kits for a cat
      */
@@ -53,26 +66,7 @@ public class MealKitController {
 
             String catId = request.get("catId").toString();
 
-            // Extract chat history if provided
-            List<String> chatHistory = new ArrayList<>();
-            if (request.containsKey("chatHistory") && request.get("chatHistory") instanceof List) {
-                @SuppressWarnings("unchecked")
-                List<Object> history = (List<Object>) request.get("chatHistory");
-
-                for (Object msg : history) {
-                    if (msg instanceof String) {
-                        chatHistory.add((String) msg);
-                    } else if (msg instanceof Map) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> msgMap = (Map<String, Object>) msg;
-                        if (msgMap.containsKey("message") && msgMap.get("message") instanceof String) {
-                            chatHistory.add(msgMap.get("message").toString());
-                        } else if (msgMap.containsKey("content") && msgMap.get("content") instanceof String) {
-                            chatHistory.add(msgMap.get("content").toString());
-                        }
-                    }
-                }
-            }
+            List<String> chatHistory = extractChatHistory(request);
 
             AiMealKitDto mealKit = chatService.generateAiMealKit(catId, chatHistory);
 
@@ -85,4 +79,95 @@ public class MealKitController {
             return ResponseEntity.badRequest().body("Error generating meal kit: " + e.getMessage());
         }
     }
+
+    /**
+     * Start generating a meal kit in the background. Returns 202 with the job
+     * at once; follow it on /topic/meal-kit-jobs/{jobId} or poll
+     * /api/meal-kits/jobs/{jobId}. Resubmitting with the same Idempotency-Key
+     * header (or idempotencyKey field) returns the same job.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitMealKitJob(@RequestBody Map<String, Object> request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKeyHeader) {
+        if (!request.containsKey("catId")) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Missing catId in request"));
+        }
+        String idempotencyKey = idempotencyKeyHeader != null ? idempotencyKeyHeader
+                : request.get("idempotencyKey") != null ? request.get("idempotencyKey").toString() : null;
+        try {
+            MealKitJobResponse job = mealKitJobService.submit(Long.valueOf(request.get("catId").toString()),
+                    extractChatHistory(request), idempotencyKey);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/meal-kits/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5")
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the state of a meal kit job, including the kit once it is completed
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getMealKitJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(mealKitJobService.getJob(jobId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the kit pre-generated overnight for a cat; 404 when there is none or
+     * it is out of date, in which case the client generates one instead
+     */
+    @GetMapping("/suggestions/{catId}")
+    public ResponseEntity<?> getKitSuggestion(@PathVariable Long catId) {
+        try {
+            return ResponseEntity.ok(kitSuggestionService.getSuggestion(catId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Keep a cat's suggested kit, so it shows up with the cat's other kits
+     */
+    @PostMapping("/suggestions/{catId}/save")
+    public ResponseEntity<?> saveKitSuggestion(@PathVariable Long catId) {
+        try {
+            return ResponseEntity.ok(kitSuggestionService.saveSuggestion(catId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    // Chat history entries may be plain strings or chat messages with message/content
+    private static List<String> extractChatHistory(Map<String, Object> request) {
+        List<String> chatHistory = new ArrayList<>();
+        if (request.containsKey("chatHistory") && request.get("chatHistory") instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<Object> history = (List<Object>) request.get("chatHistory");
+
+            for (Object msg : history) {
+                if (msg instanceof String) {
+                    chatHistory.add((String) msg);
+                } else if (msg instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> msgMap = (Map<String, Object>) msg;
+                    if (msgMap.containsKey("message") && msgMap.get("message") instanceof String) {
+                        chatHistory.add(msgMap.get("message").toString());
+                    } else if (msgMap.containsKey("content") && msgMap.get("content") instanceof String) {
+                        chatHistory.add(msgMap.get("content").toString());
+                    }
+                }
+            }
+        }
+        return chatHistory;
+    }
 }
@@ -3,9 +3,13 @@ package com.purrpouch.backend.controller;
 import com.purrpouch.backend.model.Delivery;
 import com.purrpouch.backend.model.Order;
 import com.purrpouch.backend.model.OrderKit;
+import com.purrpouch.backend.payload.response.MessageResponse;
 import com.purrpouch.backend.service.DeliveryService;
+import com.purrpouch.backend.service.KitPricingService;
 import com.purrpouch.backend.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,11 +33,17 @@ public class OrderController {
      */
     @PostMapping
     public ResponseEntity<?> createOrder(@RequestBody CreateOrderRequest request) {
-        Order order = orderService.createOrder(
-                request.getUserId(),
-                request.getKitItems(),
-                request.getTotalPrice());
-        return ResponseEntity.ok(order);
+        try {
+            Order order = orderService.createOrder(
+                    request.getUserId(),
+                    request.getKitItems(),
+                    request.getTotalPrice());
+            return ResponseEntity.ok(order);
+        } catch (KitPricingService.PriceMismatchException e) {
+            return priceMismatch(e);
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     /**
@@ -90,24 +100,42 @@ public class OrderController {
      */
     @PostMapping("/with-delivery")
     public ResponseEntity<?> createOrderWithDelivery(@RequestBody CreateOrderWithDeliveryRequest request) {
-        Order order = orderService.createOrderWithDeliveryAddress(
-                request.getUserId(),
-                request.getKitItems(),
-                request.getTotalPrice(),
-                request.isRecurring(),
-                request.getRecurringFrequency(),
-                request.getPreferredDeliveryTime(),
-                request.getDeliveryAddressId());
-        return ResponseEntity.ok(order);
+        try {
+            Order order = orderService.createOrderWithDeliveryAddress(
+                    request.getUserId(),
+                    request.getKitItems(),
+                    request.getTotalPrice(),
+                    request.isRecurring(),
+                    request.getRecurringFrequency(),
+                    request.getPreferredDeliveryTime(),
+                    request.getDeliveryAddressId());
+            return ResponseEntity.ok(order);
+        } catch (KitPricingService.PriceMismatchException e) {
+            return priceMismatch(e);
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     /**
-     * Get all deliveries for a user
+     * Get a page of a user's deliveries, newest first
      */
     @GetMapping("/user/{userId}/deliveries")
-    public ResponseEntity<?> getUserDeliveries(@PathVariable Long userId) {
-        List<Delivery> deliveries = deliveryService.getUserDeliveries(userId);
-        return ResponseEntity.ok(deliveries);
+    public ResponseEntity<?> getUserDeliveries(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Delivery.DeliveryStatus status) {
+        return ResponseEntity.ok(deliveryService.getUserDeliveries(userId, status, cursor, size));
+    }
+
+    /**
+     * Prices changed since the client computed its total; the body carries
+     * the current total so the client can show it and resubmit
+     */
+    private ResponseEntity<?> priceMismatch(KitPricingService.PriceMismatchException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", e.getMessage(), "totalPrice", e.getExpectedTotal()));
     }
 
     // Request/Response classes
@@ -18,6 +18,7 @@ public class OrderEvent extends ApplicationEvent {
     public enum OrderEventType {
         CREATED,
         UPDATED,
+        PAID,
         CANCELLED
     }
 }
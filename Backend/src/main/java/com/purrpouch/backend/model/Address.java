@@ -16,4 +16,8 @@ public class Address {
     private String ward;
     private String postalCode;
     private String additionalInfo;
+
+    // Copied from the user's address so deliveries can be grouped into routes
+    private Double latitude;
+    private Double longitude;
 }
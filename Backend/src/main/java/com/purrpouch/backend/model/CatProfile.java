@@ -1,9 +1,12 @@
 package com.purrpouch.backend.model;
 
+import com.purrpouch.backend.util.BitmaskUtils;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,24 +34,40 @@ public class CatProfile {
 
     private Integer age;
 
+    // Element collections are subselect-fetched: one statement per collection for all cats
+    // returned by a query, instead of one statement per cat
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "cat_protein_preferences", joinColumns = @JoinColumn(name = "cat_id"))
     @Column(name = "protein")
     private List<ProteinType> proteinPreferences;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "cat_dietary_requirements", joinColumns = @JoinColumn(name = "cat_id"))
     @Column(name = "requirement")
     private List<DietaryRequirement> dietaryRequirements;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "cat_allergies", joinColumns = @JoinColumn(name = "cat_id"))
     @Column(name = "allergy")
     private List<Allergy> allergies;
 
+    // Bitmask copies of the three lists above, kept in sync by the setters so
+    // compatibility checks don't have to load the collections
+    @Column(name = "protein_mask")
+    private Long proteinMask;
+
+    @Column(name = "dietary_mask")
+    private Long dietaryMask;
+
+    @Column(name = "allergy_mask")
+    private Long allergyMask;
+
     @Column(columnDefinition = "TEXT")
     private String notes;
 
@@ -86,6 +105,34 @@ public class CatProfile {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public void setProteinPreferences(List<ProteinType> proteinPreferences) {
+        this.proteinPreferences = proteinPreferences;
+        this.proteinMask = BitmaskUtils.toMask(proteinPreferences);
+    }
+
+    public void setDietaryRequirements(List<DietaryRequirement> dietaryRequirements) {
+        this.dietaryRequirements = dietaryRequirements;
+        this.dietaryMask = BitmaskUtils.toMask(dietaryRequirements);
+    }
+
+    public void setAllergies(List<Allergy> allergies) {
+        this.allergies = allergies;
+        this.allergyMask = BitmaskUtils.toMask(allergies);
+    }
+
+    // Rows saved before the mask columns existed fall back to the lists
+    public long resolveProteinMask() {
+        return proteinMask != null ? proteinMask : BitmaskUtils.toMask(proteinPreferences);
+    }
+
+    public long resolveDietaryMask() {
+        return dietaryMask != null ? dietaryMask : BitmaskUtils.toMask(dietaryRequirements);
+    }
+
+    public long resolveAllergyMask() {
+        return allergyMask != null ? allergyMask : BitmaskUtils.toMask(allergies);
+    }
+
     // Rest of the class remains unchanged
     public enum ProteinType {
         CHICKEN,
@@ -8,7 +8,11 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "deliveries")
+@Table(name = "deliveries", indexes = {
+        @Index(name = "idx_delivery_status_time", columnList = "status, scheduled_time"),
+        @Index(name = "idx_delivery_order_time", columnList = "order_id, scheduled_time"),
+        @Index(name = "idx_delivery_status_id", columnList = "status, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +29,9 @@ public class Delivery {
 
     private LocalDateTime deliveredTime;
 
+    // When a sweep found the delivery still PENDING past its slot; it stays PENDING for an admin to resolve
+    private LocalDateTime overdueAt;
+
     @Enumerated(EnumType.STRING)
     private DeliveryStatus status = DeliveryStatus.PENDING;
 
@@ -0,0 +1,77 @@
+package com.purrpouch.backend.model;
+
+import com.purrpouch.backend.model.CatProfile.Allergy;
+import com.purrpouch.backend.model.CatProfile.DietaryRequirement;
+import com.purrpouch.backend.model.CatProfile.ProteinType;
+import com.purrpouch.backend.util.BitmaskUtils;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Bit layout of {@link FoodSku#getAttributeMask()}. One long packs three
+ * fields that line up with the cat profile enums:
+ * <ul>
+ * <li>bits 0-15: proteins the food contains ({@link ProteinType})</li>
+ * <li>bits 16-31: formulas the food supports ({@link DietaryRequirement})</li>
+ * <li>bits 32-47: restrictions the food breaks ({@link Allergy}), e.g. a food
+ * containing chicken sets NO_CHICKEN</li>
+ * </ul>
+ */
+public final class FoodAttributes {
+
+    public static final int PROTEIN_SHIFT = 0;
+    public static final int FORMULA_SHIFT = 16;
+    public static final int ALLERGEN_SHIFT = 32;
+
+    private static final long FIELD_MASK = 0xFFFFL;
+
+    private FoodAttributes() {
+    }
+
+    public static long encode(Collection<ProteinType> proteins, Collection<DietaryRequirement> formulas,
+            Collection<Allergy> allergens) {
+        return (BitmaskUtils.toMask(proteins) << PROTEIN_SHIFT)
+                | (BitmaskUtils.toMask(formulas) << FORMULA_SHIFT)
+                | (BitmaskUtils.toMask(allergens) << ALLERGEN_SHIFT);
+    }
+
+    public static long proteinBits(long attributeMask) {
+        return (attributeMask >>> PROTEIN_SHIFT) & FIELD_MASK;
+    }
+
+    public static long formulaBits(long attributeMask) {
+        return (attributeMask >>> FORMULA_SHIFT) & FIELD_MASK;
+    }
+
+    public static long allergenBits(long attributeMask) {
+        return (attributeMask >>> ALLERGEN_SHIFT) & FIELD_MASK;
+    }
+
+    public static EnumSet<ProteinType> proteins(long attributeMask) {
+        return BitmaskUtils.fromMask(proteinBits(attributeMask), ProteinType.class);
+    }
+
+    public static EnumSet<DietaryRequirement> formulas(long attributeMask) {
+        return BitmaskUtils.fromMask(formulaBits(attributeMask), DietaryRequirement.class);
+    }
+
+    public static EnumSet<Allergy> allergens(long attributeMask) {
+        return BitmaskUtils.fromMask(allergenBits(attributeMask), Allergy.class);
+    }
+
+    /**
+     * A food is compatible when it breaks none of the cat's restrictions
+     */
+    public static boolean isCompatible(long attributeMask, long catAllergyMask) {
+        return (allergenBits(attributeMask) & catAllergyMask) == 0;
+    }
+
+    /**
+     * Rank compatible foods: matching proteins count double, matching formulas once
+     */
+    public static int score(long attributeMask, long catProteinMask, long catDietaryMask) {
+        return 2 * Long.bitCount(proteinBits(attributeMask) & catProteinMask)
+                + Long.bitCount(formulaBits(attributeMask) & catDietaryMask);
+    }
+}
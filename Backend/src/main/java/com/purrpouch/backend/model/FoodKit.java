@@ -1,11 +1,16 @@
 package com.purrpouch.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "food_kits")
@@ -26,4 +31,27 @@ public class FoodKit {
     private Integer quantity = 1;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Pre-generated by KitSuggestionService; left out of the cat's kit list until ordered or saved
+    @Column(nullable = false)
+    private boolean suggestion;
+
+    // Snapshot of the meals and items below, rebuilt by KitSnapshotService whenever they change
+
+    private BigDecimal price;
+
+    // Catalog fingerprint the price was computed at; the price is outdated once it differs
+    private Integer priceFingerprint;
+
+    // Meals and foods as AiMealKitDto JSON
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String composition;
+
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "food_kit_sku_lines", joinColumns = @JoinColumn(name = "food_kit_id"))
+    private List<KitSkuLine> skuLines = new ArrayList<>();
+
+    private LocalDateTime snapshotAt;
 }
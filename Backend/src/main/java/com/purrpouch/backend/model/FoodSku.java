@@ -33,6 +33,10 @@ public class FoodSku {
 
     private Integer availableStock;
 
+    // Proteins, formulas and allergens packed as described in FoodAttributes
+    @Column(name = "attribute_mask")
+    private Long attributeMask;
+
     public enum FoodType {
         WET, DRY, TOPPING, SNACK
     }
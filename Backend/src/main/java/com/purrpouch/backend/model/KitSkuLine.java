@@ -0,0 +1,25 @@
+package com.purrpouch.backend.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * One SKU of a kit snapshot: its total quantity over all meals and the price
+ * per unit it was priced at
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitSkuLine {
+    private Long foodSkuId;
+    private String skuName;
+    private BigDecimal quantity;
+    private BigDecimal unitPrice;
+}
@@ -0,0 +1,44 @@
+package com.purrpouch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pre-generated, ready-to-order meal kit for a cat, produced offline by
+ * KitSuggestionService. One row per cat, replaced when it goes stale.
+ */
+@Entity
+@Table(name = "kit_suggestions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_kit_suggestion_cat", columnNames = "cat_profile_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class KitSuggestion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cat_profile_id", nullable = false)
+    private CatProfile catProfile;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "food_kit_id", nullable = false)
+    private FoodKit foodKit;
+
+    // Catalog fingerprint the kit was generated against
+    @Column(name = "catalog_version", nullable = false)
+    private Integer catalogVersion;
+
+    // The kit as served, so a lookup needs no joins over meals and items
+    @Column(name = "kit_json", nullable = false, columnDefinition = "TEXT")
+    private String kitJson;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt = LocalDateTime.now();
+}
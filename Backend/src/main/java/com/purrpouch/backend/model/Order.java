@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_recurring_due", columnList = "is_recurring, status, next_delivery_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -56,6 +58,22 @@ public class Order {
     }
 
     public enum RecurringFrequency {
-        DAILY, WEEKLY, BIWEEKLY, MONTHLY
+        DAILY, WEEKLY, BIWEEKLY, MONTHLY;
+
+        /**
+         * Get the delivery date one period after the given one
+         */
+        public LocalDateTime advance(LocalDateTime from) {
+            switch (this) {
+                case WEEKLY:
+                    return from.plusWeeks(1);
+                case BIWEEKLY:
+                    return from.plusWeeks(2);
+                case MONTHLY:
+                    return from.plusMonths(1);
+                default:
+                    return from.plusDays(1);
+            }
+        }
     }
 }
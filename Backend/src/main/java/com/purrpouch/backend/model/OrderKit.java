@@ -1,10 +1,16 @@
 package com.purrpouch.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
 @Table(name = "order_kits")
 @Getter
@@ -24,4 +30,20 @@ public class OrderKit {
     private FoodKit foodKit;
 
     private Integer kitQuantity;
+
+    // Copied from the kit's snapshot at checkout, so later kit edits do not change past orders
+
+    private BigDecimal unitPrice;
+
+    private BigDecimal lineTotal;
+
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String composition;
+
+    // SKU quantities for the whole line, i.e. already multiplied by kitQuantity
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "order_kit_sku_lines", joinColumns = @JoinColumn(name = "order_kit_id"))
+    private List<KitSkuLine> skuLines = new ArrayList<>();
 }
@@ -0,0 +1,60 @@
+package com.purrpouch.backend.model;
+
+import com.purrpouch.backend.event.OrderEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be delivered to listeners. Written in the same
+ * transaction as the order change and relayed by OutboxService.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "published_at, dead_at, id"),
+        @Index(name = "idx_outbox_order", columnList = "order_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // Plain varchar rather than a MySQL enum, so new event types need no schema change
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(32)")
+    private OrderEvent.OrderEventType eventType;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Set once delivery has failed too many times; the event is skipped until replayed
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt;
+
+    private int attempts;
+
+    // Relay node holding the event and until when; an expired claim can be taken over
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboxEvent(Long orderId, OrderEvent.OrderEventType eventType) {
+        this.orderId = orderId;
+        this.eventType = eventType;
+    }
+}
@@ -61,6 +61,8 @@ public class UserAddress {
         address.setDistrict(this.district);
         address.setWard(this.ward);
         address.setAdditionalInfo(this.additionalInfo);
+        address.setLatitude(this.latitude);
+        address.setLongitude(this.longitude);
         return address;
     }
 }
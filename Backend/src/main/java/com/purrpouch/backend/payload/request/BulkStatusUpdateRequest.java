@@ -0,0 +1,23 @@
+package com.purrpouch.backend.payload.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Target status plus either explicit ids or filter criteria selecting the
+ * rows to change
+ */
+@Getter
+@Setter
+public class BulkStatusUpdateRequest {
+    private String status;
+    private List<Long> ids;
+    // Filter criteria, used when no ids are given
+    private String fromStatus;
+    // Inclusive dates: order creation date, or delivery scheduled date
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,16 @@
+package com.purrpouch.backend.payload.request;
+
+import com.purrpouch.backend.model.CatProfile;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class FoodSkuAttributesRequest {
+    private List<CatProfile.ProteinType> proteins;
+    private List<CatProfile.DietaryRequirement> formulas;
+    // Restrictions the food breaks, e.g. NO_CHICKEN for a chicken recipe
+    private List<CatProfile.Allergy> allergens;
+}
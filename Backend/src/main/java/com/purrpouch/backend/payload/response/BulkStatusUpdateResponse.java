@@ -0,0 +1,40 @@
+package com.purrpouch.backend.payload.response;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk status update, overall and per id
+ */
+@Getter
+public class BulkStatusUpdateResponse {
+    private final String status;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private final Map<Long, Outcome> results = new LinkedHashMap<>();
+
+    public BulkStatusUpdateResponse(String status) {
+        this.status = status;
+    }
+
+    public void addAll(Map<Long, Outcome> outcomes) {
+        outcomes.forEach((id, outcome) -> {
+            results.put(id, outcome);
+            switch (outcome) {
+                case UPDATED -> updated++;
+                case UNCHANGED -> unchanged++;
+                case NOT_FOUND -> notFound++;
+            }
+        });
+    }
+
+    public enum Outcome {
+        UPDATED,
+        // Already in the target status
+        UNCHANGED,
+        NOT_FOUND
+    }
+}
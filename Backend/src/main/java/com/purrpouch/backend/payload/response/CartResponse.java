@@ -0,0 +1,28 @@
+package com.purrpouch.backend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A user's cart priced at current kit prices
+ */
+@Getter
+@AllArgsConstructor
+public class CartResponse {
+    private List<Item> items;
+    private BigDecimal totalPrice;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+        private Long kitId;
+        private String kitName;
+        private Long catProfileId;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal lineTotal;
+    }
+}
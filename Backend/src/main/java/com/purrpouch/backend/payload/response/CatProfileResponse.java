@@ -9,6 +9,7 @@ import lombok.Setter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 @Getter
 @Setter
@@ -36,9 +37,10 @@ public class CatProfileResponse {
         response.setBreed(catProfile.getBreed());
         response.setWeight(catProfile.getWeight());
         response.setAge(catProfile.getAge());
-        response.setProteinPreferences(catProfile.getProteinPreferences());
-        response.setDietaryRequirements(catProfile.getDietaryRequirements());
-        response.setAllergies(catProfile.getAllergies());
+        // Copy the collections so they are initialized while the session is open
+        response.setProteinPreferences(copyOf(catProfile.getProteinPreferences()));
+        response.setDietaryRequirements(copyOf(catProfile.getDietaryRequirements()));
+        response.setAllergies(copyOf(catProfile.getAllergies()));
         response.setNotes(catProfile.getNotes());
         // Set the photo URL
         response.setPhotoUrl(catProfile.getPhotoUrl());
@@ -47,4 +49,8 @@ public class CatProfileResponse {
         response.setUpdatedAt(catProfile.getUpdatedAt());
         return response;
     }
+
+    private static <T> List<T> copyOf(List<T> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.purrpouch.backend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paged listing; pass nextCursor back as the cursor
+ * parameter to fetch the following page
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Build a page from up to size + 1 rows; the extra row only signals that
+     * another page exists
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int size, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> content = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPageResponse<>(content, nextCursor, hasMore);
+    }
+}
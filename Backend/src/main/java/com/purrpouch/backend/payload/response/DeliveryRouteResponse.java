@@ -0,0 +1,40 @@
+package com.purrpouch.backend.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One planned delivery route: stops in driving order and the zone they were
+ * grouped by
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeliveryRouteResponse {
+    private int routeNumber;
+    // Grid cell of the first stop, or "district / ward" for stops without coordinates
+    private String zone;
+    private boolean geocoded;
+    private double distanceKm;
+    private List<Stop> stops;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stop {
+        private Long deliveryId;
+        private Long orderId;
+        private LocalDateTime scheduledTime;
+        private Double latitude;
+        private Double longitude;
+        private String district;
+        private String ward;
+        private String streetAddress;
+    }
+}
@@ -0,0 +1,27 @@
+package com.purrpouch.backend.payload.response;
+
+import com.purrpouch.backend.dto.AiMealKitDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a background meal-kit generation job, as polled from
+ * /api/meal-kits/jobs/{jobId} or pushed to /topic/meal-kit-jobs/{jobId}
+ */
+@Getter
+@AllArgsConstructor
+public class MealKitJobResponse {
+    private String jobId;
+    private Status status;
+    private String message;
+    private Long catProfileId;
+    private AiMealKitDto result;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -2,6 +2,7 @@ package com.purrpouch.backend.repository;
 
 import com.purrpouch.backend.model.CatProfile;
 import com.purrpouch.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,4 +27,13 @@ public interface CatProfileRepository extends JpaRepository<CatProfile, Long> {
     
     // For admin purposes - find all cat profiles including deleted ones
     List<CatProfile> findAllByOwner(User user);
+
+    // Active cats after a keyset cursor whose kit suggestion is missing, older than
+    // the last profile change, or made for another catalog
+    @Query("SELECT c FROM CatProfile c JOIN FETCH c.owner WHERE c.deletedAt IS NULL AND c.id > :afterId "
+            + "AND NOT EXISTS (SELECT s.id FROM KitSuggestion s WHERE s.catProfile = c "
+            + "AND s.catalogVersion = :catalogVersion AND (c.updatedAt IS NULL OR s.generatedAt >= c.updatedAt)) "
+            + "ORDER BY c.id")
+    List<CatProfile> findNeedingKitSuggestion(@Param("catalogVersion") int catalogVersion,
+            @Param("afterId") long afterId, Pageable pageable);
 }
\ No newline at end of file
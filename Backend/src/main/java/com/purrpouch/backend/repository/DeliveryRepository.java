@@ -2,18 +2,151 @@ package com.purrpouch.backend.repository;
 
 import com.purrpouch.backend.model.Delivery;
 import com.purrpouch.backend.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     List<Delivery> findByOrder(Order order);
 
-    List<Delivery> findByOrderUserId(Long userId);
+    List<Delivery> findByStatus(Delivery.DeliveryStatus status);
+
+    boolean existsByOrderId(Long orderId);
 
     List<Delivery> findByStatusAndScheduledTimeBefore(
             Delivery.DeliveryStatus status, LocalDateTime time);
+
+    // Ids of deliveries not yet flagged overdue, oldest first, so sweeps page through idx_delivery_status_time
+    @Query("SELECT d.id FROM Delivery d WHERE d.status = :status AND d.scheduledTime < :time "
+            + "AND d.overdueAt IS NULL ORDER BY d.scheduledTime, d.id")
+    List<Long> findUnflaggedIdsByStatusAndScheduledTimeBefore(@Param("status") Delivery.DeliveryStatus status,
+            @Param("time") LocalDateTime time, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.overdueAt = :time WHERE d.id IN :ids")
+    int markOverdueByIdIn(@Param("ids") Collection<Long> ids, @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :status WHERE d.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") Delivery.DeliveryStatus status);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :status, d.deliveredTime = :time WHERE d.id IN :ids")
+    int updateStatusAndDeliveredTimeByIdIn(@Param("ids") Collection<Long> ids,
+            @Param("status") Delivery.DeliveryStatus status, @Param("time") LocalDateTime time);
+
+    @Query("SELECT d.id AS id, d.status AS status FROM Delivery d WHERE d.id IN :ids")
+    List<DeliveryStatusRow> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ids matching a bulk update filter, in id order for keyset paging
+    @Query("SELECT d.id FROM Delivery d WHERE (:status IS NULL OR d.status = :status) "
+            + "AND (:from IS NULL OR d.scheduledTime >= :from) AND (:to IS NULL OR d.scheduledTime < :to) "
+            + "AND d.id > :afterId ORDER BY d.id")
+    List<Long> findIdsByFilter(@Param("status") Delivery.DeliveryStatus status, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.order.id AS orderId, d.scheduledTime AS scheduledTime FROM Delivery d "
+            + "WHERE d.order.id IN :orderIds")
+    List<DeliverySlot> findSlotsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Stops scheduled in a time window, flattened for route planning
+    @Query("SELECT d.id AS deliveryId, d.order.id AS orderId, d.scheduledTime AS scheduledTime, "
+            + "d.deliveryAddress.latitude AS latitude, d.deliveryAddress.longitude AS longitude, "
+            + "d.deliveryAddress.district AS district, d.deliveryAddress.ward AS ward, "
+            + "d.deliveryAddress.streetAddress AS streetAddress FROM Delivery d "
+            + "WHERE d.status = :status AND d.scheduledTime >= :start AND d.scheduledTime < :end")
+    List<DeliveryStop> findStopsByStatusAndScheduledTimeBetween(@Param("status") Delivery.DeliveryStatus status,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    interface DeliveryStatusRow {
+        Long getId();
+
+        Delivery.DeliveryStatus getStatus();
+    }
+
+    interface DeliveryStop {
+        Long getDeliveryId();
+
+        Long getOrderId();
+
+        LocalDateTime getScheduledTime();
+
+        Double getLatitude();
+
+        Double getLongitude();
+
+        String getDistrict();
+
+        String getWard();
+
+        String getStreetAddress();
+    }
+
+    // Delivery listings without the eager order graph, newest first for keyset paging by id
+    @Query("SELECT d.id AS id, o.id AS orderId, u.id AS userId, u.username AS customerName, "
+            + "d.scheduledTime AS scheduledTime, d.deliveredTime AS deliveredTime, d.overdueAt AS overdueAt, "
+            + "d.status AS status, "
+            + "d.deliveryAddress.streetAddress AS streetAddress, d.deliveryAddress.city AS city, "
+            + "d.deliveryAddress.district AS district, d.deliveryAddress.ward AS ward, "
+            + "d.deliveryAddress.postalCode AS postalCode FROM Delivery d JOIN d.order o JOIN o.user u "
+            + "WHERE (:status IS NULL OR d.status = :status) "
+            + "AND (:from IS NULL OR d.scheduledTime >= :from) AND (:to IS NULL OR d.scheduledTime < :to) "
+            + "AND (:beforeId IS NULL OR d.id < :beforeId) ORDER BY d.id DESC")
+    List<DeliverySummary> findSummaries(@Param("status") Delivery.DeliveryStatus status,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query("SELECT d.id AS id, o.id AS orderId, u.id AS userId, u.username AS customerName, "
+            + "d.scheduledTime AS scheduledTime, d.deliveredTime AS deliveredTime, d.overdueAt AS overdueAt, "
+            + "d.status AS status, "
+            + "d.deliveryAddress.streetAddress AS streetAddress, d.deliveryAddress.city AS city, "
+            + "d.deliveryAddress.district AS district, d.deliveryAddress.ward AS ward, "
+            + "d.deliveryAddress.postalCode AS postalCode FROM Delivery d JOIN d.order o JOIN o.user u "
+            + "WHERE u.id = :userId AND (:status IS NULL OR d.status = :status) "
+            + "AND (:beforeId IS NULL OR d.id < :beforeId) ORDER BY d.id DESC")
+    List<DeliverySummary> findSummariesByUserId(@Param("userId") Long userId,
+            @Param("status") Delivery.DeliveryStatus status, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    interface DeliverySummary {
+        Long getId();
+
+        Long getOrderId();
+
+        Long getUserId();
+
+        String getCustomerName();
+
+        LocalDateTime getScheduledTime();
+
+        LocalDateTime getDeliveredTime();
+
+        LocalDateTime getOverdueAt();
+
+        Delivery.DeliveryStatus getStatus();
+
+        String getStreetAddress();
+
+        String getCity();
+
+        String getDistrict();
+
+        String getWard();
+
+        String getPostalCode();
+    }
+
+    // Projection of an order id and one of its delivery times
+    interface DeliverySlot {
+        Long getOrderId();
+
+        LocalDateTime getScheduledTime();
+    }
 }
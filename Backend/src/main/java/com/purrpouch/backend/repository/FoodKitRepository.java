@@ -3,8 +3,11 @@ package com.purrpouch.backend.repository;
 import com.purrpouch.backend.model.FoodKit;
 import com.purrpouch.backend.model.CatProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,17 @@ public interface FoodKitRepository extends JpaRepository<FoodKit, Long> {
     List<FoodKit> findByCatProfile(CatProfile catProfile);
 
     List<FoodKit> findByCatProfileId(Long catProfileId);
+
+    // The cat's kits without pending suggestions
+    List<FoodKit> findByCatProfileIdAndSuggestionFalse(Long catProfileId);
+
+    // [kitId, snapshot price, snapshot catalog fingerprint] of every existing kit
+    @Query("SELECT k.id, k.price, k.priceFingerprint FROM FoodKit k WHERE k.id IN :kitIds")
+    List<Object[]> findSnapshotPrices(@Param("kitIds") Collection<Long> kitIds);
+
+    // [kitId, price] of every existing kit; a kit without items is priced 0
+    @Query("SELECT k.id, COALESCE(SUM(i.quantity * s.pricePerUnit), 0) FROM FoodKit k "
+            + "LEFT JOIN KitMeal m ON m.foodKit = k LEFT JOIN KitMealItem i ON i.kitMeal = m "
+            + "LEFT JOIN i.foodSku s WHERE k.id IN :kitIds GROUP BY k.id")
+    List<Object[]> sumKitPrices(@Param("kitIds") Collection<Long> kitIds);
 }
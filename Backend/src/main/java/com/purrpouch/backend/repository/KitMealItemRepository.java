@@ -3,6 +3,8 @@ package com.purrpouch.backend.repository;
 import com.purrpouch.backend.model.KitMealItem;
 import com.purrpouch.backend.model.KitMeal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,9 @@ public interface KitMealItemRepository extends JpaRepository<KitMealItem, Long>
     List<KitMealItem> findByKitMeal(KitMeal kitMeal);
 
     List<KitMealItem> findByKitMealId(Long kitMealId);
+
+    // Every item of a kit with its meal and SKU, in insertion order
+    @Query("SELECT i FROM KitMealItem i JOIN FETCH i.kitMeal m JOIN FETCH i.foodSku "
+            + "WHERE m.foodKit.id = :foodKitId ORDER BY i.id")
+    List<KitMealItem> findByFoodKitIdWithSku(@Param("foodKitId") Long foodKitId);
 }
@@ -0,0 +1,22 @@
+package com.purrpouch.backend.repository;
+
+import com.purrpouch.backend.model.KitSuggestion;
+import com.purrpouch.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface KitSuggestionRepository extends JpaRepository<KitSuggestion, Long> {
+
+    Optional<KitSuggestion> findByCatProfileId(Long catProfileId);
+
+    // Unique key lookup, with the cat joined for the ownership and staleness checks
+    @Query("SELECT s FROM KitSuggestion s JOIN FETCH s.catProfile c "
+            + "WHERE c.id = :catProfileId AND c.owner = :user AND c.deletedAt IS NULL")
+    Optional<KitSuggestion> findByCatProfileIdAndUser(@Param("catProfileId") Long catProfileId,
+            @Param("user") User user);
+}
@@ -3,8 +3,11 @@ package com.purrpouch.backend.repository;
 import com.purrpouch.backend.model.Order;
 import com.purrpouch.backend.model.OrderKit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,13 @@ public interface OrderKitRepository extends JpaRepository<OrderKit, Long> {
     List<OrderKit> findByOrder(Order order);
 
     List<OrderKit> findByOrderId(Long orderId);
+
+    boolean existsByFoodKitId(Long foodKitId);
+
+    // [foodSkuId, skuName, quantity, revenue] per SKU over orders with a status placed after a date
+    @Query("SELECT l.foodSkuId, MAX(l.skuName), SUM(l.quantity), SUM(l.quantity * l.unitPrice) "
+            + "FROM OrderKit ok JOIN ok.order o JOIN ok.skuLines l "
+            + "WHERE o.status = :status AND o.createdAt > :after "
+            + "GROUP BY l.foodSkuId ORDER BY SUM(l.quantity * l.unitPrice) DESC")
+    List<Object[]> sumSkuRevenue(@Param("status") Order.OrderStatus status, @Param("after") LocalDateTime after);
 }
\ No newline at end of file
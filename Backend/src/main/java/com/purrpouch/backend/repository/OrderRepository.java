@@ -3,12 +3,15 @@ package com.purrpouch.backend.repository;
 import com.purrpouch.backend.model.Order;
 import com.purrpouch.backend.model.Order.OrderStatus;
 import com.purrpouch.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,8 +26,47 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByIsRecurringTrueAndNextDeliveryDateBetween(
             LocalDateTime start, LocalDateTime end); // Query to find order by payment UUID
 
+    // Paid recurring orders whose schedule ends before the given time, in id order for keyset paging
+    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.deliveryAddress "
+            + "WHERE o.isRecurring = true AND o.status = :status AND o.nextDeliveryDate < :before "
+            + "AND o.id > :afterId ORDER BY o.id")
+    List<Order> findRecurringDueBefore(@Param("status") OrderStatus status, @Param("before") LocalDateTime before,
+            @Param("afterId") Long afterId, Pageable pageable);
+
     Order findByPaymentUuid(String paymentUuid); // Admin analytics methods
 
+    boolean existsByIdAndUserEmail(Long id, String email);
+
+    @Query("SELECT o.id AS orderId, o.user.email AS email FROM Order o WHERE o.id IN :orderIds")
+    List<OrderOwner> findOwnersByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusRow> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Ids matching a bulk update filter, in id order for keyset paging
+    @Query("SELECT o.id FROM Order o WHERE (:status IS NULL OR o.status = :status) "
+            + "AND (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) "
+            + "AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByFilter(@Param("status") OrderStatus status, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    interface OrderStatusRow {
+        Long getId();
+
+        OrderStatus getStatus();
+    }
+
+    // Projection of an order id and its owner's email
+    interface OrderOwner {
+        Long getOrderId();
+
+        String getEmail();
+    }
+
     Long countByCreatedAtAfter(LocalDateTime date);
 
     Long countByStatusAndCreatedAtAfter(OrderStatus status, LocalDateTime date);
@@ -0,0 +1,50 @@
+package com.purrpouch.backend.repository;
+
+import com.purrpouch.backend.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest unclaimed pending events; rows locked by another relay are skipped (lock timeout -2)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.deadAt IS NULL "
+            + "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Id of the oldest pending event of each order
+    @Query("SELECT e.orderId, MIN(e.id) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.deadAt IS NULL "
+            + "AND e.orderId IN :orderIds GROUP BY e.orderId")
+    List<Object[]> findHeadEventIds(@Param("orderIds") Collection<Long> orderIds);
+
+    long countByPublishedAtIsNullAndDeadAtIsNull();
+
+    long countByDeadAtIsNotNull();
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullAndDeadAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = NULL, e.deadAt = NULL, e.attempts = 0, "
+            + "e.claimedBy = NULL, e.claimedUntil = NULL, e.lastError = NULL "
+            + "WHERE e.id >= :fromId AND (:orderId IS NULL OR e.orderId = :orderId)")
+    int resetForReplay(@Param("fromId") Long fromId, @Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -117,6 +117,8 @@ public class WebSecurityConfig {
                         // WebSocket endpoints - allow for initial connection
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/api/admin/create-default-admin").permitAll()
+                        // Health and Prometheus scrape endpoints; restrict at the network level
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         // Swagger UI endpoints
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         // All other requests require authentication
@@ -0,0 +1,34 @@
+package com.purrpouch.backend.security.firebase;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import com.google.firebase.auth.UserRecord;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * FirebaseIdentityService backed by the Firebase Admin SDK
+ */
+@Service
+@Profile("!loadtest")
+public class FirebaseAdminIdentityService implements FirebaseIdentityService {
+
+    @Override
+    public FirebaseIdentity verifyIdToken(String idToken) throws FirebaseAuthException {
+        FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        return new FirebaseIdentity(decodedToken.getUid(), decodedToken.getEmail(), decodedToken.getName(),
+                decodedToken.getPicture());
+    }
+
+    @Override
+    public String createUser(String email, String password, String displayName, boolean emailVerified)
+            throws FirebaseAuthException {
+        UserRecord.CreateRequest request = new UserRecord.CreateRequest()
+                .setEmail(email)
+                .setPassword(password)
+                .setDisplayName(displayName)
+                .setEmailVerified(emailVerified);
+        return FirebaseAuth.getInstance().createUser(request).getUid();
+    }
+}
@@ -1,10 +1,9 @@
 package com.purrpouch.backend.security.firebase;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
 import com.purrpouch.backend.model.User;
 import com.purrpouch.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +31,12 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FirebaseIdentityService firebaseIdentityService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -45,15 +50,16 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             String idToken = getIdTokenFromRequest(request);
 
             if (StringUtils.hasText(idToken)) {
                 // Check if this looks like a Firebase ID token vs JWT token
-                if (isFirebaseToken(idToken)) {
-                    logger.debug("Found Firebase token in request, attempting to verify...");
+                FirebaseIdentity decodedToken = verifyFirebaseToken(idToken);
+                if (decodedToken != null) {
+                    logger.debug("Found Firebase token in request, verified");
 
-                    FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
                     String uid = decodedToken.getUid();
                     String email = decodedToken.getEmail();
 
@@ -123,11 +129,11 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
                     }
                 }
             }
-        } catch (FirebaseAuthException e) {
-            logger.error("Firebase Authentication failed: {}", e.getMessage());
         } catch (Exception e) {
             logger.error("Unable to authenticate user with Firebase: {}", e.getMessage(), e);
         }
+        sample.stop(meterRegistry.timer("purrpouch.auth.filter", "filter", "firebase", "authenticated",
+                String.valueOf(SecurityContextHolder.getContext().getAuthentication() != null)));
 
         filterChain.doFilter(request, response);
     }
@@ -143,24 +149,24 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Check if the token is a Firebase ID token vs a JWT token
-     * Firebase tokens are typically longer and have different structure
+     * Verify the token as a Firebase ID token, or return null if it is not one
+     * (e.g. it is our own JWT). Firebase tokens are typically longer and have
+     * different structure.
      */
-    private boolean isFirebaseToken(String token) {
+    private FirebaseIdentity verifyFirebaseToken(String token) {
         try {
             // Firebase tokens are typically much longer than our JWT tokens
             // and don't decode properly with our JWT parser
             if (token.length() < 100) {
-                return false; // Our JWT tokens are shorter
+                return null; // Our JWT tokens are shorter
             }
 
-            // Try to decode with Firebase first - if it works, it's a Firebase token
-            FirebaseAuth.getInstance().verifyIdToken(token);
-            return true;
+            // Verified once here; the claims are reused by the caller
+            return firebaseIdentityService.verifyIdToken(token);
         } catch (Exception e) {
             // If Firebase verification fails, it's likely our JWT token
             logger.debug("Token is not a valid Firebase token, might be JWT: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.purrpouch.backend.security.firebase;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The claims of a verified Firebase ID token that the backend uses
+ */
+@Getter
+@AllArgsConstructor
+public class FirebaseIdentity {
+    private final String uid;
+    private final String email;
+    private final String name;
+    private final String picture;
+}
@@ -0,0 +1,21 @@
+package com.purrpouch.backend.security.firebase;
+
+import com.google.firebase.auth.FirebaseAuthException;
+
+/**
+ * Firebase Authentication operations used by sign-up and the auth filters.
+ * Behind an interface so local profiles can run without a Firebase project.
+ */
+public interface FirebaseIdentityService {
+
+    /**
+     * Verify a Firebase ID token and return its claims
+     */
+    FirebaseIdentity verifyIdToken(String idToken) throws FirebaseAuthException;
+
+    /**
+     * Create an email/password account and return its Firebase UID
+     */
+    String createUser(String email, String password, String displayName, boolean emailVerified)
+            throws FirebaseAuthException;
+}
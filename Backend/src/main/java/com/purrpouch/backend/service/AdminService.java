@@ -1,12 +1,12 @@
 package com.purrpouch.backend.service;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.UserRecord;
 import com.purrpouch.backend.model.User;
 import com.purrpouch.backend.model.Order.OrderStatus;
 import com.purrpouch.backend.repository.UserRepository;
+import com.purrpouch.backend.repository.OrderKitRepository;
 import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.security.firebase.FirebaseIdentityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -31,9 +34,15 @@ public class AdminService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderKitRepository orderKitRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private FirebaseIdentityService firebaseIdentityService;
+
     public User createDefaultAdmin(String email, String password, String username) throws FirebaseAuthException {
         logger.info("Attempting to create default admin account with email: {}", email);
 
@@ -54,20 +63,15 @@ public class AdminService {
 
         try {
             // Create Firebase user
-            UserRecord.CreateRequest request = new UserRecord.CreateRequest()
-                    .setEmail(email)
-                    .setPassword(password)
-                    .setDisplayName(username)
-                    .setEmailVerified(true); // Admin should be verified
-
-            UserRecord userRecord = FirebaseAuth.getInstance().createUser(request);
+            // Admin should be verified
+            String firebaseUid = firebaseIdentityService.createUser(email, password, username, true);
 
             // Create local user with admin role
             User admin = new User();
             admin.setUsername(username);
             admin.setEmail(email);
             admin.setPassword(passwordEncoder.encode(password));
-            admin.setFirebaseUid(userRecord.getUid());
+            admin.setFirebaseUid(firebaseUid);
             admin.setRole(User.Role.ADMIN);
             admin.setEnabled(true);
 
@@ -251,4 +255,34 @@ public class AdminService {
 
         return analytics;
     }
+
+    /**
+     * Quantity sold and revenue per SKU over paid orders, highest revenue
+     * first. Reads the SKU lines copied into order lines at checkout.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSkuRevenueAnalytics(String timeFrame) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startDate = switch (timeFrame.toLowerCase()) {
+            case "day" -> now.minusDays(1);
+            case "month" -> now.minusMonths(1);
+            case "year" -> now.minusYears(1);
+            default -> now.minusDays(7);
+        };
+
+        List<Map<String, Object>> skus = new ArrayList<>();
+        for (Object[] row : orderKitRepository.sumSkuRevenue(OrderStatus.PAID, startDate)) {
+            Map<String, Object> sku = new LinkedHashMap<>();
+            sku.put("foodSkuId", row[0]);
+            sku.put("name", row[1]);
+            sku.put("quantity", row[2]);
+            sku.put("revenue", row[3]);
+            skus.add(sku);
+        }
+
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("skus", skus);
+        analytics.put("timeFrame", timeFrame);
+        return analytics;
+    }
 }
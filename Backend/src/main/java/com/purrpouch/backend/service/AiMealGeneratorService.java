@@ -1,53 +1,128 @@
 package com.purrpouch.backend.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.purrpouch.backend.dto.AiMealKitDto;
 import com.purrpouch.backend.model.*;
-import org.springframework.ai.chat.model.ChatModel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 @Service
 public class AiMealGeneratorService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AiMealGeneratorService.class);
+
+    private static final String MEAL_RULES = "You must follow these strict meal rules:\n\n" +
+            "- BREAKFAST (Sáng): Exactly 1 WET food + 1 TOPPING\n" +
+            "- LUNCH (Trưa): Exactly 1 DRY food + 1 SNACK (treat)\n" +
+            "- DINNER (Tối): Exactly 1 WET food + 1 TOPPING\n\n" +
+            "IMPORTANT: You MUST select foods that match the exact types specified. Wet food must be type WET, dry food must be type DRY, etc.\n\n"
+            +
+            "Consider the cat's preferences, allergies, dietary requirements, and health needs in your selection.\n\n";
+
+    private static final String KIT_JSON_STRUCTURE = "{\n" +
+            "  \"kitName\": \"Name for the meal kit\",\n" +
+            "  \"meals\": [\n" +
+            "    {\n" +
+            "      \"mealType\": \"BREAKFAST\",\n" +
+            "      \"foodItems\": [\n" +
+            "        {\n" +
+            "          \"foodSkuId\": 123,\n" +
+            "          \"quantity\": 1.0\n" +
+            "        },\n" +
+            "        {\n" +
+            "          \"foodSkuId\": 456,\n" +
+            "          \"quantity\": 0.5\n" +
+            "        }\n" +
+            "      ]\n" +
+            "    },\n" +
+            "    // LUNCH and DINNER follow the same structure\n" +
+            "  ]\n" +
+            "}";
+
+    // Extra wait past the router's stream budget before giving up on a stream that never signals
+    private static final Duration STREAM_GRACE = Duration.ofSeconds(1);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
     @Autowired
-    private ChatModel chatModel;
+    private ChatModelRouter chatModelRouter;
 
     @Autowired
     private FoodService foodService;
 
     @Autowired
-    private CatProfileService catProfileService;
+    private CatContextCacheService catContextCacheService;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Autowired
+    private FoodSkuEmbeddingService foodSkuEmbeddingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Foods offered per meal slot, picked by semantic similarity to the cat and
+    // the conversation; 0 offers every compatible food
+    @Value("${app.meal-kit.retrieval.top-k-per-slot:20}")
+    private int topKPerSlot;
+
+    // Cats per household prompt; larger households are rejected
+    @Value("${app.meal-kit.household-max-cats:6}")
+    private int householdMaxCats;
+
+    // Stream meal kit answers and abandon them at the first invalid food
+    @Value("${app.meal-kit.streaming.enabled:false}")
+    private boolean streamingEnabled;
+
+    // Generations per kit when streaming, counting the first
+    @Value("${app.meal-kit.streaming.max-attempts:2}")
+    private int streamingMaxAttempts;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Generate a meal kit using AI based on chat history and cat profile
      */
     public AiMealKitDto generateMealKit(Long catProfileId, List<String> chatHistory) {
         try {
-            // Get cat profile
-            CatProfile catProfile = catProfileService.getCatProfileById(catProfileId);
-
-            // Get all available foods
-            List<FoodSku> allFoods = foodService.getAllFoodSkus();
-
-            // Filter to only include foods with available stock
-            List<FoodSku> availableFoods = allFoods.stream()
-                    .filter(food -> food.getAvailableStock() != null && food.getAvailableStock() > 0)
-                    .toList();
+            CatContextCacheService.CatContext catContext = catContextCacheService.getCatContext(catProfileId);
+
+            List<FoodSku> availableFoods = findAvailableFoods(catContext, chatHistory);
+            Set<FoodSku.FoodType> missingTypes = missingTypes(availableFoods);
+            if (!missingTypes.isEmpty()) {
+                // No kit from the AI could pass validation; the rule-based kit leaves those slots empty
+                logger.info("No compatible {} food for cat {}, using the fallback kit", missingTypes, catProfileId);
+                return generateFallbackMealKit(catProfileId);
+            }
 
             // Format the food data for the AI prompt
             String foodsData = formatFoodSkuData(availableFoods);
 
-            // Format the cat profile data
-            String catData = formatCatProfileData(catProfile);
+            // Get the cached cat profile description
+            String catData = catContext.getMealKitContext();
 
             // Format the chat history
             String chatData = formatChatHistory(chatHistory);
@@ -56,37 +131,12 @@ public class AiMealGeneratorService {
                     +
                     "for a cat based on their profile information, chat history with the owner, and the available food options in our inventory. "
                     +
-                    "You must follow these strict meal rules:\n\n" +
-                    "- BREAKFAST (Sáng): Exactly 1 WET food + 1 TOPPING\n" +
-                    "- LUNCH (Trưa): Exactly 1 DRY food + 1 SNACK (treat)\n" +
-                    "- DINNER (Tối): Exactly 1 WET food + 1 TOPPING\n\n" +
-                    "IMPORTANT: You MUST select foods that match the exact types specified. Wet food must be type WET, dry food must be type DRY, etc.\n\n"
-                    +
-                    "Consider the cat's preferences, allergies, dietary requirements, and health needs in your selection.\n\n"
-                    +
+                    MEAL_RULES +
                     "Here is the cat's profile information:\n" + catData + "\n\n" +
                     "Here is the recent chat history with the owner:\n" + chatData + "\n\n" +
                     "Here are the available food options in our inventory:\n" + foodsData + "\n\n" +
                     "Generate a meal kit in JSON format with the following structure:\n" +
-                    "{\n" +
-                    "  \"kitName\": \"Name for the meal kit\",\n" +
-                    "  \"meals\": [\n" +
-                    "    {\n" +
-                    "      \"mealType\": \"BREAKFAST\",\n" +
-                    "      \"foodItems\": [\n" +
-                    "        {\n" +
-                    "          \"foodSkuId\": 123,\n" +
-                    "          \"quantity\": 1.0\n" +
-                    "        },\n" +
-                    "        {\n" +
-                    "          \"foodSkuId\": 456,\n" +
-                    "          \"quantity\": 0.5\n" +
-                    "        }\n" +
-                    "      ]\n" +
-                    "    },\n" +
-                    "    // LUNCH and DINNER follow the same structure\n" +
-                    "  ]\n" +
-                    "}\n\n" +
+                    KIT_JSON_STRUCTURE + "\n\n" +
                     "You must ONLY return valid JSON without any additional text, explanation, or markdown.";
 
             SystemMessage systemMessage = new SystemMessage(systemPrompt);
@@ -96,22 +146,176 @@ public class AiMealGeneratorService {
             List<Message> messages = new ArrayList<>();
             messages.add(systemMessage);
             messages.add(userMessage);
-            Prompt prompt = new Prompt(messages);
-
-            // Get response from AI
-            String jsonResponse = chatModel.call(prompt).getResult().getOutput().getContent().trim();
-
-            // Clean the response to ensure it's valid JSON
-            jsonResponse = cleanJsonResponse(jsonResponse);
 
-            // Parse the JSON response
-            return processAiResponse(jsonResponse, catProfileId);
+            AiMealKitResponse aiResponse = requestKit(messages, typesOf(availableFoods), catProfileId);
+            return aiResponse != null ? saveKit(catProfileId, aiResponse) : generateFallbackMealKit(catProfileId);
         } catch (Exception e) {
             // In case of error, generate a fallback meal kit
             return generateFallbackMealKit(catProfileId);
         }
     }
 
+    /**
+     * Generate one kit per cat of a household with a single AI call. The
+     * catalog is sent once, followed by a section per cat listing the foods
+     * that cat may have. Each kit is checked like a single kit against its
+     * cat's foods. All kits are saved in one transaction; a cat whose kit is
+     * missing or invalid gets a fallback kit.
+     *
+     * @param chatHistoryByCat Recent chat messages for each cat, in the order
+     *                         the kits should be returned
+     */
+    public List<AiMealKitDto> generateHouseholdMealKits(Map<Long, List<String>> chatHistoryByCat) {
+        if (chatHistoryByCat.isEmpty() || chatHistoryByCat.size() > householdMaxCats) {
+            throw new IllegalArgumentException("A household request needs between 1 and " + householdMaxCats
+                    + " cats");
+        }
+
+        // Resolve every cat first, so a cat the user doesn't own fails before the AI call
+        Map<Long, CatContextCacheService.CatContext> catContexts = new LinkedHashMap<>();
+        Map<Long, List<FoodSku>> offeredFoods = new HashMap<>();
+        Map<Long, FoodSku> sharedFoods = new LinkedHashMap<>();
+        for (Long catProfileId : chatHistoryByCat.keySet()) {
+            CatContextCacheService.CatContext catContext = catContextCacheService.getCatContext(catProfileId);
+            List<FoodSku> availableFoods = findAvailableFoods(catContext, chatHistoryByCat.get(catProfileId));
+            catContexts.put(catProfileId, catContext);
+            offeredFoods.put(catProfileId, availableFoods);
+            for (FoodSku sku : availableFoods) {
+                sharedFoods.putIfAbsent(sku.getId(), sku);
+            }
+        }
+
+        Map<Long, AiMealKitResponse> validKits = new HashMap<>();
+        String jsonResponse = null;
+        try {
+            StringBuilder catSections = new StringBuilder();
+            for (Map.Entry<Long, CatContextCacheService.CatContext> entry : catContexts.entrySet()) {
+                catSections.append(formatCatSection(entry.getKey(), entry.getValue(),
+                        chatHistoryByCat.get(entry.getKey()), offeredFoods.get(entry.getKey())));
+            }
+
+            String systemPrompt = "You are a cat food expert AI for PurrPouch. Your task is to create a personalized daily meal kit "
+                    +
+                    "for each cat of a household based on its profile information, chat history with the owner, and the available food options in our inventory. "
+                    +
+                    MEAL_RULES +
+                    "Only give each cat foods from its own list of allowed food IDs; the other foods conflict with its allergies.\n\n" +
+                    "Here are the available food options in our inventory:\n" + formatFoodSkuData(
+                            new ArrayList<>(sharedFoods.values()))
+                    + "\n" +
+                    "Here are the cats:\n\n" + catSections +
+                    "Generate one meal kit per cat in JSON format with the following structure:\n" +
+                    "{\n  \"kits\": [\n    { \"catId\": 1, ...kit... }\n  ]\n}\n" +
+                    "where each kit has the following structure:\n" +
+                    KIT_JSON_STRUCTURE + "\n\n" +
+                    "You must ONLY return valid JSON without any additional text, explanation, or markdown.";
+
+            List<Message> messages = new ArrayList<>();
+            messages.add(new SystemMessage(systemPrompt));
+            messages.add(new UserMessage(
+                    "Generate a personalized meal kit for each of my cats based on our conversations and their profiles."));
+
+            jsonResponse = cleanJsonResponse(
+                    chatModelRouter.call(ChatModelRouter.Endpoint.HOUSEHOLD_MEAL_KIT, new Prompt(messages))
+                            .getResult().getOutput().getContent().trim());
+            for (JsonNode kitNode : mapper.readTree(jsonResponse).path("kits")) {
+                Long catProfileId = kitNode.path("catId").canConvertToLong() ? kitNode.get("catId").asLong() : null;
+                List<FoodSku> offered = catProfileId != null ? offeredFoods.get(catProfileId) : null;
+                if (offered == null || validKits.containsKey(catProfileId)) {
+                    continue;
+                }
+                MealKitStreamValidator validator = new MealKitStreamValidator(typesOf(offered), mapper);
+                validator.feed(mapper.writeValueAsString(kitNode));
+                validator.finish();
+                if (validator.isComplete()) {
+                    validKits.put(catProfileId, mapper.readValue(validator.completedDocument(),
+                            AiMealKitResponse.class));
+                } else {
+                    logger.warn("AI household meal kit rejected for cat {}: {}", catProfileId,
+                            validator.getViolation());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error generating household meal kits: {}", e.getMessage());
+            if (jsonResponse != null) {
+                logger.debug("AI response was: {}", jsonResponse);
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            List<AiMealKitDto> kits = new ArrayList<>();
+            for (Long catProfileId : catContexts.keySet()) {
+                AiMealKitResponse kit = validKits.get(catProfileId);
+                kits.add(kit != null ? saveKit(catProfileId, kit) : generateFallbackMealKit(catProfileId));
+            }
+            return kits;
+        });
+    }
+
+    /**
+     * Only offer foods that don't conflict with the cat's allergies; a food
+     * type with no compatible food is left out. Large slots are cut down to
+     * the foods closest to the cat's profile and chat.
+     */
+    private List<FoodSku> findAvailableFoods(CatContextCacheService.CatContext catContext,
+            List<String> chatHistory) {
+        float[] query = null;
+        boolean queryEmbedded = false;
+        List<FoodSku> availableFoods = new ArrayList<>();
+        for (FoodSku.FoodType type : FoodSku.FoodType.values()) {
+            List<FoodSku> candidates = foodSkuIndexService.findCompatible(catContext.getProteinMask(),
+                    catContext.getDietaryMask(), catContext.getAllergyMask(), type);
+            if (topKPerSlot > 0 && candidates.size() > topKPerSlot) {
+                if (!queryEmbedded) {
+                    query = foodSkuEmbeddingService.embedQuery(catContext.getMealKitContext() + "\n"
+                            + (chatHistory != null ? String.join("\n", chatHistory) : ""));
+                    queryEmbedded = true;
+                }
+                candidates = foodSkuEmbeddingService.selectRelevant(candidates, query, topKPerSlot);
+            }
+            availableFoods.addAll(candidates);
+        }
+        return availableFoods;
+    }
+
+    private static Set<FoodSku.FoodType> missingTypes(List<FoodSku> foodSkus) {
+        Set<FoodSku.FoodType> missing = EnumSet.allOf(FoodSku.FoodType.class);
+        for (FoodSku sku : foodSkus) {
+            missing.remove(sku.getType());
+        }
+        return missing;
+    }
+
+    private static Map<Long, FoodSku.FoodType> typesOf(List<FoodSku> foodSkus) {
+        Map<Long, FoodSku.FoodType> types = new HashMap<>();
+        for (FoodSku sku : foodSkus) {
+            types.put(sku.getId(), sku.getType());
+        }
+        return types;
+    }
+
+    /**
+     * Format one cat's part of a household prompt
+     */
+    String formatCatSection(Long catProfileId, CatContextCacheService.CatContext catContext,
+            List<String> chatHistory, List<FoodSku> allowedFoods) {
+        StringBuilder allowed = new StringBuilder();
+        for (FoodSku.FoodType type : FoodSku.FoodType.values()) {
+            StringJoiner ids = new StringJoiner(", ");
+            ids.setEmptyValue("none");
+            for (FoodSku sku : allowedFoods) {
+                if (sku.getType() == type) {
+                    ids.add(String.valueOf(sku.getId()));
+                }
+            }
+            allowed.append("- ").append(type).append(": ").append(ids).append("\n");
+        }
+        return "Cat ID: " + catProfileId + "\n" +
+                catContext.getMealKitContext() +
+                "Allowed food IDs for this cat:\n" + allowed +
+                "Recent chat history with the owner about this cat:\n" + formatChatHistory(chatHistory) + "\n";
+    }
+
     /**
      * Clean the JSON response from AI to ensure it's valid
      */
@@ -141,78 +345,118 @@ public class AiMealGeneratorService {
     }
 
     /**
-     * Process the AI response JSON and create a meal kit
+     * Ask for a kit and check it with a {@link MealKitStreamValidator}. When
+     * streaming, the answer is checked as it arrives and the generation is
+     * cancelled at the first violation, then asked for again with the reason,
+     * up to the configured number of attempts.
+     *
+     * @return the valid kit, or null when every attempt was rejected
+     */
+    private AiMealKitResponse requestKit(List<Message> messages, Map<Long, FoodSku.FoodType> offeredTypes,
+            Long catProfileId) throws IOException {
+        List<Message> conversation = new ArrayList<>(messages);
+        int attempts = streamingEnabled ? Math.max(streamingMaxAttempts, 1) : 1;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            MealKitStreamValidator validator = new MealKitStreamValidator(offeredTypes, mapper);
+            Prompt prompt = new Prompt(conversation);
+            if (streamingEnabled) {
+                stream(prompt, validator);
+            } else {
+                validator.feed(textOf(chatModelRouter.call(ChatModelRouter.Endpoint.MEAL_KIT, prompt)));
+            }
+            validator.finish();
+            if (validator.isComplete()) {
+                return mapper.readValue(validator.completedDocument(), AiMealKitResponse.class);
+            }
+
+            logger.warn("AI meal kit rejected for cat {} on attempt {}: {}", catProfileId, attempt,
+                    validator.getViolation());
+            conversation.add(new UserMessage("Your previous meal kit was rejected: " + validator.getViolation()
+                    + ". Generate the whole meal kit again, following the meal rules and using only the listed food IDs."));
+        }
+        return null;
+    }
+
+    /**
+     * Feed streamed chunks to the validator until it has seen a complete kit or
+     * a violation; stopping the subscription cancels the generation. The
+     * router ends the stream at the endpoint's budget; the wait here is a
+     * backstop in case the stream never signals.
      */
-    private AiMealKitDto processAiResponse(String jsonResponse, Long catProfileId) {
+    private void stream(Prompt prompt, MealKitStreamValidator validator) {
+        Flux<org.springframework.ai.chat.model.ChatResponse> responses;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-
-            // Parse the AI response
-            AiMealKitResponse aiResponse = mapper.readValue(jsonResponse, AiMealKitResponse.class);
-
-            // Create a new food kit
-            FoodKit foodKit = foodService.createFoodKit(catProfileId, aiResponse.getKitName());
-
-            AiMealKitDto result = new AiMealKitDto();
-            result.setKitId(foodKit.getId());
-            result.setKitName(foodKit.getName());
-            result.setCatProfileId(catProfileId);
-            result.setMeals(new ArrayList<>());
-
-            // Process each meal
-            for (AiMealKitResponse.Meal meal : aiResponse.getMeals()) {
-                // Determine meal type
-                KitMeal.MealType mealType = KitMeal.MealType.valueOf(meal.getMealType());
-
-                // Create meal
-                KitMeal kitMeal = foodService.addMealToKit(foodKit.getId(), mealType);
-
-                AiMealKitDto.MealDto mealDto = new AiMealKitDto.MealDto();
-                mealDto.setMealId(kitMeal.getId());
-                mealDto.setMealType(mealType);
-                mealDto.setFoodItems(new ArrayList<>());
-                // Process each food item
-                for (AiMealKitResponse.FoodItem item : meal.getFoodItems()) {
-                    // Get the food SKU
-                    FoodSku foodSku = foodService.getFoodSkuById(item.getFoodSkuId());
-
-                    // Add food item to meal
-                    foodService.addFoodToMeal(
-                            kitMeal.getId(),
-                            item.getFoodSkuId(),
-                            BigDecimal.valueOf(item.getQuantity()));
-
-                    // Add to DTO
-                    AiMealKitDto.FoodItemDto foodItemDto = new AiMealKitDto.FoodItemDto();
-                    foodItemDto.setFoodSkuId(foodSku.getId());
-                    foodItemDto.setName(foodSku.getName());
-                    foodItemDto.setType(foodSku.getType().toString());
-                    foodItemDto.setBrand(foodSku.getBrand());
-                    foodItemDto.setQuantity(BigDecimal.valueOf(item.getQuantity()));
-                    foodItemDto.setUnit(foodSku.getUnit());
-
-                    mealDto.getFoodItems().add(foodItemDto);
-                }
+            responses = chatModelRouter.stream(ChatModelRouter.Endpoint.MEAL_KIT, prompt);
+        } catch (UnsupportedOperationException e) {
+            validator.feed(textOf(chatModelRouter.call(ChatModelRouter.Endpoint.MEAL_KIT, prompt)));
+            return;
+        }
+        responses.map(AiMealGeneratorService::textOf)
+                .takeWhile(validator::feed)
+                .blockLast(chatModelRouter.budget(ChatModelRouter.Endpoint.MEAL_KIT).plus(STREAM_GRACE));
+    }
 
-                result.getMeals().add(mealDto);
-            }
+    private static String textOf(org.springframework.ai.chat.model.ChatResponse response) {
+        // The last streamed chunk may carry only usage metadata
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String content = response.getResult().getOutput().getContent();
+        return content != null ? content : "";
+    }
 
-            return result;
-        } catch (JsonProcessingException e) {
-            // Log the error
-            System.err.println("Error parsing AI response: " + e.getMessage());
-            System.err.println("AI response was: " + jsonResponse);
+    /**
+     * Persist a validated AI kit and return it as a DTO
+     */
+    private AiMealKitDto saveKit(Long catProfileId, AiMealKitResponse aiResponse) {
+        // Create a new food kit
+        FoodKit foodKit = foodService.createFoodKit(catProfileId, aiResponse.getKitName());
 
-            // If parsing fails, generate a fallback
-            return generateFallbackMealKit(catProfileId);
-        } catch (Exception e) {
-            // Log the error
-            System.err.println("Unexpected error processing AI response: " + e.getMessage());
-            e.printStackTrace();
+        AiMealKitDto result = new AiMealKitDto();
+        result.setKitId(foodKit.getId());
+        result.setKitName(foodKit.getName());
+        result.setCatProfileId(catProfileId);
+        result.setMeals(new ArrayList<>());
 
-            // If any other error occurs, generate a fallback
-            return generateFallbackMealKit(catProfileId);
+        // Process each meal
+        for (AiMealKitResponse.Meal meal : aiResponse.getMeals()) {
+            // Determine meal type
+            KitMeal.MealType mealType = KitMeal.MealType.valueOf(meal.getMealType());
+
+            // Create meal
+            KitMeal kitMeal = foodService.addMealToKit(foodKit.getId(), mealType);
+
+            AiMealKitDto.MealDto mealDto = new AiMealKitDto.MealDto();
+            mealDto.setMealId(kitMeal.getId());
+            mealDto.setMealType(mealType);
+            mealDto.setFoodItems(new ArrayList<>());
+            // Process each food item
+            for (AiMealKitResponse.FoodItem item : meal.getFoodItems()) {
+                // Get the food SKU
+                FoodSku foodSku = foodService.getFoodSkuById(item.getFoodSkuId());
+
+                // Add food item to meal
+                foodService.addFoodToMeal(
+                        kitMeal.getId(),
+                        item.getFoodSkuId(),
+                        BigDecimal.valueOf(item.getQuantity()));
+
+                // Add to DTO
+                AiMealKitDto.FoodItemDto foodItemDto = new AiMealKitDto.FoodItemDto();
+                foodItemDto.setFoodSkuId(foodSku.getId());
+                foodItemDto.setName(foodSku.getName());
+                foodItemDto.setType(foodSku.getType().toString());
+                foodItemDto.setBrand(foodSku.getBrand());
+                foodItemDto.setQuantity(BigDecimal.valueOf(item.getQuantity()));
+                foodItemDto.setUnit(foodSku.getUnit());
+
+                mealDto.getFoodItems().add(foodItemDto);
+            }
+
+            result.getMeals().add(mealDto);
         }
+
+        return result;
     }
 
     /**
@@ -264,7 +508,7 @@ public class AiMealGeneratorService {
     /**
      * Format food SKU data for the AI prompt
      */
-    private String formatFoodSkuData(List<FoodSku> foodSkus) {
+    String formatFoodSkuData(List<FoodSku> foodSkus) {
         StringBuilder sb = new StringBuilder();
 
         for (FoodSku sku : foodSkus) {
@@ -276,6 +520,11 @@ public class AiMealGeneratorService {
                     .append(", Price: ").append(sku.getPricePerUnit())
                     .append(", Stock: ").append(sku.getAvailableStock());
 
+            if (sku.getAttributeMask() != null) {
+                appendAttributes(sb, "Proteins", FoodAttributes.proteins(sku.getAttributeMask()));
+                appendAttributes(sb, "Formulas", FoodAttributes.formulas(sku.getAttributeMask()));
+            }
+
             if (sku.getDescription() != null && !sku.getDescription().trim().isEmpty()) {
                 sb.append(", Description: \"").append(sku.getDescription()).append("\"");
             }
@@ -286,67 +535,24 @@ public class AiMealGeneratorService {
         return sb.toString();
     }
 
-    /**
-     * Format cat profile data for the AI prompt
-     */
-    private String formatCatProfileData(CatProfile profile) {
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("Name: ").append(profile.getName()).append("\n");
-
-        if (profile.getBreed() != null) {
-            sb.append("Breed: ").append(profile.getBreed()).append("\n");
+    private void appendAttributes(StringBuilder sb, String label, Set<? extends Enum<?>> values) {
+        if (values.isEmpty()) {
+            return;
         }
-
-        if (profile.getAge() != null) {
-            sb.append("Age: ").append(profile.getAge()).append(" years\n");
+        sb.append(", ").append(label).append(": ");
+        boolean first = true;
+        for (Enum<?> value : values) {
+            if (!first)
+                sb.append("/");
+            sb.append(value.toString().replace("_", " "));
+            first = false;
         }
-
-        if (profile.getWeight() != null) {
-            sb.append("Weight: ").append(profile.getWeight()).append(" kg\n");
-        }
-
-        if (profile.getProteinPreferences() != null && !profile.getProteinPreferences().isEmpty()) {
-            sb.append("Protein Preferences: ");
-            for (int i = 0; i < profile.getProteinPreferences().size(); i++) {
-                if (i > 0)
-                    sb.append(", ");
-                sb.append(profile.getProteinPreferences().get(i).toString().replace("_", " "));
-            }
-            sb.append("\n");
-        }
-
-        if (profile.getDietaryRequirements() != null && !profile.getDietaryRequirements().isEmpty()) {
-            sb.append("Dietary Requirements: ");
-            for (int i = 0; i < profile.getDietaryRequirements().size(); i++) {
-                if (i > 0)
-                    sb.append(", ");
-                sb.append(profile.getDietaryRequirements().get(i).toString().replace("_", " "));
-            }
-            sb.append("\n");
-        }
-
-        if (profile.getAllergies() != null && !profile.getAllergies().isEmpty()) {
-            sb.append("Allergies: ");
-            for (int i = 0; i < profile.getAllergies().size(); i++) {
-                if (i > 0)
-                    sb.append(", ");
-                sb.append(profile.getAllergies().get(i).toString().replace("_", " "));
-            }
-            sb.append("\n");
-        }
-
-        if (profile.getNotes() != null && !profile.getNotes().trim().isEmpty()) {
-            sb.append("Notes: ").append(profile.getNotes()).append("\n");
-        }
-
-        return sb.toString();
     }
 
     /**
      * Format chat history for the AI prompt
      */
-    private String formatChatHistory(List<String> chatHistory) {
+    String formatChatHistory(List<String> chatHistory) {
         if (chatHistory == null || chatHistory.isEmpty()) {
             return "No recent chat history available.";
         }
@@ -363,9 +569,19 @@ public class AiMealGeneratorService {
      * Private inner classes for parsing AI response
      */
     private static class AiMealKitResponse {
+        // Only set in household responses
+        private Long catId;
         private String kitName;
         private List<Meal> meals;
 
+        public Long getCatId() {
+            return catId;
+        }
+
+        public void setCatId(Long catId) {
+            this.catId = catId;
+        }
+
         public String getKitName() {
             return kitName;
         }
@@ -1,10 +1,9 @@
 package com.purrpouch.backend.service;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.UserRecord;
 import com.purrpouch.backend.model.User;
 import com.purrpouch.backend.repository.UserRepository;
+import com.purrpouch.backend.security.firebase.FirebaseIdentityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +32,9 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private FirebaseIdentityService firebaseIdentityService;
+
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -99,20 +101,14 @@ public class AuthService {
         }
 
         // Create Firebase user
-        UserRecord.CreateRequest request = new UserRecord.CreateRequest()
-                .setEmail(email)
-                .setPassword(password)
-                .setDisplayName(username)
-                .setEmailVerified(false);
-
-        UserRecord userRecord = FirebaseAuth.getInstance().createUser(request);
+        String firebaseUid = firebaseIdentityService.createUser(email, password, username, false);
 
         // Create local user with hashed password
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password)); // Hash the password
-        user.setFirebaseUid(userRecord.getUid());
+        user.setFirebaseUid(firebaseUid);
         user.setRole(User.Role.USER);
         user.setEnabled(true);
 
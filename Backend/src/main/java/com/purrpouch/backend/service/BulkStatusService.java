@@ -0,0 +1,198 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent.OrderEventType;
+import com.purrpouch.backend.model.Delivery.DeliveryStatus;
+import com.purrpouch.backend.model.Order.OrderStatus;
+import com.purrpouch.backend.payload.request.BulkStatusUpdateRequest;
+import com.purrpouch.backend.payload.response.BulkStatusUpdateResponse;
+import com.purrpouch.backend.payload.response.BulkStatusUpdateResponse.Outcome;
+import com.purrpouch.backend.repository.DeliveryRepository;
+import com.purrpouch.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Admin status changes for many orders or deliveries at once. Rows are
+ * changed with set-based UPDATEs, one chunk per transaction. Downstream
+ * effects match {@link OrderService#updateOrderStatusByAdmin}: each changed
+ * order gets the same outbox events, written in one batch per chunk, and a
+ * payment status update once the chunk commits. Delivery changes, like
+ * {@link DeliveryService#updateDeliveryStatusByAdmin}, publish nothing.
+ */
+@Service
+public class BulkStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkStatusService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PaymentNotificationService paymentNotificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Move orders to a status. Every changed order gets an UPDATED outbox
+     * event, and orders that become PAID also a PAID one so their deliveries
+     * are scheduled.
+     */
+    public BulkStatusUpdateResponse updateOrderStatuses(BulkStatusUpdateRequest request) {
+        OrderStatus status = OrderStatus.valueOf(request.getStatus());
+        OrderStatus fromStatus = request.getFromStatus() != null ? OrderStatus.valueOf(request.getFromStatus())
+                : null;
+        return run(request, status.name(), ids -> updateOrderChunk(ids, status),
+                afterId -> orderRepository.findIdsByFilter(fromStatus, startOf(request.getFrom()),
+                        endOf(request.getTo()), afterId, PageRequest.of(0, chunkSize)));
+    }
+
+    /**
+     * Move deliveries to a status; DELIVERED also stamps the delivered time
+     */
+    public BulkStatusUpdateResponse updateDeliveryStatuses(BulkStatusUpdateRequest request) {
+        DeliveryStatus status = DeliveryStatus.valueOf(request.getStatus());
+        DeliveryStatus fromStatus = request.getFromStatus() != null
+                ? DeliveryStatus.valueOf(request.getFromStatus())
+                : null;
+        return run(request, status.name(), ids -> updateDeliveryChunk(ids, status),
+                afterId -> deliveryRepository.findIdsByFilter(fromStatus, startOf(request.getFrom()),
+                        endOf(request.getTo()), afterId, PageRequest.of(0, chunkSize)));
+    }
+
+    private BulkStatusUpdateResponse run(BulkStatusUpdateRequest request, String status,
+            Function<List<Long>, Map<Long, Outcome>> applyChunk, Function<Long, List<Long>> findFilteredChunk) {
+        long start = System.currentTimeMillis();
+        BulkStatusUpdateResponse response = new BulkStatusUpdateResponse(status);
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().distinct().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                response.addAll(transactionTemplate.execute(tx -> applyChunk.apply(chunk)));
+            }
+        } else {
+            if (request.getFromStatus() == null && request.getFrom() == null && request.getTo() == null) {
+                throw new IllegalArgumentException("Either ids or filter criteria are required");
+            }
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                // Keyset by id, since updated rows may no longer match the filter
+                List<Long> chunk = new ArrayList<>();
+                Map<Long, Outcome> outcomes = transactionTemplate.execute(tx -> {
+                    chunk.addAll(findFilteredChunk.apply(cursor));
+                    return chunk.isEmpty() ? Map.<Long, Outcome>of() : applyChunk.apply(chunk);
+                });
+                response.addAll(outcomes);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        }
+        logger.info("Bulk update to {}: {} updated, {} unchanged, {} not found in {} ms", status,
+                response.getUpdated(), response.getUnchanged(), response.getNotFound(),
+                System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private Map<Long, Outcome> updateOrderChunk(List<Long> ids, OrderStatus status) {
+        Map<Long, Outcome> outcomes = notFound(ids);
+        List<Long> changed = new ArrayList<>();
+        for (OrderRepository.OrderStatusRow row : orderRepository.findStatusesByIdIn(ids)) {
+            if (row.getStatus() == status) {
+                outcomes.put(row.getId(), Outcome.UNCHANGED);
+            } else {
+                outcomes.put(row.getId(), Outcome.UPDATED);
+                changed.add(row.getId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            orderRepository.updateStatusByIdIn(changed, status);
+            outboxService.recordAll(changed, OrderEventType.UPDATED);
+            if (status == OrderStatus.PAID) {
+                outboxService.recordAll(changed, OrderEventType.PAID);
+            }
+            // Owners only hear about changes that committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Long orderId : changed) {
+                        paymentNotificationService.sendPaymentStatusUpdate(orderId, status.name());
+                    }
+                }
+            });
+        }
+        return outcomes;
+    }
+
+    private Map<Long, Outcome> updateDeliveryChunk(List<Long> ids, DeliveryStatus status) {
+        Map<Long, Outcome> outcomes = notFound(ids);
+        List<Long> changed = new ArrayList<>();
+        for (DeliveryRepository.DeliveryStatusRow row : deliveryRepository.findStatusesByIdIn(ids)) {
+            if (row.getStatus() == status) {
+                outcomes.put(row.getId(), Outcome.UNCHANGED);
+            } else {
+                outcomes.put(row.getId(), Outcome.UPDATED);
+                changed.add(row.getId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            if (status == DeliveryStatus.DELIVERED) {
+                deliveryRepository.updateStatusAndDeliveredTimeByIdIn(changed, status, LocalDateTime.now());
+            } else {
+                deliveryRepository.updateStatusByIdIn(changed, status);
+            }
+        }
+        return outcomes;
+    }
+
+    private static Map<Long, Outcome> notFound(List<Long> ids) {
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        for (Long id : ids) {
+            outcomes.put(id, Outcome.NOT_FOUND);
+        }
+        return outcomes;
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+}
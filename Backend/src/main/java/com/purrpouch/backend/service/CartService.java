@@ -0,0 +1,214 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.response.CartResponse;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side carts, kept in memory per user and priced by
+ * {@link KitPricingService} every time they are read, so the total shown is
+ * the total checkout will accept. Idle carts expire after the TTL.
+ */
+@Service
+public class CartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private KitPricingService kitPricingService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Value("${app.cart.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.cart.max-carts:10000}")
+    private int maxCarts;
+
+    // Access-ordered so the least recently used cart is dropped first
+    private final LinkedHashMap<Long, Cart> carts = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The current user's cart
+     */
+    @Transactional(readOnly = true)
+    public CartResponse getCart() {
+        return price(snapshot(authService.getCurrentUser().getId()));
+    }
+
+    /**
+     * Replace the current user's cart, e.g. with the copy the browser kept
+     *
+     * @param kitItems Quantity of each kit, by kit id
+     */
+    @Transactional(readOnly = true)
+    public CartResponse replaceItems(Map<Long, Integer> kitItems) {
+        User user = authService.getCurrentUser();
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        if (kitItems != null) {
+            for (Map.Entry<Long, Integer> entry : kitItems.entrySet()) {
+                if (entry.getValue() != null && entry.getValue() > 0) {
+                    items.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        checkOwned(user, items.keySet());
+        synchronized (carts) {
+            Cart cart = cartOf(user.getId());
+            cart.items.clear();
+            cart.items.putAll(items);
+            cart.touch();
+        }
+        return price(items);
+    }
+
+    /**
+     * Set the quantity of one kit; zero or less removes it
+     */
+    @Transactional(readOnly = true)
+    public CartResponse setQuantity(Long kitId, int quantity) {
+        User user = authService.getCurrentUser();
+        if (quantity > 0) {
+            checkOwned(user, List.of(kitId));
+        }
+        Map<Long, Integer> items;
+        synchronized (carts) {
+            Cart cart = cartOf(user.getId());
+            if (quantity > 0) {
+                cart.items.put(kitId, quantity);
+            } else {
+                cart.items.remove(kitId);
+            }
+            cart.touch();
+            items = new LinkedHashMap<>(cart.items);
+        }
+        return price(items);
+    }
+
+    /**
+     * Empty the current user's cart
+     */
+    public void clear() {
+        Long userId = authService.getCurrentUser().getId();
+        synchronized (carts) {
+            carts.remove(userId);
+        }
+    }
+
+    /**
+     * Drop carts left idle longer than the TTL
+     */
+    @Scheduled(fixedDelayString = "${app.cart.sweep-interval-ms:300000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000L;
+        int evicted = 0;
+        synchronized (carts) {
+            Iterator<Cart> iterator = carts.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().touchedAt < cutoff) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle carts", evicted);
+        }
+    }
+
+    // Callers hold the carts lock
+    private Cart cartOf(Long userId) {
+        Cart cart = carts.computeIfAbsent(userId, id -> new Cart());
+        if (carts.size() > maxCarts) {
+            Iterator<Long> iterator = carts.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        return cart;
+    }
+
+    private Map<Long, Integer> snapshot(Long userId) {
+        synchronized (carts) {
+            Cart cart = carts.get(userId);
+            if (cart == null) {
+                return Map.of();
+            }
+            cart.touch();
+            return new LinkedHashMap<>(cart.items);
+        }
+    }
+
+    private void checkOwned(User user, Iterable<Long> kitIds) {
+        Map<Long, FoodKit> kits = new HashMap<>();
+        for (FoodKit kit : foodKitRepository.findAllById(kitIds)) {
+            kits.put(kit.getId(), kit);
+        }
+        for (Long kitId : kitIds) {
+            FoodKit kit = kits.get(kitId);
+            if (kit == null || !kit.getCatProfile().getOwner().getId().equals(user.getId())) {
+                throw new EntityNotFoundException("Food kit not found: " + kitId);
+            }
+        }
+    }
+
+    /**
+     * Price cart items with one kit load and one pricing pass; kits deleted
+     * since they were added are left out
+     */
+    private CartResponse price(Map<Long, Integer> items) {
+        if (items.isEmpty()) {
+            return new CartResponse(List.of(), BigDecimal.ZERO);
+        }
+        Map<Long, FoodKit> kits = new HashMap<>();
+        for (FoodKit kit : foodKitRepository.findAllById(items.keySet())) {
+            kits.put(kit.getId(), kit);
+        }
+        Map<Long, BigDecimal> prices = kitPricingService.priceKits(items.keySet());
+
+        List<CartResponse.Item> lines = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            FoodKit kit = kits.get(entry.getKey());
+            BigDecimal unitPrice = prices.get(entry.getKey());
+            if (kit == null || unitPrice == null) {
+                continue;
+            }
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(entry.getValue()));
+            lines.add(new CartResponse.Item(kit.getId(), kit.getName(), kit.getCatProfile().getId(),
+                    entry.getValue(), unitPrice, lineTotal));
+            total = total.add(lineTotal);
+        }
+        return new CartResponse(lines, total);
+    }
+
+    private static class Cart {
+        // Kit quantities in the order they were added
+        private final Map<Long, Integer> items = new LinkedHashMap<>();
+        private long touchedAt = System.currentTimeMillis();
+
+        void touch() {
+            touchedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.repository.CatProfileRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the prompt fragments that describe a cat, built once per profile
+ * version. Chat turns and meal kit prompts read the cached text instead of
+ * reloading the profile and its element collections on every message.
+ */
+@Service
+public class CatContextCacheService {
+
+    @Autowired
+    private CatProfileRepository catProfileRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    @Value("${app.cat-context-cache.max-entries:5000}")
+    private int maxEntries;
+
+    // Bumped on every invalidation so loads that raced an update are not cached
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Long, CatContext> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Get the prompt context for a cat owned by the current user
+     */
+    @Transactional(readOnly = true)
+    public CatContext getCatContext(Long catProfileId) {
+        User currentUser = authService.getCurrentUser();
+
+        CatContext cached;
+        synchronized (entries) {
+            cached = entries.get(catProfileId);
+        }
+        if (cached != null) {
+            if (!cached.getOwnerId().equals(currentUser.getId())) {
+                throw new EntityNotFoundException("Cat profile not found or doesn't belong to current user");
+            }
+            return cached;
+        }
+
+        long version = versions.getOrDefault(catProfileId, 0L);
+        CatProfile catProfile = catProfileRepository.findByIdAndUser(catProfileId, currentUser)
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Cat profile not found or doesn't belong to current user"));
+        CatContext context = new CatContext(currentUser.getId(), version, catProfile.getName(),
+                buildChatContext(catProfile), buildMealKitContext(catProfile), buildAnswerContext(catProfile),
+                buildAnswerSignature(catProfile), catProfile.resolveProteinMask(), catProfile.resolveDietaryMask(), catProfile.resolveAllergyMask());
+
+        synchronized (entries) {
+            if (versions.getOrDefault(catProfileId, 0L) == version) {
+                entries.put(catProfileId, context);
+                if (entries.size() > maxEntries) {
+                    Iterator<Long> iterator = entries.keySet().iterator();
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Drop the cached context for a cat. When called inside a transaction the
+     * entry is dropped again after commit, so a read of the old row that
+     * happened before the commit cannot stay cached.
+     */
+    public void invalidate(Long catProfileId) {
+        evict(catProfileId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(catProfileId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long catProfileId) {
+        synchronized (entries) {
+            versions.merge(catProfileId, 1L, Long::sum);
+            entries.remove(catProfileId);
+        }
+    }
+
+    /**
+     * Builds context information from a cat profile to include in chat prompts
+     */
+    private String buildChatContext(CatProfile catProfile) {
+        StringBuilder context = new StringBuilder();
+
+        context.append("Cat Name: ")
+                .append(catProfile.getName() != null ? catProfile.getName() : "Unknown")
+                .append(". ");
+        context.append("Age: ").append(catProfile.getAge() != null ? catProfile.getAge() + " years old"
+                : "Unknown age").append(". ");
+        context.append("Weight: ")
+                .append(catProfile.getWeight() != null ? catProfile.getWeight() + " kg"
+                        : "Unknown weight")
+                .append(". ");
+        context.append("Breed: ")
+                .append(catProfile.getBreed() != null ? catProfile.getBreed() : "Mixed breed")
+                .append(". ");
+
+        appendChatList(context, "Protein Preferences", catProfile.getProteinPreferences());
+        appendChatList(context, "Dietary Requirements", catProfile.getDietaryRequirements());
+        appendChatList(context, "Allergies", catProfile.getAllergies());
+
+        if (catProfile.getNotes() != null && !catProfile.getNotes().trim().isEmpty()) {
+            context.append("Additional Notes: ").append(catProfile.getNotes()).append(". ");
+        }
+
+        return context.toString();
+    }
+
+    /**
+     * What a shared answer may know about a cat: its life stage, dietary
+     * requirements and allergies, and nothing that identifies it or its owner.
+     * Exactly the facts in its answer signature.
+     */
+    private String buildAnswerContext(CatProfile catProfile) {
+        StringBuilder context = new StringBuilder();
+        context.append("Life stage: ").append(lifeStage(catProfile)).append(". ");
+        appendChatList(context, "Dietary Requirements", catProfile.getDietaryRequirements());
+        appendChatList(context, "Allergies", catProfile.getAllergies());
+        return context.toString();
+    }
+
+    /**
+     * Coarse description of a cat for sharing chat answers: life stage plus
+     * dietary requirements and allergies. Cats with the same signature can be
+     * given the same general advice.
+     */
+    private String buildAnswerSignature(CatProfile catProfile) {
+        return lifeStage(catProfile) + ":" + Long.toHexString(catProfile.resolveDietaryMask())
+                + ":" + Long.toHexString(catProfile.resolveAllergyMask());
+    }
+
+    private String lifeStage(CatProfile catProfile) {
+        if (catProfile.getAge() == null) {
+            return "unknown";
+        } else if (catProfile.getAge() < 1) {
+            return "kitten";
+        } else if (catProfile.getAge() >= 11) {
+            return "senior";
+        }
+        return "adult";
+    }
+
+    private void appendChatList(StringBuilder context, String label, List<? extends Enum<?>> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        context.append(label).append(": ");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                context.append(", ");
+            context.append(values.get(i).toString().toLowerCase().replace("_", " "));
+        }
+        context.append(". ");
+    }
+
+    /**
+     * Format cat profile data for the meal kit prompt
+     */
+    private String buildMealKitContext(CatProfile profile) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("Name: ").append(profile.getName()).append("\n");
+
+        if (profile.getBreed() != null) {
+            sb.append("Breed: ").append(profile.getBreed()).append("\n");
+        }
+
+        if (profile.getAge() != null) {
+            sb.append("Age: ").append(profile.getAge()).append(" years\n");
+        }
+
+        if (profile.getWeight() != null) {
+            sb.append("Weight: ").append(profile.getWeight()).append(" kg\n");
+        }
+
+        appendMealKitList(sb, "Protein Preferences", profile.getProteinPreferences());
+        appendMealKitList(sb, "Dietary Requirements", profile.getDietaryRequirements());
+        appendMealKitList(sb, "Allergies", profile.getAllergies());
+
+        if (profile.getNotes() != null && !profile.getNotes().trim().isEmpty()) {
+            sb.append("Notes: ").append(profile.getNotes()).append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    private void appendMealKitList(StringBuilder sb, String label, List<? extends Enum<?>> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        sb.append(label).append(": ");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(values.get(i).toString().replace("_", " "));
+        }
+        sb.append("\n");
+    }
+
+    /**
+     * Precomputed prompt fragments and attribute masks for one version of a
+     * cat profile
+     */
+    public static class CatContext {
+        private final Long ownerId;
+        private final long version;
+        private final String catName;
+        private final String chatContext;
+        private final String mealKitContext;
+        private final String answerContext;
+        private final String answerSignature;
+        private final long proteinMask;
+        private final long dietaryMask;
+        private final long allergyMask;
+
+        public CatContext(Long ownerId, long version, String catName, String chatContext, String mealKitContext,
+                String answerContext, String answerSignature, long proteinMask, long dietaryMask, long allergyMask) {
+            this.ownerId = ownerId;
+            this.version = version;
+            this.catName = catName;
+            this.chatContext = chatContext;
+            this.mealKitContext = mealKitContext;
+            this.answerContext = answerContext;
+            this.answerSignature = answerSignature;
+            this.proteinMask = proteinMask;
+            this.dietaryMask = dietaryMask;
+            this.allergyMask = allergyMask;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getCatName() {
+            return catName;
+        }
+
+        public String getChatContext() {
+            return chatContext;
+        }
+
+        public String getMealKitContext() {
+            return mealKitContext;
+        }
+
+        public String getAnswerContext() {
+            return answerContext;
+        }
+
+        public String getAnswerSignature() {
+            return answerSignature;
+        }
+
+        public long getProteinMask() {
+            return proteinMask;
+        }
+
+        public long getDietaryMask() {
+            return dietaryMask;
+        }
+
+        public long getAllergyMask() {
+            return allergyMask;
+        }
+    }
+}
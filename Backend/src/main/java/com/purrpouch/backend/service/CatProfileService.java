@@ -2,6 +2,7 @@ package com.purrpouch.backend.service;
 
 import com.purrpouch.backend.model.CatProfile;
 import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.response.CatProfileResponse;
 import com.purrpouch.backend.repository.CatProfileRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,6 +24,9 @@ public class CatProfileService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private CatContextCacheService catContextCacheService;
+
     /**
      * Get all active cat profiles for the current user
      */
@@ -30,6 +35,19 @@ public class CatProfileService {
         return catProfileRepository.findByUser(currentUser);
     }
 
+    /**
+     * Get all active cat profiles for the current user as responses.
+     * Mapping happens inside the transaction so the element collections of all
+     * cats are fetched with a constant number of queries.
+     */
+    @Transactional(readOnly = true)
+    public List<CatProfileResponse> getCurrentUserCatProfileResponses() {
+        return getCurrentUserCatProfiles()
+                .stream()
+                .map(CatProfileResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get a specific cat profile by ID for the current user
      */
@@ -87,6 +105,7 @@ public class CatProfileService {
         // Add this line to update the photo URL
         existingProfile.setPhotoUrl(updatedProfile.getPhotoUrl());
 
+        catContextCacheService.invalidate(catProfileId);
         return catProfileRepository.save(existingProfile);
     }
 
@@ -96,6 +115,7 @@ public class CatProfileService {
     public void softDeleteCatProfile(Long catProfileId) {
         CatProfile catProfile = getCatProfileById(catProfileId);
         catProfile.softDelete();
+        catContextCacheService.invalidate(catProfileId);
         catProfileRepository.save(catProfile);
     }
 
@@ -111,6 +131,7 @@ public class CatProfileService {
                 .orElseThrow(() -> new EntityNotFoundException("Cat profile not found"));
 
         catProfile.restore();
+        catContextCacheService.invalidate(catProfileId);
         return catProfileRepository.save(catProfile);
     }
 }
\ No newline at end of file
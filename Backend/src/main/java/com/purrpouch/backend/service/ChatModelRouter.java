@@ -0,0 +1,315 @@
+package com.purrpouch.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes LLM calls to a model tier and keeps them within a latency budget per
+ * endpoint. Short chat turns go to the fast tier, everything else to the
+ * standard one. A call still running after the tier's recent p95 latency is
+ * hedged with a second identical request and the first answer wins. When the
+ * budget runs out a {@link BudgetExceededException} is thrown, so the caller
+ * can answer with its deterministic fallback instead.
+ */
+@Service
+public class ChatModelRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatModelRouter.class);
+
+    // Latencies kept per tier for the hedge delay
+    private static final int LATENCY_WINDOW = 256;
+
+    public enum Endpoint {
+        CHAT, MEAL_KIT, HOUSEHOLD_MEAL_KIT
+    }
+
+    public enum Tier {
+        FAST, STANDARD
+    }
+
+    @Autowired
+    @Qualifier("chatModel")
+    private ChatModel standardModel;
+
+    @Autowired
+    @Qualifier("fastChatModel")
+    private ChatModel fastModel;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.llm.slo.chat-ms:10000}")
+    private long chatBudgetMs;
+
+    @Value("${app.llm.slo.meal-kit-ms:30000}")
+    private long mealKitBudgetMs;
+
+    @Value("${app.llm.slo.household-meal-kit-ms:60000}")
+    private long householdMealKitBudgetMs;
+
+    @Value("${app.llm.fast-tier.enabled:true}")
+    private boolean fastTierEnabled;
+
+    // Chat turns up to this many characters go to the fast tier
+    @Value("${app.llm.fast-tier.max-chars:200}")
+    private int fastTierMaxChars;
+
+    @Value("${app.llm.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    // Calls a tier must have answered before its p95 is trusted for hedging
+    @Value("${app.llm.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${app.llm.hedge.min-delay-ms:500}")
+    private long hedgeMinDelayMs;
+
+    private final Map<Tier, LatencyWindow> latencies = new EnumMap<>(Tier.class);
+
+    private ExecutorService callExecutor;
+
+    @PostConstruct
+    public void init() {
+        for (Tier tier : Tier.values()) {
+            latencies.put(tier, new LatencyWindow());
+        }
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("llm-call-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("llm-call-");
+        // Unbounded: callers are already bounded by the request threads waiting on them
+        callExecutor = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+
+    /**
+     * Call the model for an endpoint, hedging slow calls
+     *
+     * @throws BudgetExceededException when no answer arrived within the
+     *                                 endpoint's budget
+     */
+    public ChatResponse call(Endpoint endpoint, Prompt prompt) {
+        Tier tier = tierFor(endpoint, prompt);
+        ChatModel model = modelFor(tier);
+        long budgetMs = budgetMs(endpoint);
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        long hedgeDelayMs = hedgeDelayMs(tier, budgetMs);
+        long hedgeAt = hedgeDelayMs >= 0 ? started + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs) : Long.MAX_VALUE;
+
+        ExecutorCompletionService<ChatResponse> completion = new ExecutorCompletionService<>(callExecutor);
+        List<Future<ChatResponse>> attempts = new ArrayList<>(2);
+        attempts.add(completion.submit(() -> model.call(prompt)));
+        int failed = 0;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                boolean canHedge = attempts.size() == 1 && failed == 0;
+                long waitUntil = canHedge ? Math.min(deadline, hedgeAt) : deadline;
+                Future<ChatResponse> done = completion.poll(Math.max(waitUntil - now, 0), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (canHedge && System.nanoTime() >= hedgeAt) {
+                        attempts.add(completion.submit(() -> model.call(prompt)));
+                        meterRegistry.counter("purrpouch.llm.hedges", "tier", tier.name()).increment();
+                    }
+                    continue;
+                }
+                try {
+                    ChatResponse response = done.get();
+                    long latencyNanos = System.nanoTime() - started;
+                    latencies.get(tier).add(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+                    timer(tier, endpoint, attempts.size() > 1 ? "hedged" : "success")
+                            .record(latencyNanos, TimeUnit.NANOSECONDS);
+                    return response;
+                } catch (ExecutionException e) {
+                    // The other request of a hedged pair may still answer
+                    if (++failed == attempts.size()) {
+                        timer(tier, endpoint, "error").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        throw e.getCause() instanceof RuntimeException runtime
+                                ? runtime
+                                : new IllegalStateException("LLM call failed", e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the LLM", e);
+        } finally {
+            // Stops the losing or late requests
+            for (Future<ChatResponse> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+
+        timer(tier, endpoint, "budget_exceeded").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        logger.warn("LLM call for {} on the {} tier exceeded its {} ms budget", endpoint, tier, budgetMs);
+        throw new BudgetExceededException(endpoint, budgetMs);
+    }
+
+    /**
+     * Stream from the model for an endpoint. Streams are not hedged; one
+     * still running when the budget runs out, however steadily it emits, is
+     * cancelled and fails with a {@link BudgetExceededException}.
+     */
+    public Flux<ChatResponse> stream(Endpoint endpoint, Prompt prompt) {
+        Tier tier = tierFor(endpoint, prompt);
+        long budgetMs = budgetMs(endpoint);
+        // Called here rather than deferred, so a model that cannot stream fails right away
+        Flux<ChatResponse> responses = modelFor(tier).stream(prompt);
+        return Flux.defer(() -> {
+            long started = System.nanoTime();
+            // One timer for the whole stream; cached so every item waits on the same deadline
+            Mono<Long> deadline = Mono.delay(Duration.ofMillis(budgetMs)).cache();
+            AtomicBoolean exceeded = new AtomicBoolean();
+            return responses.timeout(deadline, response -> deadline, Flux.defer(() -> {
+                        exceeded.set(true);
+                        logger.warn("LLM stream for {} on the {} tier exceeded its {} ms budget", endpoint, tier,
+                                budgetMs);
+                        return Flux.error(new BudgetExceededException(endpoint, budgetMs));
+                    }))
+                    .doFinally(signal -> timer(tier, endpoint, switch (signal) {
+                        case ON_COMPLETE -> "success";
+                        case ON_ERROR -> exceeded.get() ? "budget_exceeded" : "error";
+                        default -> "cancelled";
+                    }).record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Latency budget of an endpoint, for callers that block on a stream
+     */
+    public Duration budget(Endpoint endpoint) {
+        return Duration.ofMillis(budgetMs(endpoint));
+    }
+
+    /**
+     * Short chat turns are answered by the fast tier
+     */
+    Tier tierFor(Endpoint endpoint, Prompt prompt) {
+        if (!fastTierEnabled || endpoint != Endpoint.CHAT) {
+            return Tier.STANDARD;
+        }
+        List<Message> messages = prompt.getInstructions();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage userMessage) {
+                String text = userMessage.getContent();
+                return text != null && text.length() <= fastTierMaxChars ? Tier.FAST : Tier.STANDARD;
+            }
+        }
+        return Tier.STANDARD;
+    }
+
+    /**
+     * Delay before a hedged request: the tier's recent p95, or -1 to not hedge
+     * while there are too few samples or the delay would not fit the budget
+     */
+    long hedgeDelayMs(Tier tier, long budgetMs) {
+        if (!hedgeEnabled) {
+            return -1;
+        }
+        long p95 = latencies.get(tier).percentile(0.95, hedgeMinSamples);
+        if (p95 < 0) {
+            return -1;
+        }
+        long delay = Math.max(p95, hedgeMinDelayMs);
+        return delay < budgetMs ? delay : -1;
+    }
+
+    private ChatModel modelFor(Tier tier) {
+        return tier == Tier.FAST ? fastModel : standardModel;
+    }
+
+    private long budgetMs(Endpoint endpoint) {
+        return switch (endpoint) {
+            case CHAT -> chatBudgetMs;
+            case MEAL_KIT -> mealKitBudgetMs;
+            case HOUSEHOLD_MEAL_KIT -> householdMealKitBudgetMs;
+        };
+    }
+
+    private Timer timer(Tier tier, Endpoint endpoint, String outcome) {
+        return Timer.builder("purrpouch.llm.latency")
+                .description("LLM latency per model tier, including hedging")
+                .tag("tier", tier.name())
+                .tag("endpoint", endpoint.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Thrown when an LLM call does not answer within its endpoint's budget
+     */
+    public static class BudgetExceededException extends RuntimeException {
+        public BudgetExceededException(Endpoint endpoint, long budgetMs) {
+            super("LLM call for " + endpoint + " exceeded its " + budgetMs + " ms budget");
+        }
+    }
+
+    /**
+     * Most recent latencies of a tier, in a ring buffer
+     */
+    private static class LatencyWindow {
+        private final long[] values = new long[LATENCY_WINDOW];
+        private int count;
+        private int next;
+
+        synchronized void add(long latencyMs) {
+            values[next] = latencyMs;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+
+        synchronized long percentile(double quantile, int minSamples) {
+            if (count < Math.max(minSamples, 1)) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+        }
+    }
+}
@@ -2,48 +2,105 @@ package com.purrpouch.backend.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.ai.chat.model.ChatModel;
 // Using fully-qualified Spring AI ChatResponse to avoid import collision with model.ChatResponse
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
 
+import com.purrpouch.backend.dto.AiMealKitDto;
 import com.purrpouch.backend.model.ChatMessage;
 import com.purrpouch.backend.model.ChatResponse;
-import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.service.CatContextCacheService.CatContext;
+import com.purrpouch.backend.service.ConversationMemoryService.ConversationContext;
+import com.purrpouch.backend.service.ConversationMemoryService.Turn;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class ChatService {
 
     @Autowired
-    private ChatModel chatModel;
+    private ChatModelRouter chatModelRouter;
 
     @Autowired
-    private CatProfileService catProfileService;
+    private CatContextCacheService catContextCacheService;
 
     @Autowired
     private AiMealGeneratorService aiMealGeneratorService;
 
+    @Autowired
+    private ConversationMemoryService conversationMemoryService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SemanticAnswerCacheService semanticAnswerCacheService;
+
     public ChatResponse processMessage(ChatMessage chatMessage) {
+        return processMessage(chatMessage, false);
+    }
+
+    /**
+     * Answer a chat message. Opening questions may be answered from the
+     * semantic answer cache; follow-ups always go to the model.
+     *
+     * @param bypassCache Always ask the model; the answer still refreshes the cache
+     */
+    public ChatResponse processMessage(ChatMessage chatMessage, boolean bypassCache) {
         try {
+            Long userId = resolveCurrentUserId();
+            Long catId = parseCatId(chatMessage.getCatId());
+
             // Get cat profile information if catId is provided
             String catContext = "";
+            String answerContext = "";
+            String catName = null;
+            String answerSignature = "none";
             if (chatMessage.getCatId() != null && !chatMessage.getCatId().isEmpty()) {
                 try {
-                    CatProfile catProfile = catProfileService
-                            .getCatProfileById(Long.parseLong(chatMessage.getCatId()));
-                    catContext = buildCatProfileContext(catProfile);
+                    CatContext context = catContextCacheService.getCatContext(Long.parseLong(chatMessage.getCatId()));
+                    catContext = context.getChatContext();
+                    answerContext = context.getAnswerContext();
+                    catName = context.getCatName();
+                    answerSignature = context.getAnswerSignature();
                 } catch (Exception e) {
                     // If profile can't be retrieved, continue without it
                     catContext = "No specific cat profile information available.";
+                    answerContext = catContext;
+                    answerSignature = "unknown";
                 }
             }
 
+            ConversationContext conversation = userId != null
+                    ? conversationMemoryService.getContext(userId, catId)
+                    : new ConversationContext("", new ArrayList<>());
+
+            // Only questions that open a conversation are shared; a follow-up depends on what came before.
+            // An answer that will be shared is generated from the cat's answer signature alone, so it cannot
+            // carry one owner's details (name, notes, weight) to another owner whose cat has the same signature.
+            // Answers that won't be stored get the full profile.
+            SemanticAnswerCacheService.Lookup cached = null;
+            boolean opening = conversation.getSummary().isEmpty() && conversation.getRecentTurns().isEmpty();
+            if (opening) {
+                cached = semanticAnswerCacheService.lookup(chatMessage.getMessage(), answerSignature, bypassCache);
+                if (cached.isHit()) {
+                    if (userId != null) {
+                        conversationMemoryService.recordTurn(userId, catId, chatMessage.getMessage(),
+                                cached.getResponse().getMessage(), 0);
+                    }
+                    return cached.getResponse();
+                }
+            }
+            boolean shared = cached != null && cached.isStorable();
+
             // Create the system message with cat context
             String systemPrompt = "You are a cat nutrition expert assistant for PurrPouch, a cat food delivery service. "
                     +
@@ -52,22 +109,41 @@ public class ChatService {
                     "and dietary information. Keep responses concise and focused on cat nutrition. "
                     +
                     "Here is information about the cat you're providing recommendations for: "
-                    + catContext;
+                    + (shared ? answerContext : catContext);
+
+            // Replay the remembered conversation: rolling summary first, then the recent window
+            if (!conversation.getSummary().isEmpty()) {
+                systemPrompt += "\n\nSummary of the earlier conversation with the owner:\n" + conversation.getSummary();
+            }
 
-            SystemMessage systemMessage = new SystemMessage(systemPrompt);
-            UserMessage userMessage = new UserMessage(chatMessage.getMessage()); // Create prompt with both
-                                                                                 // messages
             List<Message> messages = new ArrayList<>();
-            messages.add(systemMessage);
-            messages.add(userMessage);
-            Prompt prompt = new Prompt(messages); // Get response from ChatGPT using ChatModel
-            org.springframework.ai.chat.model.ChatResponse aiResponse = chatModel.call(prompt);
+            messages.add(new SystemMessage(systemPrompt));
+            for (Turn turn : conversation.getRecentTurns()) {
+                messages.add(new UserMessage(turn.getUserText()));
+                messages.add(new AssistantMessage(turn.getAssistantText()));
+            }
+            messages.add(new UserMessage(chatMessage.getMessage()));
+            Prompt prompt = new Prompt(messages); // Get response from ChatGPT, on the tier this turn is routed to
+            long started = System.nanoTime();
+            org.springframework.ai.chat.model.ChatResponse aiResponse = chatModelRouter
+                    .call(ChatModelRouter.Endpoint.CHAT, prompt);
             String responseText = aiResponse.getResult().getOutput().getContent();
+            long latencyNanos = System.nanoTime() - started;
+
+            if (userId != null) {
+                conversationMemoryService.recordTurn(userId, catId, chatMessage.getMessage(), responseText,
+                        promptChars(messages));
+            }
 
             // Extract product recommendations from the response
             List<String> recommendations = extractRecommendations(responseText);
 
-            return new ChatResponse(responseText, recommendations, true);
+            ChatResponse response = new ChatResponse(responseText, recommendations, true);
+            // An answer that calls the cat by name would read wrong for another cat
+            if (shared && !mentionsName(responseText, catName)) {
+                semanticAnswerCacheService.store(cached, response, latencyNanos);
+            }
+            return response;
 
         } catch (Exception e) {
             // Fallback to a simple response in case of API failure
@@ -79,74 +155,56 @@ public class ChatService {
     }
 
     /**
-     * Builds context information from a cat profile to include in the AI prompt
+     * Get prompt size statistics for the current user's conversation about a cat
      */
-    private String buildCatProfileContext(CatProfile catProfile) {
-        StringBuilder context = new StringBuilder();
-
-        if (catProfile != null) {
-            context.append("Cat Name: ")
-                    .append(catProfile.getName() != null ? catProfile.getName() : "Unknown")
-                    .append(". ");
-            context.append("Age: ").append(catProfile.getAge() != null ? catProfile.getAge() + " years old"
-                    : "Unknown age").append(". ");
-            context.append("Weight: ")
-                    .append(catProfile.getWeight() != null ? catProfile.getWeight() + " kg"
-                            : "Unknown weight")
-                    .append(". ");
-            context.append("Breed: ")
-                    .append(catProfile.getBreed() != null ? catProfile.getBreed() : "Mixed breed")
-                    .append(". ");
-
-            if (catProfile.getProteinPreferences() != null
-                    && !catProfile.getProteinPreferences().isEmpty()) {
-                context.append("Protein Preferences: ");
-                for (int i = 0; i < catProfile.getProteinPreferences().size(); i++) {
-                    if (i > 0)
-                        context.append(", ");
-                    context.append(catProfile.getProteinPreferences().get(i).toString()
-                            .toLowerCase().replace("_", " "));
-                }
-                context.append(". ");
-            }
+    public Map<String, Object> getConversationStats(String catId) {
+        return conversationMemoryService.getStats(authService.getCurrentUser().getId(), parseCatId(catId));
+    }
 
-            if (catProfile.getDietaryRequirements() != null
-                    && !catProfile.getDietaryRequirements().isEmpty()) {
-                context.append("Dietary Requirements: ");
-                for (int i = 0; i < catProfile.getDietaryRequirements().size(); i++) {
-                    if (i > 0)
-                        context.append(", ");
-                    context.append(catProfile.getDietaryRequirements().get(i).toString()
-                            .toLowerCase().replace("_", " "));
-                }
-                context.append(". ");
-            }
+    /**
+     * Forget the current user's conversation about a cat
+     */
+    public void clearConversation(String catId) {
+        conversationMemoryService.clear(authService.getCurrentUser().getId(), parseCatId(catId));
+    }
 
-            if (catProfile.getAllergies() != null && !catProfile.getAllergies().isEmpty()) {
-                context.append("Allergies: ");
-                for (int i = 0; i < catProfile.getAllergies().size(); i++) {
-                    if (i > 0)
-                        context.append(", ");
-                    context.append(catProfile.getAllergies().get(i).toString().toLowerCase()
-                            .replace("_", " "));
-                }
-                context.append(". ");
-            }
+    private Long resolveCurrentUserId() {
+        try {
+            return authService.getCurrentUser().getId();
+        } catch (IllegalStateException e) {
+            // Anonymous chats are answered without memory
+            return null;
+        }
+    }
 
-            if (catProfile.getNotes() != null && !catProfile.getNotes().trim().isEmpty()) {
-                context.append("Additional Notes: ").append(catProfile.getNotes()).append(". ");
-            }
-        } else {
-            context.append("No specific cat profile information available.");
+    private Long parseCatId(String catId) {
+        if (catId == null || catId.isEmpty()) {
+            return null;
         }
+        try {
+            return Long.parseLong(catId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean mentionsName(String text, String name) {
+        return name != null && !name.isBlank()
+                && text.toLowerCase(Locale.ROOT).contains(name.trim().toLowerCase(Locale.ROOT));
+    }
 
-        return context.toString();
+    private int promptChars(List<Message> messages) {
+        int chars = 0;
+        for (Message message : messages) {
+            chars += message.getContent() != null ? message.getContent().length() : 0;
+        }
+        return chars;
     }
 
     /**
      * Extracts product recommendations from the AI response text
      */
-    private List<String> extractRecommendations(String responseText) {
+    List<String> extractRecommendations(String responseText) {
         List<String> recommendations = new ArrayList<>();
 
         if (responseText == null || responseText.trim().isEmpty()) {
@@ -227,15 +285,37 @@ public class ChatService {
     }
 
     /**
-     * Generate an AI meal kit based on chat history and cat profile
+     * Generate an AI meal kit based on chat history and cat profile.
+     * When the client sends no history, the remembered conversation is used.
      */
-    public com.purrpouch.backend.dto.AiMealKitDto generateAiMealKit(String catId, List<String> chatHistory) {
+    public AiMealKitDto generateAiMealKit(String catId, List<String> chatHistory) {
         try {
             Long catProfileId = Long.parseLong(catId);
+            if (chatHistory == null || chatHistory.isEmpty()) {
+                Long userId = resolveCurrentUserId();
+                if (userId != null) {
+                    chatHistory = conversationMemoryService.getRecentUserMessages(userId, catProfileId);
+                }
+            }
             return aiMealGeneratorService.generateMealKit(catProfileId, chatHistory);
         } catch (Exception e) {
             // If there's an error, return null
             return null;
         }
     }
+
+    /**
+     * Generate AI meal kits for several cats of the current user in one AI
+     * call, each with its remembered conversation
+     */
+    public List<AiMealKitDto> generateHouseholdMealKits(List<Long> catProfileIds) {
+        Long userId = resolveCurrentUserId();
+        Map<Long, List<String>> chatHistoryByCat = new LinkedHashMap<>();
+        for (Long catProfileId : catProfileIds) {
+            chatHistoryByCat.put(catProfileId, userId != null
+                    ? conversationMemoryService.getRecentUserMessages(userId, catProfileId)
+                    : List.of());
+        }
+        return aiMealGeneratorService.generateHouseholdMealKits(chatHistoryByCat);
+    }
 }
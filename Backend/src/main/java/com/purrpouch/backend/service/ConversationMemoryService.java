@@ -0,0 +1,242 @@
+package com.purrpouch.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side chat memory keyed by user and cat.
+ * Each conversation keeps a sliding window of recent turns plus a rolling
+ * summary of older ones, so the prompt sent per turn stays bounded no matter
+ * how long the chat runs.
+ */
+@Service
+public class ConversationMemoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationMemoryService.class);
+
+    @Value("${app.chat.memory.window-turns:6}")
+    private int windowTurns;
+
+    @Value("${app.chat.memory.max-message-chars:800}")
+    private int maxMessageChars;
+
+    @Value("${app.chat.memory.summary-max-chars:1200}")
+    private int summaryMaxChars;
+
+    @Value("${app.chat.memory.max-conversations:10000}")
+    private int maxConversations;
+
+    @Value("${app.chat.memory.idle-ttl-minutes:120}")
+    private long idleTtlMinutes;
+
+    // Access-ordered so the least recently used conversation is evicted first
+    private final LinkedHashMap<String, Conversation> conversations = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Get the summary and recent turns to include in the next prompt
+     */
+    public ConversationContext getContext(Long userId, Long catId) {
+        Conversation conversation = find(userId, catId);
+        if (conversation == null) {
+            return new ConversationContext("", new ArrayList<>());
+        }
+        synchronized (conversation) {
+            return new ConversationContext(conversation.summary.toString(), new ArrayList<>(conversation.window));
+        }
+    }
+
+    /**
+     * Record a completed exchange and the size of the prompt that produced it
+     */
+    public void recordTurn(Long userId, Long catId, String userText, String assistantText, int promptChars) {
+        Conversation conversation = findOrCreate(userId, catId);
+        synchronized (conversation) {
+            conversation.window.addLast(new Turn(truncate(userText), truncate(assistantText)));
+            while (conversation.window.size() > windowTurns) {
+                foldIntoSummary(conversation, conversation.window.removeFirst());
+            }
+            conversation.turns++;
+            conversation.lastPromptChars = promptChars;
+            conversation.maxPromptChars = Math.max(conversation.maxPromptChars, promptChars);
+            conversation.totalPromptChars += promptChars;
+            conversation.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Get the owner's messages that are still in the window, oldest first
+     */
+    public List<String> getRecentUserMessages(Long userId, Long catId) {
+        List<String> messages = new ArrayList<>();
+        for (Turn turn : getContext(userId, catId).getRecentTurns()) {
+            messages.add(turn.getUserText());
+        }
+        return messages;
+    }
+
+    /**
+     * Forget a conversation
+     */
+    public void clear(Long userId, Long catId) {
+        synchronized (conversations) {
+            conversations.remove(key(userId, catId));
+        }
+    }
+
+    /**
+     * Get prompt size statistics for a conversation
+     */
+    public Map<String, Object> getStats(Long userId, Long catId) {
+        Map<String, Object> stats = new HashMap<>();
+        Conversation conversation = find(userId, catId);
+        if (conversation == null) {
+            stats.put("turns", 0);
+            return stats;
+        }
+        synchronized (conversation) {
+            stats.put("turns", conversation.turns);
+            stats.put("windowTurns", conversation.window.size());
+            stats.put("summaryChars", conversation.summary.length());
+            stats.put("lastPromptChars", conversation.lastPromptChars);
+            stats.put("maxPromptChars", conversation.maxPromptChars);
+            stats.put("avgPromptChars", conversation.turns > 0 ? conversation.totalPromptChars / conversation.turns : 0);
+        }
+        return stats;
+    }
+
+    public int getConversationCount() {
+        synchronized (conversations) {
+            return conversations.size();
+        }
+    }
+
+    /**
+     * Drop conversations that have been idle for longer than the TTL
+     */
+    @Scheduled(fixedDelayString = "${app.chat.memory.sweep-interval-ms:60000}")
+    public void evictIdleConversations() {
+        long cutoff = System.currentTimeMillis() - idleTtlMinutes * 60_000L;
+        int evicted = 0;
+        synchronized (conversations) {
+            Iterator<Conversation> iterator = conversations.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().lastAccess < cutoff) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle chat conversations", evicted);
+        }
+    }
+
+    private Conversation find(Long userId, Long catId) {
+        synchronized (conversations) {
+            return conversations.get(key(userId, catId));
+        }
+    }
+
+    private Conversation findOrCreate(Long userId, Long catId) {
+        synchronized (conversations) {
+            Conversation conversation = conversations.computeIfAbsent(key(userId, catId), k -> new Conversation());
+            if (conversations.size() > maxConversations) {
+                // Evict the least recently used conversation to keep memory bounded
+                Iterator<String> iterator = conversations.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+            return conversation;
+        }
+    }
+
+    /**
+     * Fold an evicted turn into the rolling summary, dropping the oldest
+     * summary text once the summary exceeds its budget
+     */
+    private void foldIntoSummary(Conversation conversation, Turn turn) {
+        StringBuilder summary = conversation.summary;
+        summary.append("Owner asked: ").append(abbreviate(turn.getUserText(), 160))
+                .append(" Assistant advised: ").append(abbreviate(turn.getAssistantText(), 200))
+                .append("\n");
+
+        if (summary.length() > summaryMaxChars) {
+            int cut = summary.indexOf("\n", summary.length() - summaryMaxChars);
+            summary.delete(0, cut >= 0 ? cut + 1 : summary.length() - summaryMaxChars);
+        }
+    }
+
+    private String truncate(String text) {
+        return abbreviate(text, maxMessageChars);
+    }
+
+    private static String abbreviate(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        String cleaned = text.trim();
+        return cleaned.length() <= maxChars ? cleaned : cleaned.substring(0, maxChars) + "...";
+    }
+
+    private static String key(Long userId, Long catId) {
+        return userId + ":" + (catId != null ? catId : "general");
+    }
+
+    private static class Conversation {
+        private final Deque<Turn> window = new ArrayDeque<>();
+        private final StringBuilder summary = new StringBuilder();
+        private long turns;
+        private int lastPromptChars;
+        private int maxPromptChars;
+        private long totalPromptChars;
+        private long lastAccess = System.currentTimeMillis();
+    }
+
+    public static class Turn {
+        private final String userText;
+        private final String assistantText;
+
+        public Turn(String userText, String assistantText) {
+            this.userText = userText;
+            this.assistantText = assistantText;
+        }
+
+        public String getUserText() {
+            return userText;
+        }
+
+        public String getAssistantText() {
+            return assistantText;
+        }
+    }
+
+    public static class ConversationContext {
+        private final String summary;
+        private final List<Turn> recentTurns;
+
+        public ConversationContext(String summary, List<Turn> recentTurns) {
+            this.summary = summary;
+            this.recentTurns = recentTurns;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public List<Turn> getRecentTurns() {
+            return recentTurns;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.Delivery;
+import com.purrpouch.backend.payload.response.DeliveryRouteResponse;
+import com.purrpouch.backend.repository.DeliveryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batches a day's pending deliveries into driver routes
+ */
+@Service
+public class DeliveryBatchingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryBatchingService.class);
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Value("${app.delivery.routing.cell-km:1.5}")
+    private double cellKm;
+
+    @Value("${app.delivery.routing.max-stops:30}")
+    private int maxStops;
+
+    // Farther than this from the previous stop starts a new route
+    @Value("${app.delivery.routing.max-hop-km:5}")
+    private double maxHopKm;
+
+    @Value("${app.delivery.routing.depot-latitude:10.7769}")
+    private double depotLatitude;
+
+    @Value("${app.delivery.routing.depot-longitude:106.7009}")
+    private double depotLongitude;
+
+    /**
+     * Plan routes for the PENDING deliveries scheduled on a date
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> planRoutes(LocalDate date) {
+        long start = System.currentTimeMillis();
+        List<DeliveryRouteResponse.Stop> stops = deliveryRepository.findStopsByStatusAndScheduledTimeBetween(
+                Delivery.DeliveryStatus.PENDING, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .map(stop -> new DeliveryRouteResponse.Stop(stop.getDeliveryId(), stop.getOrderId(),
+                        stop.getScheduledTime(), stop.getLatitude(), stop.getLongitude(), stop.getDistrict(),
+                        stop.getWard(), stop.getStreetAddress()))
+                .toList();
+        long loaded = System.currentTimeMillis();
+
+        List<DeliveryRouteResponse> routes = new DeliveryRoutePlanner(cellKm, maxStops, maxHopKm, depotLatitude,
+                depotLongitude).plan(stops);
+        long planned = System.currentTimeMillis();
+        logger.info("Planned {} routes for {} deliveries on {} (load {} ms, plan {} ms)", routes.size(),
+                stops.size(), date, loaded - start, planned - loaded);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("date", date);
+        result.put("deliveries", stops.size());
+        result.put("routeCount", routes.size());
+        result.put("planningMillis", planned - loaded);
+        result.put("routes", routes);
+        return result;
+    }
+}
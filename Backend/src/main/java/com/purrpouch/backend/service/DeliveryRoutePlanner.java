@@ -0,0 +1,185 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.payload.response.DeliveryRouteResponse;
+import com.purrpouch.backend.payload.response.DeliveryRouteResponse.Stop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Groups delivery stops into routes. Geocoded stops go into a uniform grid
+ * and routes are grown by nearest neighbour from the stop farthest from the
+ * depot; stops without coordinates are grouped by district and ward.
+ */
+public class DeliveryRoutePlanner {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellKm;
+    private final int maxStops;
+    private final double maxHopKm;
+    private final double depotLatitude;
+    private final double depotLongitude;
+    private final double kmPerLongitudeDegree;
+
+    public DeliveryRoutePlanner(double cellKm, int maxStops, double maxHopKm, double depotLatitude,
+            double depotLongitude) {
+        if (cellKm <= 0 || maxStops <= 0 || maxHopKm <= 0) {
+            throw new IllegalArgumentException("Cell size, route size and hop distance must be positive");
+        }
+        this.cellKm = cellKm;
+        this.maxStops = maxStops;
+        this.maxHopKm = maxHopKm;
+        this.depotLatitude = depotLatitude;
+        this.depotLongitude = depotLongitude;
+        // Equirectangular projection around the depot; accurate enough within a city
+        this.kmPerLongitudeDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(depotLatitude));
+    }
+
+    public List<DeliveryRouteResponse> plan(List<Stop> stops) {
+        List<Stop> geocoded = new ArrayList<>();
+        List<Stop> ungeocoded = new ArrayList<>();
+        for (Stop stop : stops) {
+            if (stop.getLatitude() != null && stop.getLongitude() != null) {
+                geocoded.add(stop);
+            } else {
+                ungeocoded.add(stop);
+            }
+        }
+
+        List<DeliveryRouteResponse> routes = new ArrayList<>();
+        planGeocoded(geocoded, routes);
+        planByArea(ungeocoded, routes);
+        return routes;
+    }
+
+    private void planGeocoded(List<Stop> stops, List<DeliveryRouteResponse> routes) {
+        int n = stops.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        Map<Long, List<Integer>> grid = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            x[i] = (stops.get(i).getLongitude() - depotLongitude) * kmPerLongitudeDegree;
+            y[i] = (stops.get(i).getLatitude() - depotLatitude) * KM_PER_DEGREE;
+            grid.computeIfAbsent(cellKey(cell(x[i]), cell(y[i])), key -> new ArrayList<>()).add(i);
+        }
+
+        // Seeding from the outside in keeps the last routes close to the depot
+        Integer[] seeds = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            seeds[i] = i;
+        }
+        Arrays.sort(seeds, Comparator.comparingDouble(i -> -(x[i] * x[i] + y[i] * y[i])));
+
+        boolean[] assigned = new boolean[n];
+        int maxRing = (int) Math.ceil(maxHopKm / cellKm);
+        for (int seed : seeds) {
+            if (assigned[seed]) {
+                continue;
+            }
+            List<Stop> route = new ArrayList<>();
+            double distance = 0;
+            int current = seed;
+            take(grid, x, y, current, assigned);
+            route.add(stops.get(current));
+
+            while (route.size() < maxStops) {
+                int next = nearest(grid, x, y, current, maxRing);
+                if (next < 0) {
+                    break;
+                }
+                distance += Math.hypot(x[next] - x[current], y[next] - y[current]);
+                take(grid, x, y, next, assigned);
+                route.add(stops.get(next));
+                current = next;
+            }
+            routes.add(new DeliveryRouteResponse(routes.size() + 1,
+                    "grid " + cell(x[seed]) + "," + cell(y[seed]), true,
+                    Math.round(distance * 10) / 10.0, route));
+        }
+    }
+
+    // Closest remaining stop within the hop limit, searching rings of cells outward
+    private int nearest(Map<Long, List<Integer>> grid, double[] x, double[] y, int from, int maxRing) {
+        int cx = cell(x[from]);
+        int cy = cell(y[from]);
+        int best = -1;
+        double bestDistance = maxHopKm;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dy = -ring; dy <= ring; dy++) {
+                    if (Math.abs(dx) != ring && Math.abs(dy) != ring) {
+                        continue;
+                    }
+                    List<Integer> cell = grid.get(cellKey(cx + dx, cy + dy));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int candidate : cell) {
+                        double distance = Math.hypot(x[candidate] - x[from], y[candidate] - y[from]);
+                        if (distance <= bestDistance) {
+                            bestDistance = distance;
+                            best = candidate;
+                        }
+                    }
+                }
+            }
+            // Every cell in the next ring is at least ring * cellKm away
+            if (best >= 0 && bestDistance <= ring * cellKm) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private void take(Map<Long, List<Integer>> grid, double[] x, double[] y, int index, boolean[] assigned) {
+        assigned[index] = true;
+        List<Integer> cell = grid.get(cellKey(cell(x[index]), cell(y[index])));
+        int position = cell.indexOf(index);
+        cell.set(position, cell.get(cell.size() - 1));
+        cell.remove(cell.size() - 1);
+    }
+
+    private void planByArea(List<Stop> stops, List<DeliveryRouteResponse> routes) {
+        Map<String, List<Stop>> byArea = new TreeMap<>();
+        for (Stop stop : stops) {
+            byArea.computeIfAbsent(areaKey(stop), key -> new ArrayList<>()).add(stop);
+        }
+        for (Map.Entry<String, List<Stop>> area : byArea.entrySet()) {
+            List<Stop> areaStops = area.getValue();
+            areaStops.sort(Comparator.comparing(Stop::getStreetAddress,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            for (int from = 0; from < areaStops.size(); from += maxStops) {
+                List<Stop> route = new ArrayList<>(areaStops.subList(from, Math.min(from + maxStops, areaStops.size())));
+                routes.add(new DeliveryRouteResponse(routes.size() + 1, area.getKey(), false, 0, route));
+            }
+        }
+    }
+
+    private static String areaKey(Stop stop) {
+        String district = normalize(stop.getDistrict());
+        String ward = normalize(stop.getWard());
+        if (district.isEmpty()) {
+            return "unknown area";
+        }
+        return ward.isEmpty() ? district : district + " / " + ward;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int cell(double km) {
+        return (int) Math.floor(km / cellKm);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
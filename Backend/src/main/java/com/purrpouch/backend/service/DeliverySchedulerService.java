@@ -0,0 +1,263 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent;
+import com.purrpouch.backend.model.Delivery;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.repository.DeliveryRepository;
+import com.purrpouch.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates deliveries for paid orders and keeps recurring orders scheduled a
+ * horizon ahead. Every paid order gets one delivery; each later period of a
+ * recurring order becomes its own order instance, paid and delivered on its
+ * own. Driven by PAID order events from the outbox and by periodic sweeps, so
+ * the order write path never touches the deliveries table.
+ */
+@Service
+public class DeliverySchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySchedulerService.class);
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Slot time for orders without a preferred delivery time
+    @Value("${app.delivery.default-slot-hour:9}")
+    private int defaultSlotHour;
+
+    // Minimum notice between scheduling and the first slot
+    @Value("${app.delivery.min-lead-hours:12}")
+    private long minLeadHours;
+
+    @Value("${app.delivery.recurring-horizon-days:14}")
+    private long recurringHorizonDays;
+
+    @Value("${app.delivery.overdue-grace-minutes:120}")
+    private long overdueGraceMinutes;
+
+    @Value("${app.delivery.sweep-chunk-size:500}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Schedule deliveries once an order is paid. Runs in the outbox dispatch
+     * transaction and is safe to repeat.
+     */
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getEventType() == OrderEvent.OrderEventType.PAID) {
+            scheduleOrders(List.of(event.getOrder()), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Create the order instances of paid recurring orders for every period up
+     * to the horizon. Due orders are looked up a chunk at a time and extended
+     * one per transaction, so an order that cannot be repriced does not hold
+     * back the others.
+     *
+     * @return number of order instances created
+     */
+    @Scheduled(cron = "${app.delivery.recurring-cron:0 0 * * * *}")
+    public int extendRecurringSchedules() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizonEnd = now.plusDays(recurringHorizonDays);
+        long afterId = 0;
+        int created = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> orderIds = transactionTemplate.execute(status -> orderRepository
+                    .findRecurringDueBefore(Order.OrderStatus.PAID, horizonEnd, cursor, PageRequest.of(0, chunkSize))
+                    .stream().map(Order::getId).toList());
+            for (Long orderId : orderIds) {
+                try {
+                    created += transactionTemplate.execute(status -> extendRecurringOrder(orderId, now, horizonEnd));
+                } catch (RuntimeException e) {
+                    logger.warn("Could not extend recurring order {}: {}", orderId, e.getMessage());
+                }
+            }
+            if (orderIds.size() < chunkSize) {
+                break;
+            }
+            afterId = orderIds.get(orderIds.size() - 1);
+        }
+        if (created > 0) {
+            logger.info("Created {} recurring order instances up to {}", created, horizonEnd);
+        }
+        return created;
+    }
+
+    /**
+     * Flag PENDING deliveries that are past their slot plus the grace period
+     * as overdue, oldest first in chunks. They stay PENDING: a courier may
+     * still deliver them, and an admin decides whether they failed.
+     *
+     * @return number of deliveries flagged
+     */
+    @Scheduled(fixedDelayString = "${app.delivery.overdue-sweep-interval-ms:600000}")
+    public int sweepOverdueDeliveries() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(overdueGraceMinutes);
+        int swept = 0;
+        while (true) {
+            // Flagged rows drop out of the query, so each chunk starts from the first page
+            Integer marked = transactionTemplate.execute(status -> {
+                List<Long> ids = deliveryRepository.findUnflaggedIdsByStatusAndScheduledTimeBefore(
+                        Delivery.DeliveryStatus.PENDING, cutoff, PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? 0 : deliveryRepository.markOverdueByIdIn(ids, now);
+            });
+            swept += marked;
+            if (marked < chunkSize) {
+                break;
+            }
+        }
+        if (swept > 0) {
+            logger.warn("Flagged {} deliveries scheduled before {} as overdue for review", swept, cutoff);
+        }
+        return swept;
+    }
+
+    /**
+     * Create the missing deliveries of a batch of paid orders with one lookup
+     * and one bulk insert. An order gets a single delivery, however often it
+     * is paid; a recurring order's next delivery date moves past it.
+     */
+    private int scheduleOrders(List<Order> orders, LocalDateTime now) {
+        Set<Long> scheduled = new HashSet<>();
+        for (DeliveryRepository.DeliverySlot slot : deliveryRepository.findSlotsByOrderIdIn(
+                orders.stream().map(Order::getId).toList())) {
+            scheduled.add(slot.getOrderId());
+        }
+
+        List<Delivery> deliveries = new ArrayList<>();
+        List<Order> advanced = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getDeliveryAddress() == null) {
+                logger.warn("Order {} has no delivery address, skipping delivery scheduling", order.getId());
+                continue;
+            }
+            if (scheduled.contains(order.getId())) {
+                continue;
+            }
+
+            LocalDateTime slot = firstSlot(order, now);
+            deliveries.add(newDelivery(order, slot));
+            if (isRecurring(order)) {
+                order.setNextDeliveryDate(order.getRecurringFrequency().advance(slot));
+                advanced.add(order);
+            }
+        }
+
+        deliveryRepository.saveAll(deliveries);
+        orderRepository.saveAll(advanced);
+        return deliveries.size();
+    }
+
+    /**
+     * Create an order instance for each period of a recurring order from its
+     * next delivery date up to the horizon, and move the next delivery date
+     * past them
+     */
+    private int extendRecurringOrder(Long orderId, LocalDateTime now, LocalDateTime horizonEnd) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || order.getStatus() != Order.OrderStatus.PAID || !isRecurring(order)
+                || order.getNextDeliveryDate() == null || !order.getNextDeliveryDate().isBefore(horizonEnd)) {
+            return 0;
+        }
+        // The order's own period, in case its PAID event has not been relayed yet
+        scheduleOrders(List.of(order), now);
+        if (order.getDeliveryAddress() == null || !order.getNextDeliveryDate().isBefore(horizonEnd)) {
+            return 0;
+        }
+        List<LocalDateTime> slots = computeSlots(order, now, horizonEnd);
+        for (LocalDateTime slot : slots) {
+            orderService.createRecurringOrderInstance(order, slot);
+        }
+        order.setNextDeliveryDate(order.getRecurringFrequency().advance(slots.get(slots.size() - 1)));
+        orderRepository.save(order);
+        return slots.size();
+    }
+
+    private LocalDateTime firstSlot(Order order, LocalDateTime now) {
+        return computeSlots(order, now, now).get(0);
+    }
+
+    private static boolean isRecurring(Order order) {
+        return order.isRecurring() && order.getRecurringFrequency() != null;
+    }
+
+    /**
+     * Delivery slots for an order: the next delivery date (or tomorrow) at the
+     * preferred time, moved past the lead time; recurring orders repeat by their
+     * frequency up to the horizon
+     */
+    List<LocalDateTime> computeSlots(Order order, LocalDateTime now, LocalDateTime horizonEnd) {
+        LocalTime time = order.getPreferredDeliveryTime() != null
+                ? order.getPreferredDeliveryTime()
+                : LocalTime.of(defaultSlotHour, 0);
+        LocalDateTime from = order.getNextDeliveryDate() != null ? order.getNextDeliveryDate() : now.plusDays(1);
+        LocalDateTime slot = LocalDateTime.of(from.toLocalDate(), time);
+        LocalDateTime earliest = now.plusHours(minLeadHours);
+
+        Order.RecurringFrequency frequency = order.isRecurring() ? order.getRecurringFrequency() : null;
+        if (frequency == null) {
+            while (slot.isBefore(earliest)) {
+                slot = slot.plusDays(1);
+            }
+            return List.of(slot);
+        }
+
+        // Periods missed while the order was unpaid are skipped rather than delivered late
+        while (slot.isBefore(earliest)) {
+            slot = frequency.advance(slot);
+        }
+        List<LocalDateTime> slots = new ArrayList<>();
+        do {
+            slots.add(slot);
+            slot = frequency.advance(slot);
+        } while (slot.isBefore(horizonEnd));
+        return slots;
+    }
+
+    private Delivery newDelivery(Order order, LocalDateTime slot) {
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setScheduledTime(slot);
+        delivery.setStatus(Delivery.DeliveryStatus.PENDING);
+        delivery.setDeliveryAddress(order.getDeliveryAddress().toAddress());
+        return delivery;
+    }
+}
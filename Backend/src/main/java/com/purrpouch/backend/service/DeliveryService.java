@@ -1,18 +1,19 @@
 package com.purrpouch.backend.service;
 
-import com.purrpouch.backend.event.OrderEvent;
 import com.purrpouch.backend.model.Delivery;
 import com.purrpouch.backend.model.Order;
 import com.purrpouch.backend.model.UserAddress;
+import com.purrpouch.backend.payload.response.CursorPageResponse;
 import com.purrpouch.backend.repository.DeliveryRepository;
+import com.purrpouch.backend.repository.DeliveryRepository.DeliverySummary;
 import com.purrpouch.backend.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.event.EventListener;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,6 +25,9 @@ public class DeliveryService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Value("${app.delivery.max-page-size:100}")
+    private int maxPageSize;
+
     /**
      * Schedule a delivery for an order
      */
@@ -56,10 +60,16 @@ public class DeliveryService {
     }
 
     /**
-     * Get all deliveries for a user
+     * Get a page of a user's deliveries, newest first
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
      */
-    public List<Delivery> getUserDeliveries(Long userId) {
-        return deliveryRepository.findByOrderUserId(userId);
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DeliverySummary> getUserDeliveries(Long userId, Delivery.DeliveryStatus status,
+            Long cursor, int size) {
+        int limit = clampPageSize(size);
+        return CursorPageResponse.of(deliveryRepository.findSummariesByUserId(userId, status, cursor,
+                PageRequest.of(0, limit + 1)), limit, DeliverySummary::getId);
     }
 
     /**
@@ -72,91 +82,18 @@ public class DeliveryService {
     }
 
     /**
-     * Scheduled task to generate recurring orders
-     * Runs daily at midnight
+     * Admin method: Get a page of deliveries for admin panel, newest first,
+     * optionally filtered by status and scheduled date range (inclusive)
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
      */
-    /*
-     * Temporarily commented out to resolve circular dependency
-     * 
-     * @Scheduled(cron = "0 0 0 * * ?")
-     * 
-     * @Transactional
-     * public void processRecurringOrders() {
-     * LocalDateTime now = LocalDateTime.now();
-     * LocalDateTime tomorrow = now.plusDays(1);
-     * 
-     * // Get all orders that need to be processed for tomorrow
-     * List<Order> ordersToProcess =
-     * orderService.getRecurringOrdersDueForProcessing(tomorrow);
-     * 
-     * for (Order order : ordersToProcess) {
-     * // Create new instance of the recurring order
-     * Order newOrder = orderService.createRecurringOrderInstance(order);
-     * 
-     * // Schedule delivery for the new order
-     * LocalDateTime deliveryTime = tomorrow.with(order.getPreferredDeliveryTime());
-     * scheduleDelivery(newOrder, deliveryTime,
-     * orderService.getDeliveryAddress(order.getId()));
-     * 
-     * // Update next delivery date on parent order
-     * orderService.updateNextDeliveryDate(order);
-     * }
-     * }
-     */ @EventListener
-    public void handleOrderEvent(OrderEvent event) {
-        if (event.getEventType() == OrderEvent.OrderEventType.CREATED) {
-            Order order = event.getOrder();
-            // If the order has delivery time info, schedule a delivery
-            if (order.getPreferredDeliveryTime() != null && order.getDeliveryAddress() != null) {
-                // Schedule delivery with the order's delivery address
-                UserAddress userAddress = order.getDeliveryAddress();
-
-                // Schedule delivery for the next day if nextDeliveryDate is not set
-                LocalDateTime deliveryTime;
-                if (order.getNextDeliveryDate() != null) {
-                    // Combine the date from nextDeliveryDate with the time from
-                    // preferredDeliveryTime
-                    deliveryTime = LocalDateTime.of(
-                            order.getNextDeliveryDate().toLocalDate(),
-                            order.getPreferredDeliveryTime());
-                } else {
-                    // Use tomorrow with the preferred time
-                    deliveryTime = LocalDateTime.now().plusDays(1)
-                            .withHour(order.getPreferredDeliveryTime().getHour())
-                            .withMinute(order.getPreferredDeliveryTime().getMinute())
-                            .withSecond(0)
-                            .withNano(0);
-                }
-
-                scheduleDelivery(order, deliveryTime, userAddress);
-            }
-        }
-    }
-
-    /**
-     * Admin method: Get all deliveries for admin panel
-     */
-    public List<Delivery> getAllDeliveriesForAdmin() {
-        return deliveryRepository.findAll();
-    }
-
-    /**
-     * Admin method: Get all deliveries for admin panel with pagination and
-     * filtering
-     */
-    public Page<Delivery> getAllDeliveriesForAdmin(Pageable pageable, String status) {
-        if (status != null && !status.isEmpty()) {
-            try {
-                // Just validate the status is valid, but use basic pagination for now
-                Delivery.DeliveryStatus.valueOf(status);
-                // Using basic pagination for now, can add dedicated repository method later
-                return deliveryRepository.findAll(pageable);
-            } catch (IllegalArgumentException e) {
-                // Invalid status, return all deliveries
-                return deliveryRepository.findAll(pageable);
-            }
-        }
-        return deliveryRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DeliverySummary> getAllDeliveriesForAdmin(Delivery.DeliveryStatus status,
+            LocalDate from, LocalDate to, Long cursor, int size) {
+        int limit = clampPageSize(size);
+        return CursorPageResponse.of(deliveryRepository.findSummaries(status,
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null,
+                cursor, PageRequest.of(0, limit + 1)), limit, DeliverySummary::getId);
     }
 
     /**
@@ -180,9 +117,7 @@ public class DeliveryService {
      * Admin method: Get deliveries by status for admin panel
      */
     public List<Delivery> getDeliveriesByStatusForAdmin(Delivery.DeliveryStatus status) {
-        return deliveryRepository.findAll().stream()
-                .filter(delivery -> delivery.getStatus().equals(status))
-                .toList();
+        return deliveryRepository.findByStatus(status);
     }
 
     /**
@@ -193,4 +128,8 @@ public class DeliveryService {
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         return deliveryRepository.findByOrder(order);
     }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -33,6 +34,15 @@ public class FoodService {
     @Autowired
     private CatProfileService catProfileService;
 
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Autowired
+    private KitPricingService kitPricingService;
+
+    @Autowired
+    private KitSnapshotService kitSnapshotService;
+
     /**
      * Get all food SKUs
      */
@@ -62,6 +72,32 @@ public class FoodService {
                 .orElseThrow(() -> new EntityNotFoundException("Food SKU not found with id: " + id));
     }
 
+    /**
+     * Get in-stock food SKUs compatible with a cat's allergies, best matches first
+     */
+    public List<FoodSku> getCompatibleFoodSkus(CatProfile catProfile, FoodSku.FoodType type) {
+        return foodSkuIndexService.findCompatible(catProfile, type);
+    }
+
+    /**
+     * Get in-stock food SKUs compatible with one of the current user's cats
+     */
+    public List<FoodSku> getCompatibleFoodSkus(Long catProfileId, FoodSku.FoodType type) {
+        return getCompatibleFoodSkus(catProfileService.getCatProfileById(catProfileId), type);
+    }
+
+    /**
+     * Set the proteins, formulas and allergens of a food SKU
+     */
+    public FoodSku updateFoodSkuAttributes(Long id, Collection<CatProfile.ProteinType> proteins,
+            Collection<CatProfile.DietaryRequirement> formulas, Collection<CatProfile.Allergy> allergens) {
+        FoodSku foodSku = getFoodSkuById(id);
+        foodSku.setAttributeMask(FoodAttributes.encode(proteins, formulas, allergens));
+        FoodSku saved = foodSkuRepository.save(foodSku);
+        foodSkuIndexService.invalidate();
+        return saved;
+    }
+
     /**
      * Create a new food kit for a cat
      */
@@ -73,7 +109,9 @@ public class FoodService {
         foodKit.setName(kitName);
         foodKit.setCreatedAt(LocalDateTime.now());
 
-        return foodKitRepository.save(foodKit);
+        FoodKit saved = foodKitRepository.save(foodKit);
+        kitSnapshotService.markChanged(saved.getId());
+        return saved;
     }
 
     /**
@@ -85,10 +123,11 @@ public class FoodService {
     }
 
     /**
-     * Get all food kits for a cat
+     * Get a cat's food kits, leaving out suggestions that were never ordered
+     * or saved
      */
     public List<FoodKit> getFoodKitsByCatProfileId(Long catProfileId) {
-        return foodKitRepository.findByCatProfileId(catProfileId);
+        return foodKitRepository.findByCatProfileIdAndSuggestionFalse(catProfileId);
     }
 
     /**
@@ -101,7 +140,9 @@ public class FoodService {
         kitMeal.setFoodKit(foodKit);
         kitMeal.setMealType(mealType);
 
-        return kitMealRepository.save(kitMeal);
+        KitMeal saved = kitMealRepository.save(kitMeal);
+        kitSnapshotService.markChanged(foodKitId);
+        return saved;
     }
 
     /**
@@ -118,7 +159,10 @@ public class FoodService {
         kitMealItem.setFoodSku(foodSku);
         kitMealItem.setQuantity(quantity);
 
-        return kitMealItemRepository.save(kitMealItem);
+        KitMealItem saved = kitMealItemRepository.save(kitMealItem);
+        kitPricingService.invalidate(kitMeal.getFoodKit().getId());
+        kitSnapshotService.markChanged(kitMeal.getFoodKit().getId());
+        return saved;
     }
 
     /**
@@ -150,11 +194,12 @@ public class FoodService {
         foodKit.setCreatedAt(LocalDateTime.now());
         foodKit = foodKitRepository.save(foodKit);
 
-        // Get available foods by type
-        List<FoodSku> wetFoods = getAvailableFoodSkusByType(FoodSku.FoodType.WET);
-        List<FoodSku> dryFoods = getAvailableFoodSkusByType(FoodSku.FoodType.DRY);
-        List<FoodSku> toppings = getAvailableFoodSkusByType(FoodSku.FoodType.TOPPING);
-        List<FoodSku> treats = getAvailableFoodSkusByType(FoodSku.FoodType.SNACK);
+        // Compatible foods by type, best-matching first; a type with no compatible
+        // food leaves its slots empty rather than risk one of the cat's allergens
+        List<FoodSku> wetFoods = getCompatibleFoodSkus(catProfile, FoodSku.FoodType.WET);
+        List<FoodSku> dryFoods = getCompatibleFoodSkus(catProfile, FoodSku.FoodType.DRY);
+        List<FoodSku> toppings = getCompatibleFoodSkus(catProfile, FoodSku.FoodType.TOPPING);
+        List<FoodSku> treats = getCompatibleFoodSkus(catProfile, FoodSku.FoodType.SNACK);
 
         // Create breakfast meal (wet food + topping)
         KitMeal breakfast = new KitMeal();
@@ -174,8 +219,7 @@ public class FoodService {
         dinner.setMealType(KitMeal.MealType.DINNER);
         dinner = kitMealRepository.save(dinner);
 
-        // Placeholder logic - in reality, this would be determined by AI
-        // For now, just select the first available item of each type
+        // Pick the top-ranked items of each type
         if (!wetFoods.isEmpty()) {
             // Add wet food to breakfast
             KitMealItem breakfastMain = new KitMealItem();
@@ -226,6 +270,7 @@ public class FoodService {
             kitMealItemRepository.save(lunchTreat);
         }
 
+        kitSnapshotService.markChanged(foodKit.getId());
         return foodKit;
     }
 }
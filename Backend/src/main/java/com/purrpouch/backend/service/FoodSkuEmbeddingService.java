@@ -0,0 +1,196 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.util.FlatVectorIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Semantic retrieval over the catalog for meal kit prompts. The name, brand
+ * and description of each SKU are embedded and kept in an in-process vector
+ * index; when the catalog changes only new or edited SKUs are embedded again.
+ */
+@Service
+public class FoodSkuEmbeddingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FoodSkuEmbeddingService.class);
+
+    @Autowired
+    private EmbeddingModel embeddingModel;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Value("${app.meal-kit.retrieval.embed-batch-size:64}")
+    private int embedBatchSize;
+
+    private volatile Snapshot snapshot;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Embed the text a retrieval is ranked against
+     *
+     * @return the vector, or null when the embedding model is unavailable
+     */
+    public float[] embedQuery(String text) {
+        try {
+            return embeddingModel.embed(text);
+        } catch (Exception e) {
+            logger.warn("Could not embed retrieval query: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Keep the candidates most similar to the query, at most limit of them, in
+     * their original order. Without a query the first candidates are kept.
+     */
+    public List<FoodSku> selectRelevant(List<FoodSku> candidates, float[] query, int limit) {
+        if (candidates.size() <= limit) {
+            return candidates;
+        }
+        if (query == null) {
+            return candidates.subList(0, limit);
+        }
+
+        FlatVectorIndex<Long> index = currentSnapshot().index;
+        List<Integer> positions = new ArrayList<>(candidates.size());
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            double similarity = index != null ? index.similarity(candidates.get(i).getId(), query) : Double.NaN;
+            // SKUs that could not be embedded yet rank last
+            scores[i] = Double.isNaN(similarity) ? -2 : similarity;
+            positions.add(i);
+        }
+        positions.sort(Comparator.comparingDouble((Integer i) -> -scores[i]).thenComparingInt(i -> i));
+
+        List<Integer> kept = new ArrayList<>(positions.subList(0, limit));
+        kept.sort(null);
+        List<FoodSku> result = new ArrayList<>(limit);
+        for (int position : kept) {
+            result.add(candidates.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Embed SKUs that changed since the last refresh, and retry ones that
+     * failed to embed before
+     */
+    @Scheduled(fixedDelayString = "${app.meal-kit.retrieval.refresh-interval-ms:300000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            snapshot = rebuild(snapshot, foodSkuIndexService.getCatalogVersion());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        long catalogVersion = foodSkuIndexService.getCatalogVersion();
+        Snapshot current = snapshot;
+        if (current != null && current.catalogVersion == catalogVersion) {
+            return current;
+        }
+        refreshLock.lock();
+        try {
+            current = snapshot;
+            if (current == null || current.catalogVersion != catalogVersion) {
+                current = rebuild(current, catalogVersion);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Callers hold refreshLock
+    private Snapshot rebuild(Snapshot previous, long catalogVersion) {
+        Map<Long, String> texts = new HashMap<>();
+        for (FoodSku sku : foodSkuIndexService.getCatalog()) {
+            texts.put(sku.getId(), embeddingText(sku));
+        }
+
+        Map<Long, float[]> vectors = new HashMap<>();
+        List<Long> changed = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : texts.entrySet()) {
+            float[] vector = previous != null && previous.index != null
+                    && entry.getValue().equals(previous.texts.get(entry.getKey()))
+                            ? previous.index.get(entry.getKey())
+                            : null;
+            if (vector != null) {
+                vectors.put(entry.getKey(), vector);
+            } else {
+                changed.add(entry.getKey());
+            }
+        }
+
+        for (int from = 0; from < changed.size(); from += embedBatchSize) {
+            List<Long> batch = changed.subList(from, Math.min(from + embedBatchSize, changed.size()));
+            try {
+                List<float[]> embedded = embeddingModel.embed(batch.stream().map(texts::get).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    vectors.put(batch.get(i), embedded.get(i));
+                }
+            } catch (Exception e) {
+                // Left out of the index and retried on the next refresh
+                logger.warn("Could not embed {} food SKUs: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        FlatVectorIndex<Long> index = null;
+        if (!vectors.isEmpty()) {
+            index = new FlatVectorIndex<>(vectors.values().iterator().next().length, vectors.size());
+            for (Map.Entry<Long, float[]> entry : vectors.entrySet()) {
+                index.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!changed.isEmpty()) {
+            logger.info("Embedded {} of {} food SKUs for catalog version {}", changed.size(), texts.size(),
+                    catalogVersion);
+        }
+        // Texts are only remembered for SKUs that made it into the index
+        texts.keySet().retainAll(vectors.keySet());
+        return new Snapshot(index, texts, catalogVersion);
+    }
+
+    private static String embeddingText(FoodSku sku) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(sku.getName());
+        if (sku.getBrand() != null) {
+            sb.append(" by ").append(sku.getBrand());
+        }
+        if (sku.getDescription() != null && !sku.getDescription().isBlank()) {
+            sb.append(". ").append(sku.getDescription());
+        }
+        return sb.toString();
+    }
+
+    private static class Snapshot {
+        // Null until at least one SKU has been embedded
+        private final FlatVectorIndex<Long> index;
+        private final Map<Long, String> texts;
+        private final long catalogVersion;
+
+        Snapshot(FlatVectorIndex<Long> index, Map<Long, String> texts, long catalogVersion) {
+            this.index = index;
+            this.texts = texts;
+            this.catalogVersion = catalogVersion;
+        }
+    }
+}
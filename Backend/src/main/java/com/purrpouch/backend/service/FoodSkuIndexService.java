@@ -0,0 +1,188 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodAttributes;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.repository.FoodSkuRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index over the in-stock catalog. Each attribute bit maps
+ * to the set of SKU positions carrying it, so filtering the whole catalog
+ * against a cat is a few BitSet operations instead of a scan.
+ */
+@Service
+public class FoodSkuIndexService {
+
+    @Autowired
+    private FoodSkuRepository foodSkuRepository;
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean stale = true;
+
+    private long catalogVersion;
+
+    // Not synchronized: a virtual thread waiting on the catalog query would pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Find in-stock SKUs that break none of the cat's restrictions, best
+     * matches first. A null type searches every food type.
+     */
+    public List<FoodSku> findCompatible(CatProfile catProfile, FoodSku.FoodType type) {
+        return findCompatible(catProfile.resolveProteinMask(), catProfile.resolveDietaryMask(),
+                catProfile.resolveAllergyMask(), type);
+    }
+
+    public List<FoodSku> findCompatible(long proteinMask, long dietaryMask, long allergyMask,
+            FoodSku.FoodType type) {
+        Snapshot current = currentSnapshot();
+
+        BitSet matches = (BitSet) (type != null ? current.byType.get(type) : current.inStock).clone();
+        long restrictions = allergyMask;
+        while (restrictions != 0) {
+            int bit = Long.numberOfTrailingZeros(restrictions);
+            matches.andNot(current.byAttributeBit[FoodAttributes.ALLERGEN_SHIFT + bit]);
+            restrictions &= restrictions - 1;
+        }
+
+        List<FoodSku> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(current.skus.get(i));
+        }
+        result.sort(Comparator
+                .comparingInt((FoodSku sku) -> -FoodAttributes.score(maskOf(sku), proteinMask, dietaryMask))
+                .thenComparing(FoodSku::getId));
+        return result;
+    }
+
+    /**
+     * Every indexed SKU, in stock or not
+     */
+    public List<FoodSku> getCatalog() {
+        return currentSnapshot().skus;
+    }
+
+    /**
+     * Version of the indexed catalog, bumped whenever its contents change
+     */
+    public long getCatalogVersion() {
+        return currentSnapshot().version;
+    }
+
+    /**
+     * Content hash of the indexed catalog. Unlike the version it is the same on
+     * every node and across restarts, so it can be stored with derived data.
+     */
+    public int getCatalogFingerprint() {
+        return currentSnapshot().fingerprint;
+    }
+
+    /**
+     * Mark the index stale after a catalog change; it is rebuilt on next use
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Periodic rebuild so stock changes made outside this service are picked up
+     */
+    @Scheduled(fixedDelayString = "${app.food-index.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || stale) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    private Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            stale = false;
+            List<FoodSku> skus = foodSkuRepository.findAll();
+
+            BitSet inStock = new BitSet(skus.size());
+            BitSet[] byAttributeBit = new BitSet[64];
+            for (int bit = 0; bit < byAttributeBit.length; bit++) {
+                byAttributeBit[bit] = new BitSet();
+            }
+            Map<FoodSku.FoodType, BitSet> byType = new EnumMap<>(FoodSku.FoodType.class);
+            for (FoodSku.FoodType type : FoodSku.FoodType.values()) {
+                byType.put(type, new BitSet());
+            }
+
+            int fingerprint = 1;
+            for (int i = 0; i < skus.size(); i++) {
+                FoodSku sku = skus.get(i);
+                long mask = maskOf(sku);
+                boolean available = sku.getAvailableStock() != null && sku.getAvailableStock() > 0;
+
+                if (available) {
+                    inStock.set(i);
+                    if (sku.getType() != null) {
+                        byType.get(sku.getType()).set(i);
+                    }
+                }
+                long bits = mask;
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    byAttributeBit[bit].set(i);
+                    bits &= bits - 1;
+                }
+                fingerprint = 31 * fingerprint + Objects.hash(sku.getId(), sku.getType(), mask, available,
+                        sku.getPricePerUnit(), sku.getName(), sku.getBrand(), sku.getDescription());
+            }
+
+            Snapshot previous = snapshot;
+            if (previous == null || previous.fingerprint != fingerprint) {
+                catalogVersion++;
+            }
+            snapshot = new Snapshot(List.copyOf(skus), inStock, byType, byAttributeBit, fingerprint, catalogVersion);
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static long maskOf(FoodSku sku) {
+        // SKUs that have not been tagged yet carry no attributes and match everything
+        return sku.getAttributeMask() != null ? sku.getAttributeMask() : 0L;
+    }
+
+    private static class Snapshot {
+        private final List<FoodSku> skus;
+        private final BitSet inStock;
+        private final Map<FoodSku.FoodType, BitSet> byType;
+        private final BitSet[] byAttributeBit;
+        private final int fingerprint;
+        private final long version;
+
+        Snapshot(List<FoodSku> skus, BitSet inStock, Map<FoodSku.FoodType, BitSet> byType,
+                BitSet[] byAttributeBit, int fingerprint, long version) {
+            this.skus = skus;
+            this.inStock = inStock;
+            this.byType = byType;
+            this.byAttributeBit = byAttributeBit;
+            this.fingerprint = fingerprint;
+            this.version = version;
+        }
+    }
+}
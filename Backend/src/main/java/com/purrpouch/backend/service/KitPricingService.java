@@ -0,0 +1,210 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.repository.FoodKitRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authoritative kit and order prices. A kit costs the sum of its items'
+ * quantity times the SKU's price per unit. Uncached kits are priced from their
+ * snapshot rows, and summed from their items in one aggregate query only when
+ * the snapshot is missing or predates the catalog. Prices are cached per kit
+ * and dropped when the kit's items change or the catalog version moves.
+ */
+@Service
+public class KitPricingService {
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Value("${app.pricing.kit-cache-size:10000}")
+    private int maxEntries;
+
+    // Largest difference between a client's total and ours that is still accepted, for float rounding
+    @Value("${app.pricing.total-tolerance:1}")
+    private BigDecimal totalTolerance;
+
+    private final LinkedHashMap<Long, BigDecimal> prices = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Bumped on every invalidation so loads that raced an update are not cached; guarded by prices
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    // Catalog version the cached prices were computed at; guarded by prices
+    private long catalogVersion = -1;
+
+    /**
+     * Price of one kit
+     */
+    public BigDecimal priceKit(Long kitId) {
+        BigDecimal price = priceKits(List.of(kitId)).get(kitId);
+        if (price == null) {
+            throw new EntityNotFoundException("Food kit not found: " + kitId);
+        }
+        return price;
+    }
+
+    /**
+     * Prices of the given kits; kits that do not exist are left out
+     */
+    public Map<Long, BigDecimal> priceKits(Collection<Long> kitIds) {
+        long catalog = foodSkuIndexService.getCatalogVersion();
+        Map<Long, BigDecimal> result = new HashMap<>();
+        Map<Long, Long> missing = new HashMap<>();
+        synchronized (prices) {
+            if (catalog != catalogVersion) {
+                prices.clear();
+                catalogVersion = catalog;
+            }
+            for (Long kitId : new LinkedHashSet<>(kitIds)) {
+                BigDecimal price = prices.get(kitId);
+                if (price != null) {
+                    result.put(kitId, price);
+                } else {
+                    missing.put(kitId, versions.getOrDefault(kitId, 0L));
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Snapshot prices first; kits without a current snapshot are summed from their items
+        int fingerprint = foodSkuIndexService.getCatalogFingerprint();
+        Map<Long, BigDecimal> loaded = new HashMap<>();
+        List<Long> unsnapshotted = new ArrayList<>();
+        for (Object[] row : foodKitRepository.findSnapshotPrices(new ArrayList<>(missing.keySet()))) {
+            if (row[1] != null && Integer.valueOf(fingerprint).equals(row[2])) {
+                loaded.put((Long) row[0], toPrice(row[1]));
+            } else {
+                unsnapshotted.add((Long) row[0]);
+            }
+        }
+        if (!unsnapshotted.isEmpty()) {
+            for (Object[] row : foodKitRepository.sumKitPrices(unsnapshotted)) {
+                loaded.put((Long) row[0], toPrice(row[1]));
+            }
+        }
+        result.putAll(loaded);
+
+        synchronized (prices) {
+            if (catalogVersion == catalog) {
+                for (Map.Entry<Long, BigDecimal> entry : loaded.entrySet()) {
+                    if (versions.getOrDefault(entry.getKey(), 0L).equals(missing.get(entry.getKey()))) {
+                        prices.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                Iterator<Long> iterator = prices.keySet().iterator();
+                while (prices.size() > maxEntries) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Total price of an order
+     *
+     * @param kitItems Quantity of each kit, by kit id
+     */
+    public BigDecimal priceOrder(Map<Long, Integer> kitItems) {
+        if (kitItems == null || kitItems.isEmpty()) {
+            throw new IllegalArgumentException("Order has no kits");
+        }
+        for (Map.Entry<Long, Integer> entry : kitItems.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 1) {
+                throw new IllegalArgumentException("Quantity of kit " + entry.getKey() + " must be at least 1");
+            }
+        }
+        Map<Long, BigDecimal> kitPrices = priceKits(kitItems.keySet());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> entry : kitItems.entrySet()) {
+            BigDecimal price = kitPrices.get(entry.getKey());
+            if (price == null) {
+                throw new EntityNotFoundException("Food kit not found: " + entry.getKey());
+            }
+            total = total.add(price.multiply(BigDecimal.valueOf(entry.getValue())));
+        }
+        return total;
+    }
+
+    /**
+     * Price an order and check the total the client showed the user
+     *
+     * @param claimedTotal Client's total, or null to just take ours
+     * @return Our total
+     * @throws PriceMismatchException when the client's total is off
+     */
+    public BigDecimal verifyOrderTotal(Map<Long, Integer> kitItems, BigDecimal claimedTotal) {
+        BigDecimal total = priceOrder(kitItems);
+        if (claimedTotal != null && claimedTotal.subtract(total).abs().compareTo(totalTolerance) > 0) {
+            throw new PriceMismatchException(claimedTotal, total);
+        }
+        return total;
+    }
+
+    /**
+     * Drop a kit's price after its items changed. The price is evicted again
+     * after the surrounding transaction commits, so a load that read the old
+     * items in between is not kept.
+     */
+    public void invalidate(Long kitId) {
+        evict(kitId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(kitId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long kitId) {
+        synchronized (prices) {
+            versions.merge(kitId, 1L, Long::sum);
+            prices.remove(kitId);
+        }
+    }
+
+    private static BigDecimal toPrice(Object sum) {
+        BigDecimal price = sum instanceof BigDecimal decimal ? decimal : new BigDecimal(sum.toString());
+        return price.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Thrown when a client's order total does not match the current prices
+     */
+    public static class PriceMismatchException extends RuntimeException {
+        private final BigDecimal expectedTotal;
+
+        public PriceMismatchException(BigDecimal claimedTotal, BigDecimal expectedTotal) {
+            super("Order total " + claimedTotal.toPlainString() + " does not match the current price "
+                    + expectedTotal.toPlainString());
+            this.expectedTotal = expectedTotal;
+        }
+
+        public BigDecimal getExpectedTotal() {
+            return expectedTotal;
+        }
+    }
+}
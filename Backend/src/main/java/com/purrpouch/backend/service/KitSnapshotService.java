@@ -0,0 +1,165 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+import com.purrpouch.backend.model.KitMealItem;
+import com.purrpouch.backend.model.KitSkuLine;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import com.purrpouch.backend.repository.KitMealItemRepository;
+import com.purrpouch.backend.repository.KitMealRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps each kit's denormalized snapshot: its price, the total quantity of
+ * every SKU and its meals as JSON. The snapshot is rebuilt once per
+ * transaction that changed the kit, just before it commits, so pricing, kit
+ * pages and order lines read one row instead of walking meals, items and SKUs.
+ */
+@Service
+public class KitSnapshotService {
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private KitMealRepository kitMealRepository;
+
+    @Autowired
+    private KitMealItemRepository kitMealItemRepository;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Rebuild a kit's snapshot when the current transaction commits, once
+     * however many changes it made; right away when there is no transaction
+     */
+    public void markChanged(Long kitId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(kitId);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> kitIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, kitIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    for (Long pendingKitId : kitIds) {
+                        refresh(pendingKitId);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(KitSnapshotService.this);
+                }
+            });
+            pending = kitIds;
+        }
+        pending.add(kitId);
+    }
+
+    /**
+     * Whether a kit has no snapshot yet or its price predates the catalog
+     */
+    public boolean isStale(FoodKit foodKit) {
+        return foodKit.getSnapshotAt() == null
+                || !Objects.equals(foodKit.getPriceFingerprint(), foodSkuIndexService.getCatalogFingerprint());
+    }
+
+    public FoodKit refresh(Long kitId) {
+        FoodKit foodKit = foodKitRepository.findById(kitId)
+                .orElseThrow(() -> new EntityNotFoundException("Food kit not found: " + kitId));
+        return refresh(foodKit);
+    }
+
+    /**
+     * Rebuild a kit's snapshot from its meals and items
+     */
+    public FoodKit refresh(FoodKit foodKit) {
+        int fingerprint = foodSkuIndexService.getCatalogFingerprint();
+        List<KitMeal> meals = kitMealRepository.findByFoodKitId(foodKit.getId());
+        List<KitMealItem> items = kitMealItemRepository.findByFoodKitIdWithSku(foodKit.getId());
+
+        AiMealKitDto composition = new AiMealKitDto();
+        composition.setKitId(foodKit.getId());
+        composition.setKitName(foodKit.getName());
+        composition.setCatProfileId(foodKit.getCatProfile().getId());
+        composition.setMeals(new ArrayList<>());
+        Map<Long, AiMealKitDto.MealDto> mealsById = new LinkedHashMap<>();
+        for (KitMeal meal : meals) {
+            AiMealKitDto.MealDto mealDto = new AiMealKitDto.MealDto();
+            mealDto.setMealId(meal.getId());
+            mealDto.setMealType(meal.getMealType());
+            mealDto.setFoodItems(new ArrayList<>());
+            mealsById.put(meal.getId(), mealDto);
+            composition.getMeals().add(mealDto);
+        }
+
+        Map<Long, KitSkuLine> lines = new LinkedHashMap<>();
+        BigDecimal price = BigDecimal.ZERO;
+        for (KitMealItem item : items) {
+            FoodSku foodSku = item.getFoodSku();
+            BigDecimal quantity = item.getQuantity() != null ? item.getQuantity() : BigDecimal.ZERO;
+            BigDecimal unitPrice = foodSku.getPricePerUnit() != null ? foodSku.getPricePerUnit() : BigDecimal.ZERO;
+
+            AiMealKitDto.FoodItemDto foodItemDto = new AiMealKitDto.FoodItemDto();
+            foodItemDto.setFoodSkuId(foodSku.getId());
+            foodItemDto.setName(foodSku.getName());
+            foodItemDto.setType(foodSku.getType() != null ? foodSku.getType().toString() : null);
+            foodItemDto.setBrand(foodSku.getBrand());
+            foodItemDto.setQuantity(quantity);
+            foodItemDto.setUnit(foodSku.getUnit());
+            AiMealKitDto.MealDto mealDto = mealsById.get(item.getKitMeal().getId());
+            if (mealDto != null) {
+                mealDto.getFoodItems().add(foodItemDto);
+            }
+
+            KitSkuLine line = lines.computeIfAbsent(foodSku.getId(),
+                    id -> new KitSkuLine(id, foodSku.getName(), BigDecimal.ZERO, unitPrice));
+            line.setQuantity(line.getQuantity().add(quantity));
+            price = price.add(quantity.multiply(unitPrice));
+        }
+
+        foodKit.setPrice(price.setScale(2, RoundingMode.HALF_UP));
+        foodKit.setPriceFingerprint(fingerprint);
+        foodKit.setComposition(toJson(composition));
+        foodKit.getSkuLines().clear();
+        foodKit.getSkuLines().addAll(lines.values());
+        foodKit.setSnapshotAt(LocalDateTime.now());
+        return foodKitRepository.save(foodKit);
+    }
+
+    private String toJson(AiMealKitDto composition) {
+        try {
+            return objectMapper.writeValueAsString(composition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize kit " + composition.getKitId(), e);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.KitSuggestion;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.repository.CatProfileRepository;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import com.purrpouch.backend.repository.KitMealItemRepository;
+import com.purrpouch.backend.repository.KitMealRepository;
+import com.purrpouch.backend.repository.KitSuggestionRepository;
+import com.purrpouch.backend.repository.OrderKitRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pre-generates a meal kit for every active cat, so the kit is ready when the
+ * owner opens the app instead of costing an LLM round trip while they wait.
+ * Each suggestion is stamped with the catalog fingerprint it was made for;
+ * a run only regenerates cats whose suggestion is missing, older than the
+ * last profile change, or made for another catalog. Suggested kits stay out of
+ * the cat's kit list until the owner orders or saves them; a regenerated
+ * suggestion deletes the kit it replaces if that never happened.
+ */
+@Service
+public class KitSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitSuggestionService.class);
+
+    @Autowired
+    private AiMealGeneratorService aiMealGeneratorService;
+
+    @Autowired
+    private FoodSkuIndexService foodSkuIndexService;
+
+    @Autowired
+    private CatProfileRepository catProfileRepository;
+
+    @Autowired
+    private KitSuggestionRepository kitSuggestionRepository;
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private KitMealRepository kitMealRepository;
+
+    @Autowired
+    private KitMealItemRepository kitMealItemRepository;
+
+    @Autowired
+    private OrderKitRepository orderKitRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    // Off on all but one node of a cluster, so cats are not generated twice
+    @Value("${app.kit-suggestions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.kit-suggestions.chunk-size:100}")
+    private int chunkSize;
+
+    // Concurrent LLM calls; keep within the gateway's rate limit
+    @Value("${app.kit-suggestions.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService generationExecutor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("kit-suggestion-").getVirtualThreadFactory()
+                : Executors.defaultThreadFactory();
+        generationExecutor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generationExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the pre-generated kit for one of the current user's cats
+     *
+     * @throws EntityNotFoundException when the cat has no up-to-date suggestion
+     */
+    public AiMealKitDto getSuggestion(Long catProfileId) {
+        User user = authService.getCurrentUser();
+        KitSuggestion suggestion = kitSuggestionRepository.findByCatProfileIdAndUser(catProfileId, user)
+                .filter(this::isFresh)
+                .orElseThrow(() -> new EntityNotFoundException("No up-to-date kit suggestion for this cat"));
+        try {
+            return objectMapper.readValue(suggestion.getKitJson(), AiMealKitDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored kit suggestion is unreadable", e);
+        }
+    }
+
+    /**
+     * Keep the suggested kit of one of the current user's cats, adding it to
+     * the cat's kit list
+     *
+     * @return the saved kit
+     * @throws EntityNotFoundException when the cat has no suggestion
+     */
+    public FoodKit saveSuggestion(Long catProfileId) {
+        User user = authService.getCurrentUser();
+        return transactionTemplate.execute(status -> {
+            FoodKit foodKit = kitSuggestionRepository.findByCatProfileIdAndUser(catProfileId, user)
+                    .map(KitSuggestion::getFoodKit)
+                    .orElseThrow(() -> new EntityNotFoundException("No kit suggestion for this cat"));
+            foodKit.setSuggestion(false);
+            return foodKitRepository.save(foodKit);
+        });
+    }
+
+    /**
+     * Nightly run; also safe to trigger at any time since fresh cats are skipped
+     */
+    @Scheduled(cron = "${app.kit-suggestions.cron:0 0 2 * * *}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refreshStale();
+        }
+    }
+
+    /**
+     * Regenerate every missing or stale suggestion, one chunk of cats at a time
+     *
+     * @return number of suggestions written, or -1 when a run is already in progress
+     */
+    public int refreshStale() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Kit suggestion run already in progress, skipping");
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        int generated = 0;
+        int failed = 0;
+        try {
+            int catalogVersion = foodSkuIndexService.getCatalogFingerprint();
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                List<CatProfile> cats = transactionTemplate.execute(status -> catProfileRepository
+                        .findNeedingKitSuggestion(catalogVersion, cursor, PageRequest.of(0, chunkSize)));
+                if (cats == null || cats.isEmpty()) {
+                    break;
+                }
+
+                List<Future<Boolean>> results = generationExecutor.invokeAll(cats.stream()
+                        .map(cat -> asOwner(cat.getOwner(), () -> generate(cat.getId(), catalogVersion)))
+                        .toList());
+                for (Future<Boolean> result : results) {
+                    if (succeeded(result)) {
+                        generated++;
+                    } else {
+                        failed++;
+                    }
+                }
+
+                if (cats.size() < chunkSize) {
+                    break;
+                }
+                afterId = cats.get(cats.size() - 1).getId();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+
+        long millis = System.currentTimeMillis() - start;
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", LocalDateTime.now());
+        run.put("generated", generated);
+        run.put("failed", failed);
+        run.put("durationMs", millis);
+        lastRun = run;
+        logger.info("Generated {} kit suggestions ({} failed) in {} ms", generated, failed, millis);
+        return generated;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(lastRun);
+        stats.put("running", running.get());
+        stats.put("stored", kitSuggestionRepository.count());
+        return stats;
+    }
+
+    private boolean generate(Long catProfileId, int catalogVersion) {
+        // Taken before the LLM call, so a profile edit made meanwhile leaves the result stale
+        LocalDateTime generatedAt = LocalDateTime.now();
+        AiMealKitDto kit = aiMealGeneratorService.generateMealKit(catProfileId, List.of());
+        if (kit == null || kit.getKitId() == null) {
+            return false;
+        }
+        String kitJson;
+        try {
+            kitJson = objectMapper.writeValueAsString(kit);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not store kit suggestion for cat {}: {}", catProfileId, e.getMessage());
+            return false;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            FoodKit foodKit = foodKitRepository.getReferenceById(kit.getKitId());
+            foodKit.setSuggestion(true);
+            KitSuggestion suggestion = kitSuggestionRepository.findByCatProfileId(catProfileId)
+                    .orElseGet(KitSuggestion::new);
+            FoodKit previous = suggestion.getFoodKit();
+            suggestion.setCatProfile(catProfileRepository.getReferenceById(catProfileId));
+            suggestion.setFoodKit(foodKit);
+            suggestion.setCatalogVersion(catalogVersion);
+            suggestion.setKitJson(kitJson);
+            suggestion.setGeneratedAt(generatedAt);
+            kitSuggestionRepository.save(suggestion);
+            if (previous != null) {
+                deleteUnused(previous);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Delete a replaced suggestion kit with its meals and items, unless the
+     * owner saved or ordered it
+     */
+    private void deleteUnused(FoodKit foodKit) {
+        if (!foodKit.isSuggestion() || orderKitRepository.existsByFoodKitId(foodKit.getId())) {
+            return;
+        }
+        kitMealItemRepository.deleteAll(kitMealItemRepository.findByFoodKitIdWithSku(foodKit.getId()));
+        kitMealRepository.deleteAll(kitMealRepository.findByFoodKitId(foodKit.getId()));
+        foodKitRepository.delete(foodKit);
+    }
+
+    private boolean isFresh(KitSuggestion suggestion) {
+        LocalDateTime profileUpdatedAt = suggestion.getCatProfile().getUpdatedAt();
+        return suggestion.getCatalogVersion() == foodSkuIndexService.getCatalogFingerprint()
+                && (profileUpdatedAt == null || !suggestion.getGeneratedAt().isBefore(profileUpdatedAt));
+    }
+
+    // Generation checks cat ownership through the current user, so each cat runs as its owner
+    private static Callable<Boolean> asOwner(User owner, Callable<Boolean> task) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(owner, null, List.of()));
+        return new DelegatingSecurityContextCallable<>(task, context);
+    }
+
+    private static boolean succeeded(Future<Boolean> result) throws InterruptedException {
+        try {
+            return Boolean.TRUE.equals(result.get());
+        } catch (ExecutionException e) {
+            logger.warn("Kit suggestion generation failed: {}", e.getCause().getMessage());
+            return false;
+        }
+    }
+}
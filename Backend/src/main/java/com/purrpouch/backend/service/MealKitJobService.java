@@ -0,0 +1,291 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.response.MealKitJobResponse;
+import com.purrpouch.backend.payload.response.MealKitJobResponse.Status;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs AI meal-kit generation as background jobs. Submitting returns at once
+ * with a job id; a bounded worker pool does the LLM round trip and kit
+ * persistence, pushing each state change to /topic/meal-kit-jobs/{jobId}.
+ * Finished jobs stay cached for a while, so a retried submit with the same
+ * idempotency key gets the same job instead of a second kit.
+ */
+@Service
+public class MealKitJobService {
+
+    // Followed by a job id; WebSocketSecurityConfig only lets the job's owner subscribe
+    public static final String JOB_TOPIC = "/topic/meal-kit-jobs/";
+
+    private static final Logger logger = LoggerFactory.getLogger(MealKitJobService.class);
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private CatContextCacheService catContextCacheService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.meal-kit-jobs.workers:4}")
+    private int workers;
+
+    @Value("${app.meal-kit-jobs.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.meal-kit-jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.meal-kit-jobs.max-jobs:10000}")
+    private int maxJobs;
+
+    // Insertion-ordered, so the oldest job is evicted first
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+
+    // "userId:idempotencyKey" -> jobId; guarded by jobs
+    private final Map<String, String> jobIdsByKey = new HashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("meal-kit-job-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queue a meal kit generation for one of the current user's cats
+     *
+     * @param idempotencyKey Optional client key; resubmitting it returns the
+     *                       existing job unless that job failed
+     * @throws IllegalStateException when the queue is full
+     */
+    public MealKitJobResponse submit(Long catProfileId, List<String> chatHistory, String idempotencyKey) {
+        User user = authService.getCurrentUser();
+        // Rejects cats the user doesn't own before a worker is taken
+        catContextCacheService.getCatContext(catProfileId);
+
+        Job job;
+        synchronized (jobs) {
+            if (idempotencyKey != null) {
+                Job existing = jobs.get(jobIdsByKey.get(user.getId() + ":" + idempotencyKey));
+                if (existing != null && existing.status != Status.FAILED) {
+                    if (!existing.catProfileId.equals(catProfileId)) {
+                        throw new IllegalArgumentException("Idempotency key was already used for another cat");
+                    }
+                    return existing.toResponse();
+                }
+            }
+            job = new Job(UUID.randomUUID().toString(), user.getId(), user.getEmail(), catProfileId,
+                    idempotencyKey);
+            jobs.put(job.id, job);
+            if (idempotencyKey != null) {
+                jobIdsByKey.put(user.getId() + ":" + idempotencyKey, job.id);
+            }
+            evictOverflow();
+        }
+
+        // Nobody can be subscribed before the id is returned, so QUEUED is not pushed
+        MealKitJobResponse response = job.toResponse();
+        try {
+            // Generation resolves the cat and chat memory through the caller's security context
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job, chatHistory)));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                remove(job);
+            }
+            throw new IllegalStateException("Too many meal kits are being generated, please retry shortly");
+        }
+        return response;
+    }
+
+    /**
+     * Get a job of the current user
+     */
+    public MealKitJobResponse getJob(String jobId) {
+        User user = authService.getCurrentUser();
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null || !job.userId.equals(user.getId())) {
+            throw new EntityNotFoundException("Meal kit job not found");
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Whether the job belongs to the user with this email; used to authorize
+     * topic subscriptions
+     */
+    public boolean isOwnedBy(String jobId, String email) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            return job != null && job.ownerEmail.equals(email);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (jobs) {
+            stats.put("jobs", jobs.size());
+        }
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", executor.getCompletedTaskCount());
+        return stats;
+    }
+
+    /**
+     * Drop finished jobs older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.meal-kit-jobs.sweep-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int evicted = 0;
+        synchronized (jobs) {
+            Iterator<Job> iterator = jobs.values().iterator();
+            while (iterator.hasNext()) {
+                Job job = iterator.next();
+                if (job.isFinished() && job.updatedAt.isBefore(cutoff)) {
+                    iterator.remove();
+                    removeKey(job);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} finished meal kit jobs", evicted);
+        }
+    }
+
+    private void run(Job job, List<String> chatHistory) {
+        publish(job, job.update(Status.RUNNING, "Generating meal kit", null));
+        MealKitJobResponse response;
+        try {
+            AiMealKitDto kit = chatService.generateAiMealKit(String.valueOf(job.catProfileId), chatHistory);
+            response = kit != null
+                    ? job.update(Status.COMPLETED, "Meal kit ready", kit)
+                    : job.update(Status.FAILED, "Failed to generate meal kit", null);
+        } catch (Exception e) {
+            logger.error("Meal kit job {} failed: {}", job.id, e.getMessage(), e);
+            response = job.update(Status.FAILED, "Error generating meal kit: " + e.getMessage(), null);
+        }
+        publish(job, response);
+    }
+
+    private void publish(Job job, MealKitJobResponse response) {
+        try {
+            // Serialized with the application's mapper, so the push matches the polled JSON
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            messagingTemplate.send(JOB_TOPIC + job.id, MessageBuilder.createMessage(
+                    objectMapper.writeValueAsBytes(response), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            // Polling still works if the push is lost
+            logger.warn("Could not push meal kit job {} update: {}", job.id, e.getMessage());
+        }
+    }
+
+    // Callers hold the jobs lock
+    private void evictOverflow() {
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > maxJobs && iterator.hasNext()) {
+            Job oldest = iterator.next();
+            if (oldest.isFinished()) {
+                iterator.remove();
+                removeKey(oldest);
+            }
+        }
+    }
+
+    private void remove(Job job) {
+        jobs.remove(job.id);
+        removeKey(job);
+    }
+
+    private void removeKey(Job job) {
+        if (job.idempotencyKey != null) {
+            jobIdsByKey.remove(job.userId + ":" + job.idempotencyKey, job.id);
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final Long userId;
+        private final String ownerEmail;
+        private final Long catProfileId;
+        private final String idempotencyKey;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile String message = "Waiting for a free worker";
+        private volatile AiMealKitDto result;
+        private volatile LocalDateTime updatedAt = createdAt;
+
+        Job(String id, Long userId, String ownerEmail, Long catProfileId, String idempotencyKey) {
+            this.id = id;
+            this.userId = userId;
+            this.ownerEmail = ownerEmail;
+            this.catProfileId = catProfileId;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        synchronized MealKitJobResponse update(Status status, String message, AiMealKitDto result) {
+            this.status = status;
+            this.message = message;
+            this.result = result;
+            this.updatedAt = LocalDateTime.now();
+            return toResponse();
+        }
+
+        synchronized MealKitJobResponse toResponse() {
+            return new MealKitJobResponse(id, status, message, catProfileId, result, createdAt, updatedAt);
+        }
+
+        boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+    }
+}
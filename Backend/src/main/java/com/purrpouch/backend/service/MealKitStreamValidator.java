@@ -0,0 +1,262 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a meal kit JSON answer while it is still being generated. Text is
+ * fed chunk by chunk into a non-blocking Jackson parser; every food is checked
+ * against the foods offered to the cat and the food types of its meal as soon
+ * as it arrives, so a bad answer can be abandoned without waiting for the
+ * rest. A kit is only complete with a breakfast, a lunch and a dinner.
+ * Anything before the first brace and after the kit object, such as markdown
+ * fences, is ignored. Not thread-safe.
+ */
+public class MealKitStreamValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Food types each meal must contain, once each
+    private static final Map<KitMeal.MealType, Set<FoodSku.FoodType>> SLOT_TYPES = new EnumMap<>(Map.of(
+            KitMeal.MealType.BREAKFAST, EnumSet.of(FoodSku.FoodType.WET, FoodSku.FoodType.TOPPING),
+            KitMeal.MealType.LUNCH, EnumSet.of(FoodSku.FoodType.DRY, FoodSku.FoodType.SNACK),
+            KitMeal.MealType.DINNER, EnumSet.of(FoodSku.FoodType.WET, FoodSku.FoodType.TOPPING)));
+
+    // Container depths: kit object, meals array, meal object, foodItems array, food item object
+    private static final int KIT = 1;
+    private static final int MEAL = 3;
+    private static final int FOOD_ITEM = 5;
+
+    private final Map<Long, FoodSku.FoodType> offeredTypes;
+
+    private final JsonParser parser;
+
+    private final TokenBuffer document;
+
+    // Field names of the open containers; null for the kit object and array elements
+    private final List<String> path = new ArrayList<>();
+
+    private final Set<KitMeal.MealType> seenMeals = EnumSet.noneOf(KitMeal.MealType.class);
+
+    private boolean started;
+    private boolean complete;
+    private String violation;
+
+    private KitMeal.MealType mealType;
+    private final List<FoodSku.FoodType> mealFoodTypes = new ArrayList<>();
+    private boolean itemHasFood;
+
+    /**
+     * @param offeredTypes Type of every food offered to the cat, by SKU id
+     * @param codec        Mapper the completed document is read with
+     */
+    public MealKitStreamValidator(Map<Long, FoodSku.FoodType> offeredTypes, ObjectCodec codec) {
+        this.offeredTypes = offeredTypes;
+        this.document = new TokenBuffer(codec, false);
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create JSON parser", e);
+        }
+    }
+
+    /**
+     * Feed the next chunk of the answer
+     *
+     * @return true while more text is wanted; false once the kit is complete
+     *         or was rejected
+     */
+    public boolean feed(String chunk) {
+        if (isDone() || chunk == null || chunk.isEmpty()) {
+            return !isDone();
+        }
+        if (!started) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return true;
+            }
+            chunk = chunk.substring(start);
+            started = true;
+        }
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!isDone() && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                document.copyCurrentEvent(parser);
+                onToken(token);
+            }
+        } catch (IOException e) {
+            reject("malformed JSON: " + e.getMessage());
+        }
+        return !isDone();
+    }
+
+    /**
+     * Signal that the answer ended; an unfinished kit is rejected
+     */
+    public void finish() {
+        if (!isDone()) {
+            reject(started ? "answer ended before the kit was complete" : "answer contained no JSON object");
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Why the answer was rejected, or null
+     */
+    public String getViolation() {
+        return violation;
+    }
+
+    /**
+     * The complete kit as a parser for data binding; only valid once
+     * {@link #isComplete()} is true
+     */
+    public JsonParser completedDocument() {
+        if (!complete) {
+            throw new IllegalStateException("Meal kit is not complete");
+        }
+        return document.asParser();
+    }
+
+    private boolean isDone() {
+        return complete || violation != null;
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        int depth = path.size();
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                if (depth == 0 && token != JsonToken.START_OBJECT) {
+                    reject("answer is not a JSON object");
+                    return;
+                }
+                path.add(depth == 0 ? null : parser.currentName());
+                if (depth + 1 == MEAL && inMeals()) {
+                    mealType = null;
+                    mealFoodTypes.clear();
+                } else if (depth + 1 == FOOD_ITEM && inFoodItems()) {
+                    itemHasFood = false;
+                }
+            }
+            case END_OBJECT, END_ARRAY -> {
+                if (depth == FOOD_ITEM && inFoodItems() && !itemHasFood) {
+                    reject("food item without a foodSkuId");
+                } else if (depth == MEAL && inMeals()) {
+                    endMeal();
+                } else if (depth == KIT) {
+                    endKit();
+                }
+                path.remove(depth - 1);
+            }
+            case VALUE_STRING -> {
+                if (depth == MEAL && inMeals() && "mealType".equals(parser.currentName())) {
+                    startMeal(parser.getText());
+                }
+            }
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                if (depth == FOOD_ITEM && inFoodItems()) {
+                    if ("foodSkuId".equals(parser.currentName())) {
+                        addFood(parser.getLongValue());
+                    } else if ("quantity".equals(parser.currentName()) && parser.getDoubleValue() <= 0) {
+                        reject("quantity must be positive");
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private boolean inMeals() {
+        return path.size() >= 2 && "meals".equals(path.get(1));
+    }
+
+    private boolean inFoodItems() {
+        return inMeals() && path.size() >= 4 && "foodItems".equals(path.get(3));
+    }
+
+    private void startMeal(String value) {
+        try {
+            mealType = KitMeal.MealType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            reject("unknown meal type " + value);
+            return;
+        }
+        if (!seenMeals.add(mealType)) {
+            reject("meal " + mealType + " appears twice");
+            return;
+        }
+        // Foods listed before the meal type are checked now
+        for (FoodSku.FoodType type : mealFoodTypes) {
+            if (!SLOT_TYPES.get(mealType).contains(type)) {
+                reject(type + " food does not belong in " + mealType);
+                return;
+            }
+        }
+    }
+
+    private void addFood(long foodSkuId) {
+        itemHasFood = true;
+        FoodSku.FoodType type = offeredTypes.get(foodSkuId);
+        if (type == null) {
+            reject("food " + foodSkuId + " was not offered");
+            return;
+        }
+        if (mealFoodTypes.contains(type)) {
+            reject("meal has more than one " + type + " food");
+            return;
+        }
+        mealFoodTypes.add(type);
+        if (mealType != null && !SLOT_TYPES.get(mealType).contains(type)) {
+            reject(type + " food does not belong in " + mealType);
+        }
+    }
+
+    private void endMeal() {
+        if (mealType == null) {
+            reject("meal without a mealType");
+        } else if (mealFoodTypes.size() != SLOT_TYPES.get(mealType).size()) {
+            reject(mealType + " needs one each of " + SLOT_TYPES.get(mealType));
+        }
+    }
+
+    // Every kit has a breakfast, a lunch and a dinner
+    private void endKit() {
+        if (seenMeals.isEmpty()) {
+            reject("kit has no meals");
+            return;
+        }
+        Set<KitMeal.MealType> missing = EnumSet.complementOf(EnumSet.copyOf(seenMeals));
+        if (!missing.isEmpty()) {
+            reject("kit is missing " + missing);
+        } else {
+            complete = true;
+        }
+    }
+
+    private void reject(String reason) {
+        if (violation == null) {
+            violation = reason;
+        }
+    }
+}
@@ -10,14 +10,18 @@ import com.purrpouch.backend.event.OrderEvent;
 import com.purrpouch.backend.event.OrderEvent.OrderEventType;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +39,7 @@ public class OrderService {
     private UserRepository userRepository;
 
     @Autowired
-    private ApplicationEventPublisher eventPublisher;
+    private OutboxService outboxService;
 
     @Autowired
     private UserAddressService userAddressService;
@@ -43,48 +47,48 @@ public class OrderService {
     @Autowired
     private PaymentNotificationService paymentNotificationService;
 
+    @Autowired
+    private KitPricingService kitPricingService;
+
+    @Autowired
+    private KitSnapshotService kitSnapshotService;
+
     /**
      * Create a new order with the provided meal kits
      * 
      * @param userId     User ID
      * @param kitItems   Map of kit IDs and their quantities
-     * @param totalPrice Total price of the order
+     * @param totalPrice Total the client showed, checked against current
+     *                   prices; may be null
      * @return Created order
+     * @throws KitPricingService.PriceMismatchException when the total is off
      */
     @Transactional
     public Order createOrder(Long userId, Map<Long, Integer> kitItems, BigDecimal totalPrice) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found")); // Create the order
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        BigDecimal verifiedTotal = kitPricingService.verifyOrderTotal(kitItems, totalPrice);
+
+        // Create the order
         Order order = new Order();
         order.setUser(user);
-        order.setTotalPrice(totalPrice);
+        order.setTotalPrice(verifiedTotal);
         order.setStatus(Order.OrderStatus.PENDING);
         Order savedOrder = orderRepository.save(order);
 
         // Add kit items to the order
-        for (Map.Entry<Long, Integer> entry : kitItems.entrySet()) {
-            Long kitId = entry.getKey();
-            Integer quantity = entry.getValue();
-
-            FoodKit foodKit = foodKitRepository.findById(kitId)
-                    .orElseThrow(() -> new RuntimeException("Food kit not found: " + kitId));
-
-            OrderKit orderKit = new OrderKit();
-            orderKit.setOrder(savedOrder);
-            orderKit.setFoodKit(foodKit);
-            orderKit.setKitQuantity(quantity);
-            orderKitRepository.save(orderKit);
-        }
+        addOrderKits(savedOrder, kitItems);
 
-        // Publish order created event
-        eventPublisher.publishEvent(new OrderEvent(this, savedOrder, OrderEvent.OrderEventType.CREATED));
+        // Record order created event; listeners run after commit
+        outboxService.record(savedOrder, OrderEvent.OrderEventType.CREATED);
 
         return savedOrder;
     }
 
     /**
      * Create a new order with the provided meal kits, with recurring options and
-     * delivery address ID
+     * delivery address ID. The total is checked like in
+     * {@link #createOrder(Long, Map, BigDecimal)}.
      */
     @Transactional
     public Order createOrderWithDeliveryAddress(Long userId, Map<Long, Integer> kitItems, BigDecimal totalPrice,
@@ -92,6 +96,7 @@ public class OrderService {
             Long deliveryAddressId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        BigDecimal verifiedTotal = kitPricingService.verifyOrderTotal(kitItems, totalPrice);
 
         // Retrieve the UserAddress
         UserAddress userAddress = userAddressService.getAddressById(userId, deliveryAddressId);
@@ -99,7 +104,7 @@ public class OrderService {
         // Create the order
         Order order = new Order();
         order.setUser(user);
-        order.setTotalPrice(totalPrice);
+        order.setTotalPrice(verifiedTotal);
         order.setStatus(Order.OrderStatus.PENDING);
         order.setDeliveryAddress(userAddress); // Set the delivery address reference
 
@@ -117,24 +122,55 @@ public class OrderService {
         Order savedOrder = orderRepository.save(order);
 
         // Add kit items to the order
+        addOrderKits(savedOrder, kitItems);
+
+        // Record order created event with delivery information; listeners run after commit
+        outboxService.record(savedOrder, OrderEvent.OrderEventType.CREATED);
+
+        return savedOrder;
+    }
+
+    /**
+     * Save one order line per kit, loading all the kits at once. Each line
+     * gets a copy of its kit's snapshot, so order pages and SKU analytics read
+     * the line alone. Ordered suggestion kits join the cat's kit list.
+     */
+    private void addOrderKits(Order order, Map<Long, Integer> kitItems) {
+        Map<Long, FoodKit> kits = new HashMap<>();
+        for (FoodKit foodKit : foodKitRepository.findAllById(kitItems.keySet())) {
+            kits.put(foodKit.getId(), foodKit);
+        }
+        Map<Long, BigDecimal> kitPrices = kitPricingService.priceKits(kitItems.keySet());
+        List<OrderKit> orderKits = new ArrayList<>();
         for (Map.Entry<Long, Integer> entry : kitItems.entrySet()) {
             Long kitId = entry.getKey();
-            Integer quantity = entry.getValue();
-
-            FoodKit foodKit = foodKitRepository.findById(kitId)
-                    .orElseThrow(() -> new RuntimeException("Food kit not found: " + kitId));
+            FoodKit foodKit = kits.get(kitId);
+            if (foodKit == null) {
+                throw new RuntimeException("Food kit not found: " + kitId);
+            }
+            // An ordered suggestion becomes one of the cat's kits
+            foodKit.setSuggestion(false);
+            // Kits older than snapshots, or priced before the catalog changed
+            if (kitSnapshotService.isStale(foodKit)) {
+                foodKit = kitSnapshotService.refresh(foodKit);
+            }
+            int quantity = entry.getValue();
+            BigDecimal unitPrice = kitPrices.getOrDefault(kitId, foodKit.getPrice());
 
             OrderKit orderKit = new OrderKit();
-            orderKit.setOrder(savedOrder);
+            orderKit.setOrder(order);
             orderKit.setFoodKit(foodKit);
             orderKit.setKitQuantity(quantity);
-            orderKitRepository.save(orderKit);
+            orderKit.setUnitPrice(unitPrice);
+            orderKit.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            orderKit.setComposition(foodKit.getComposition());
+            for (KitSkuLine line : foodKit.getSkuLines()) {
+                orderKit.getSkuLines().add(new KitSkuLine(line.getFoodSkuId(), line.getSkuName(),
+                        line.getQuantity().multiply(BigDecimal.valueOf(quantity)), line.getUnitPrice()));
+            }
+            orderKits.add(orderKit);
         }
-
-        // Publish order created event with delivery information
-        eventPublisher.publishEvent(new OrderEvent(this, savedOrder, OrderEvent.OrderEventType.CREATED));
-
-        return savedOrder;
+        orderKitRepository.saveAll(orderKits);
     }
 
     /**
@@ -179,11 +215,17 @@ public class OrderService {
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        boolean newlyPaid = status == Order.OrderStatus.PAID && order.getStatus() != Order.OrderStatus.PAID;
         order.setStatus(status);
 
         // Save the order with updated status
         Order updatedOrder = orderRepository.save(order);
 
+        // Paid orders get their deliveries scheduled by DeliverySchedulerService
+        if (newlyPaid) {
+            outboxService.record(updatedOrder, OrderEvent.OrderEventType.PAID);
+        }
+
         // Send WebSocket notification about the status change
         paymentNotificationService.sendPaymentStatusUpdate(orderId, status.toString());
 
@@ -209,18 +251,7 @@ public class OrderService {
      * Calculate the next delivery date based on frequency
      */
     private LocalDateTime calculateNextDeliveryDate(LocalDateTime fromDate, Order.RecurringFrequency frequency) {
-        switch (frequency) {
-            case DAILY:
-                return fromDate.plusDays(1);
-            case WEEKLY:
-                return fromDate.plusWeeks(1);
-            case BIWEEKLY:
-                return fromDate.plusWeeks(2);
-            case MONTHLY:
-                return fromDate.plusMonths(1);
-            default:
-                return fromDate.plusDays(1);
-        }
+        return frequency.advance(fromDate);
     }
 
     /**
@@ -233,28 +264,37 @@ public class OrderService {
     }
 
     /**
-     * Create a new instance of a recurring order
+     * Create a new instance of a recurring order for one delivery period,
+     * priced at current prices. The instance is paid on its own and gets its
+     * delivery once paid, like any one-off order.
+     *
+     * @param deliveryDate Delivery slot of the period
      */
     @Transactional
-    public Order createRecurringOrderInstance(Order parentOrder) {
+    public Order createRecurringOrderInstance(Order parentOrder, LocalDateTime deliveryDate) {
+        List<OrderKit> parentKits = orderKitRepository.findByOrderId(parentOrder.getId());
+        Map<Long, Integer> kitItems = new LinkedHashMap<>();
+        for (OrderKit parentKit : parentKits) {
+            kitItems.merge(parentKit.getFoodKit().getId(), parentKit.getKitQuantity(), Integer::sum);
+        }
+
         // Create a new order based on the parent
         Order newOrder = new Order();
         newOrder.setUser(parentOrder.getUser());
-        newOrder.setTotalPrice(parentOrder.getTotalPrice());
+        newOrder.setTotalPrice(kitPricingService.priceOrder(kitItems));
         newOrder.setStatus(Order.OrderStatus.PENDING);
         newOrder.setRecurring(false); // This is a one-time instance
         newOrder.setParentOrder(parentOrder);
+        newOrder.setDeliveryAddress(parentOrder.getDeliveryAddress());
+        newOrder.setPreferredDeliveryTime(parentOrder.getPreferredDeliveryTime());
+        newOrder.setNextDeliveryDate(deliveryDate);
         Order savedOrder = orderRepository.save(newOrder);
 
-        // Copy the kit items
-        List<OrderKit> parentKits = orderKitRepository.findByOrderId(parentOrder.getId());
-        for (OrderKit parentKit : parentKits) {
-            OrderKit newKit = new OrderKit();
-            newKit.setOrder(savedOrder);
-            newKit.setFoodKit(parentKit.getFoodKit());
-            newKit.setKitQuantity(parentKit.getKitQuantity());
-            orderKitRepository.save(newKit);
-        }
+        // Copy the kit items with the kits' current snapshots
+        addOrderKits(savedOrder, kitItems);
+
+        // Record order created event; listeners run after commit
+        outboxService.record(savedOrder, OrderEvent.OrderEventType.CREATED);
 
         return savedOrder;
     }
@@ -334,11 +374,22 @@ public class OrderService {
     public Order updateOrderStatusByAdmin(Long orderId, OrderStatus newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        boolean newlyPaid = newStatus == OrderStatus.PAID && order.getStatus() != OrderStatus.PAID;
         order.setStatus(newStatus);
 
         Order savedOrder = orderRepository.save(order);
-        // Publish order status change event for notifications
-        eventPublisher.publishEvent(new OrderEvent(this, savedOrder, OrderEventType.UPDATED));
+        // Record order status change event for notifications
+        outboxService.record(savedOrder, OrderEventType.UPDATED);
+        if (newlyPaid) {
+            outboxService.record(savedOrder, OrderEventType.PAID);
+        }
+        // The owner only hears about a change that committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                paymentNotificationService.sendPaymentStatusUpdate(orderId, newStatus.name());
+            }
+        });
 
         return savedOrder;
     }
@@ -0,0 +1,306 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.model.OutboxEvent;
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for order events. Events are stored with the order
+ * change and relayed to ApplicationEventPublisher listeners after commit, in
+ * batches, at least once, and in order per order. Listeners must therefore be
+ * idempotent.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay-threads:4}")
+    private int relayThreads;
+
+    @Value("${app.outbox.claim-lease-seconds:60}")
+    private long claimLeaseSeconds;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile long lastBatchSize;
+
+    private volatile long lastBatchMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate requiresNewTemplate;
+
+    private ExecutorService relayExecutor;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Virtual threads in virtual-thread mode (Java 21+); the pool size still bounds DB connections used
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("outbox-relay-").getVirtualThreadFactory()
+                : Executors.defaultThreadFactory();
+        relayExecutor = Executors.newFixedThreadPool(relayThreads, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayExecutor.shutdown();
+    }
+
+    /**
+     * Store an order event in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderEvent.OrderEventType eventType) {
+        outboxEventRepository.save(new OutboxEvent(order.getId(), eventType));
+    }
+
+    /**
+     * Store the same event for several orders in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Long> orderIds, OrderEvent.OrderEventType eventType) {
+        outboxEventRepository.saveAll(orderIds.stream().map(id -> new OutboxEvent(id, eventType)).toList());
+    }
+
+    /**
+     * Relay pending events until the outbox is drained or nothing more can be claimed
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Claim one batch and dispatch it, one task per order
+     *
+     * @return number of events claimed
+     */
+    public int relayBatch() {
+        long start = System.currentTimeMillis();
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> claimBatch());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<OutboxEvent>> byOrder = new LinkedHashMap<>();
+        for (OutboxEvent event : claimed) {
+            byOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event);
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (List<OutboxEvent> events : byOrder.values()) {
+            tasks.add(() -> {
+                dispatchInOrder(events);
+                return null;
+            });
+        }
+        try {
+            relayExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lastBatchSize = claimed.size();
+        lastBatchMillis = System.currentTimeMillis() - start;
+        return claimed.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> candidates = outboxEventRepository.findClaimable(now, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        // Only take an order's events when its oldest pending event is among them,
+        // otherwise another relay is still working through that order
+        Map<Long, Long> headIds = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findHeadEventIds(
+                candidates.stream().map(OutboxEvent::getOrderId).distinct().toList())) {
+            headIds.put((Long) row[0], (Long) row[1]);
+        }
+        Set<Long> candidateIds = candidates.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+
+        List<OutboxEvent> claimed = new ArrayList<>();
+        LocalDateTime claimedUntil = now.plusSeconds(claimLeaseSeconds);
+        for (OutboxEvent event : candidates) {
+            if (candidateIds.contains(headIds.get(event.getOrderId()))) {
+                event.setClaimedBy(nodeId);
+                event.setClaimedUntil(claimedUntil);
+                claimed.add(event);
+            }
+        }
+        return outboxEventRepository.saveAll(claimed);
+    }
+
+    private void dispatchInOrder(List<OutboxEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                requiresNewTemplate.executeWithoutResult(status -> dispatch(event.getId()));
+                published.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                logger.warn("Order event {} for order {} failed: {}", event.getId(), event.getOrderId(),
+                        e.getMessage());
+                requiresNewTemplate.executeWithoutResult(status -> recordFailure(event.getId(), e));
+                // Later events of this order wait for the failed one to be retried
+                List<OutboxEvent> remaining = events.subList(i + 1, events.size());
+                requiresNewTemplate.executeWithoutResult(status -> release(remaining));
+                return;
+            }
+        }
+    }
+
+    // Listeners run in this transaction, so their writes commit together with the published mark
+    private void dispatch(Long eventId) {
+        OutboxEvent event = outboxEventRepository.findById(eventId).orElseThrow();
+        if (event.getPublishedAt() != null) {
+            return;
+        }
+        Order order = orderRepository.findById(event.getOrderId())
+                .orElseThrow(() -> new IllegalStateException("Order not found: " + event.getOrderId()));
+        eventPublisher.publishEvent(new OrderEvent(this, order, event.getEventType()));
+
+        event.setPublishedAt(LocalDateTime.now());
+        event.setClaimedBy(null);
+        event.setClaimedUntil(null);
+    }
+
+    private void recordFailure(Long eventId, RuntimeException error) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            // Hold the claim for an exponential backoff before the next attempt
+            event.setClaimedBy(null);
+            event.setClaimedUntil(LocalDateTime.now()
+                    .plusSeconds(Math.min(1L << Math.min(event.getAttempts() - 1, 8), MAX_BACKOFF_SECONDS)));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setDeadAt(LocalDateTime.now());
+                logger.error("Order event {} gave up after {} attempts", event.getId(), event.getAttempts());
+            }
+        });
+    }
+
+    private void release(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            outboxEventRepository.findById(event.getId()).ifPresent(pending -> {
+                pending.setClaimedBy(null);
+                pending.setClaimedUntil(null);
+            });
+        }
+    }
+
+    /**
+     * Mark events from an id onward, optionally for one order, as pending again
+     *
+     * @return number of events that will be relayed again
+     */
+    @Transactional
+    public int replay(Long fromEventId, Long orderId) {
+        int reset = outboxEventRepository.resetForReplay(fromEventId != null ? fromEventId : 0L, orderId);
+        logger.info("Replaying {} order events from id {} (order {})", reset, fromEventId, orderId);
+        return reset;
+    }
+
+    /**
+     * Delete published events past the retention period
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        logger.info("Purged {} published order events", deleted);
+    }
+
+    /**
+     * Get backlog size, consumer lag and relay counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxEventRepository.countByPublishedAtIsNullAndDeadAtIsNull());
+        stats.put("dead", outboxEventRepository.countByDeadAtIsNotNull());
+        stats.put("lagSeconds", outboxEventRepository.findFirstByPublishedAtIsNullAndDeadAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+        stats.put("published", published.get());
+        stats.put("failed", failed.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastBatchMillis", lastBatchMillis);
+        return stats;
+    }
+}
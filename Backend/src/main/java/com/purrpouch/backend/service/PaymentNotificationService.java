@@ -1,25 +1,74 @@
 package com.purrpouch.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Pushes payment status updates over WebSocket. Updates are queued and
+ * flushed on a short interval: repeated statuses for an order are coalesced,
+ * and all updates for one user in a flush go out as a single frame.
+ */
 @Service
 public class PaymentNotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentNotificationService.class);
 
+    public static final String USER_PAYMENTS_QUEUE = "/queue/payments";
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // A status already sent for an order is dropped if it repeats within this window
+    @Value("${app.payment-notifications.dedupe-window-ms:5000}")
+    private long dedupeWindowMs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Object pendingLock = new Object();
+
+    private Map<Long, Map<String, Object>> pending = new LinkedHashMap<>();
+
+    // Held across the owner lookup and broker sends; a lock, not a monitor, so virtual threads don't pin
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // orderId -> last status sent and when; only touched while flushing
+    private final Map<Long, SentStatus> recentlySent = new HashMap<>();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong framesSent = new AtomicLong();
+
     /**
-     * Send a payment status update via WebSocket
-     * 
+     * Queue a payment status update for the order's topic and the owner's
+     * payment queue. Only the owner can subscribe to either.
+     *
      * @param orderId The order ID
      * @param status  The payment status (PENDING, PAID, FAILED)
      */
@@ -29,12 +78,117 @@ public class PaymentNotificationService {
         payload.put("status", status);
         payload.put("timestamp", System.currentTimeMillis());
 
-        logger.info("Sending payment update for order {}: {}", orderId, status);
+        logger.info("Queueing payment update for order {}: {}", orderId, status);
+        requested.incrementAndGet();
+
+        synchronized (pendingLock) {
+            // The latest status for an order replaces any update still waiting
+            if (pending.put(orderId, payload) != null) {
+                coalesced.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Send everything queued since the last flush
+     */
+    @Scheduled(fixedDelayString = "${app.payment-notifications.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Map<String, Object>> batch;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            long now = System.currentTimeMillis();
+            recentlySent.values().removeIf(sent -> now - sent.sentAt > dedupeWindowMs);
+
+            List<Map<String, Object>> updates = new ArrayList<>();
+            for (Map<String, Object> payload : batch.values()) {
+                Long orderId = (Long) payload.get("orderId");
+                String status = (String) payload.get("status");
+                SentStatus last = recentlySent.get(orderId);
+                if (last != null && last.status.equals(status)) {
+                    coalesced.incrementAndGet();
+                    continue;
+                }
+                recentlySent.put(orderId, new SentStatus(status, now));
+                updates.add(payload);
+
+                // Send to a topic specific to this order
+                messagingTemplate.send("/topic/payment/" + orderId, toJsonMessage(payload));
+                framesSent.incrementAndGet();
+            }
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            // One frame per owner, covering all of their orders in this flush
+            Map<Long, Map<String, Object>> updatesByOrder = new HashMap<>();
+            updates.forEach(payload -> updatesByOrder.put((Long) payload.get("orderId"), payload));
+            Map<String, List<Map<String, Object>>> updatesByUser = new LinkedHashMap<>();
+            for (OrderRepository.OrderOwner owner : orderRepository.findOwnersByIdIn(updatesByOrder.keySet())) {
+                updatesByUser.computeIfAbsent(owner.getEmail(), email -> new ArrayList<>())
+                        .add(updatesByOrder.get(owner.getOrderId()));
+            }
+            for (Map.Entry<String, List<Map<String, Object>>> entry : updatesByUser.entrySet()) {
+                messagingTemplate.send(userDestination(entry.getKey(), USER_PAYMENTS_QUEUE),
+                        toJsonMessage(Map.of("updates", entry.getValue())));
+                framesSent.incrementAndGet();
+            }
+            logger.info("Sent {} payment updates to {} users", updates.size(), updatesByUser.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Get requested, coalesced and sent frame counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requested", requested.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("framesSent", framesSent.get());
+        synchronized (pendingLock) {
+            stats.put("pending", pending.size());
+        }
+        return stats;
+    }
+
+    // Serialized once per frame; all subscribers of the destination share the bytes
+    private Message<byte[]> toJsonMessage(Object payload) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payment update is not serializable", e);
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    /**
+     * Same destination SimpMessagingTemplate.convertAndSendToUser builds, for a
+     * payload that is already serialized
+     */
+    private String userDestination(String user, String destination) {
+        return messagingTemplate.getUserDestinationPrefix() + StringUtils.replace(user, "/", "%2F") + destination;
+    }
 
-        // Send to a topic specific to this order
-        messagingTemplate.convertAndSend("/topic/payment/" + orderId, payload);
+    private static class SentStatus {
+        private final String status;
+        private final long sentAt;
 
-        // Also send to a general payment updates topic
-        messagingTemplate.convertAndSend("/topic/payments", payload);
+        SentStatus(String status, long sentAt) {
+            this.status = status;
+            this.sentAt = sentAt;
+        }
     }
 }
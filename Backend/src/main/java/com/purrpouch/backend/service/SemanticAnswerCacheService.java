@@ -0,0 +1,292 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.ChatResponse;
+import com.purrpouch.backend.util.FlatVectorIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reuses chat answers across near-duplicate questions. Questions are
+ * normalized and embedded; a new question is answered from the cache when a
+ * stored one for the same kind of cat is similar enough. Cats are matched on
+ * a coarse signature of their dietary needs and allergies, so an answer is
+ * never reused for a cat with different restrictions.
+ */
+@Service
+public class SemanticAnswerCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticAnswerCacheService.class);
+
+    @Autowired
+    private EmbeddingModel embeddingModel;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.chat.answer-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.answer-cache.similarity-threshold:0.92}")
+    private double similarityThreshold;
+
+    @Value("${app.chat.answer-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.chat.answer-cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Access-ordered so the least recently used answer is evicted first
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // One index per cat signature; guarded by entries
+    private final Map<String, FlatVectorIndex<Long>> indexes = new HashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter bypasses;
+    private Timer savedLatency;
+
+    @PostConstruct
+    public void init() {
+        hits = counter("hit");
+        misses = counter("miss");
+        bypasses = counter("bypass");
+        savedLatency = Timer.builder("purrpouch.chat.answer_cache.saved")
+                .description("LLM latency avoided by answering from the cache")
+                .register(meterRegistry);
+        Gauge.builder("purrpouch.chat.answer_cache.entries", this, SemanticAnswerCacheService::size)
+                .description("Answers held by the semantic answer cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look a question up. The returned lookup carries the embedding, so a miss
+     * can be stored without embedding the question again.
+     *
+     * @param bypass Skip the lookup; the fresh answer is still stored
+     */
+    public Lookup lookup(String question, String catSignature, boolean bypass) {
+        if (!enabled) {
+            return new Lookup(null, null, catSignature, null);
+        }
+        String normalized = normalize(question);
+        float[] vector;
+        try {
+            vector = embeddingModel.embed(normalized);
+        } catch (Exception e) {
+            logger.warn("Could not embed chat question: {}", e.getMessage());
+            return new Lookup(null, null, catSignature, null);
+        }
+        if (bypass) {
+            bypasses.increment();
+            return new Lookup(normalized, vector, catSignature, null);
+        }
+
+        Entry hit = null;
+        double similarity = 0;
+        synchronized (entries) {
+            FlatVectorIndex<Long> index = indexes.get(catSignature);
+            List<FlatVectorIndex.Match<Long>> nearest = index != null
+                    ? index.nearest(vector, 1, similarityThreshold)
+                    : List.of();
+            if (!nearest.isEmpty()) {
+                Entry entry = entries.get(nearest.get(0).key());
+                if (entry != null && !entry.isExpired(ttlMinutes)) {
+                    hit = entry;
+                    similarity = nearest.get(0).similarity();
+                }
+            }
+        }
+
+        if (hit == null) {
+            misses.increment();
+            return new Lookup(normalized, vector, catSignature, null);
+        }
+        hits.increment();
+        savedLatency.record(Duration.ofNanos(hit.latencyNanos));
+        logger.info("Chat answer cache hit: similarity {} for \"{}\" matched \"{}\"",
+                String.format(Locale.ROOT, "%.3f", similarity), normalized, hit.question);
+        return new Lookup(normalized, vector, catSignature,
+                new ChatResponse(hit.message, List.copyOf(hit.recommendations), true));
+    }
+
+    /**
+     * Cache the answer to a question that missed
+     *
+     * @param latencyNanos How long the LLM took, reported as saved on later hits
+     */
+    public void store(Lookup lookup, ChatResponse response, long latencyNanos) {
+        if (lookup.vector == null || !response.isSuccess()) {
+            return;
+        }
+        Entry entry = new Entry(nextId.incrementAndGet(), lookup.question, lookup.catSignature,
+                response.getMessage(), List.copyOf(response.getRecommendations()), latencyNanos);
+        synchronized (entries) {
+            FlatVectorIndex<Long> index = indexes.computeIfAbsent(entry.catSignature,
+                    signature -> new FlatVectorIndex<>(lookup.vector.length));
+            // A fresh answer replaces the one it would have been served from
+            for (FlatVectorIndex.Match<Long> match : index.nearest(lookup.vector, 1, similarityThreshold)) {
+                index.remove(match.key());
+                entries.remove(match.key());
+            }
+            entries.put(entry.id, entry);
+            index.put(entry.id, lookup.vector);
+            if (entries.size() > maxEntries) {
+                Iterator<Entry> iterator = entries.values().iterator();
+                removeFromIndex(iterator.next());
+                iterator.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("signatures", indexes.size());
+        }
+        double lookups = hits.count() + misses.count();
+        stats.put("hits", (long) hits.count());
+        stats.put("misses", (long) misses.count());
+        stats.put("bypasses", (long) bypasses.count());
+        stats.put("hitRate", lookups > 0 ? hits.count() / lookups : 0.0);
+        stats.put("savedLatencySeconds", savedLatency.totalTime(TimeUnit.SECONDS));
+        return stats;
+    }
+
+    /**
+     * Drop answers older than the TTL
+     */
+    @Scheduled(fixedDelayString = "${app.chat.answer-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.isExpired(ttlMinutes)) {
+                    removeFromIndex(entry);
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired chat answers", evicted);
+        }
+    }
+
+    // Callers hold the entries lock
+    private void removeFromIndex(Entry entry) {
+        FlatVectorIndex<Long> index = indexes.get(entry.catSignature);
+        if (index != null) {
+            index.remove(entry.id);
+            if (index.size() == 0) {
+                indexes.remove(entry.catSignature);
+            }
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("purrpouch.chat.answer_cache.lookups")
+                .description("Semantic answer cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lower-case, drop punctuation and collapse whitespace, so trivial
+     * variations of a question embed the same
+     */
+    static String normalize(String question) {
+        return question.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * The embedded question of a lookup and, on a hit, the cached answer
+     */
+    public static class Lookup {
+        private final String question;
+        private final float[] vector;
+        private final String catSignature;
+        private final ChatResponse response;
+
+        Lookup(String question, float[] vector, String catSignature, ChatResponse response) {
+            this.question = question;
+            this.vector = vector;
+            this.catSignature = catSignature;
+            this.response = response;
+        }
+
+        public boolean isHit() {
+            return response != null;
+        }
+
+        /**
+         * Whether an answer generated after this lookup would be stored; false
+         * when the cache is disabled or the question could not be embedded
+         */
+        public boolean isStorable() {
+            return vector != null;
+        }
+
+        public ChatResponse getResponse() {
+            return response;
+        }
+    }
+
+    private static class Entry {
+        private final long id;
+        private final String question;
+        private final String catSignature;
+        private final String message;
+        private final List<String> recommendations;
+        private final long latencyNanos;
+        private final long createdAt = System.currentTimeMillis();
+
+        Entry(long id, String question, String catSignature, String message, List<String> recommendations,
+                long latencyNanos) {
+            this.id = id;
+            this.question = question;
+            this.catSignature = catSignature;
+            this.message = message;
+            this.recommendations = recommendations;
+            this.latencyNanos = latencyNanos;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return createdAt < System.currentTimeMillis() - ttlMinutes * 60_000L;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -38,8 +39,8 @@ public class SmsService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
-    public SmsService() {
-        this.restTemplate = new RestTemplate();
+    public SmsService(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder.build();
         this.objectMapper = new ObjectMapper();
     }
 
@@ -0,0 +1,120 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.config.ClusterFanOutInterceptor;
+import com.purrpouch.backend.config.WebSocketConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks live STOMP subscriptions on this node, per destination
+ */
+@Service
+public class WebSocketStatsService {
+
+    private static final int TOP_DESTINATIONS = 20;
+
+    @Autowired
+    private WebSocketMessageBrokerStats brokerStats;
+
+    @Autowired
+    private WebSocketConfig webSocketConfig;
+
+    @Autowired
+    private ObjectProvider<ClusterFanOutInterceptor> clusterFanOutInterceptor;
+
+    @Autowired
+    private PaymentNotificationService paymentNotificationService;
+
+    // sessionId -> subscriptionId -> destination
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> subscribersByDestination = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || destination == null) {
+            return;
+        }
+        String previous = subscriptionsBySession
+                .computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        subscribersByDestination.merge(destination, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String destination) {
+        subscribersByDestination.computeIfPresent(destination, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public int getSubscriberCount(String destination) {
+        return subscribersByDestination.getOrDefault(destination, 0);
+    }
+
+    /**
+     * Get broker mode, executor and per-destination subscriber statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("brokerMode", webSocketConfig.getBrokerMode());
+        stats.put("sessionsWithSubscriptions", subscriptionsBySession.size());
+        stats.put("subscriptions", subscribersByDestination.values().stream().mapToInt(Integer::intValue).sum());
+        stats.put("destinations", subscribersByDestination.size());
+        stats.put("topDestinations", subscribersByDestination.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(TOP_DESTINATIONS)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a,
+                        LinkedHashMap::new)));
+        stats.put("webSocketSessions", brokerStats.getWebSocketSessionStatsInfo());
+        stats.put("stompBroker", brokerStats.getStompBrokerRelayStatsInfo());
+        stats.put("inboundChannel", brokerStats.getClientInboundExecutorStatsInfo());
+        stats.put("outboundChannel", brokerStats.getClientOutboundExecutorStatsInfo());
+        stats.put("paymentNotifications", paymentNotificationService.getStats());
+
+        ClusterFanOutInterceptor cluster = clusterFanOutInterceptor.getIfAvailable();
+        if (cluster != null) {
+            Map<String, Object> clusterStats = new LinkedHashMap<>();
+            clusterStats.put("nodeId", cluster.getNodeId());
+            clusterStats.put("published", cluster.getPublishedCount());
+            clusterStats.put("received", cluster.getReceivedCount());
+            stats.put("cluster", clusterStats);
+        }
+        return stats;
+    }
+}
@@ -24,9 +24,6 @@ public class WebhookService {
     @Autowired
     private OrderService orderService;
 
-    @Autowired
-    private PaymentNotificationService paymentNotificationService;
-
     /**
      * Process VietQR payment webhook notification
      * Also handles Pay2S webhook format (same structure)
@@ -69,11 +66,9 @@ public class WebhookService {
                         order != null ? "Order ID " + order.getId() + " (Status: " + order.getStatus() + ")"
                                 : "Not found");
                 if (order != null && order.getStatus() == Order.OrderStatus.PENDING) {
+                    // Also pushes the PAID notification to the owner
                     orderService.updateOrderStatus(order.getId(), Order.OrderStatus.PAID);
 
-                    // Send WebSocket notification of payment update
-                    paymentNotificationService.sendPaymentStatusUpdate(order.getId(), "PAID");
-
                     // // Verify payment amount matches order total
                     // if (order.getTotalPrice().doubleValue()) {
                     // // Update order status to PAID
@@ -103,7 +98,7 @@ public class WebhookService {
      * dich..."
      * Returns UUID without dashes to match database storage format
      */
-    private String extractUuidFromContent(String content) {
+    String extractUuidFromContent(String content) {
         if (content == null)
             return null;
 
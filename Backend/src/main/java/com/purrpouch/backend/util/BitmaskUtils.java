@@ -0,0 +1,34 @@
+package com.purrpouch.backend.util;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Conversions between enum sets and long bitmasks. Bit n is set when the
+ * constant with ordinal n is present, so enums must have at most 64 constants.
+ */
+public final class BitmaskUtils {
+
+    private BitmaskUtils() {
+    }
+
+    public static <E extends Enum<E>> long toMask(Collection<E> values) {
+        long mask = 0L;
+        if (values != null) {
+            for (E value : values) {
+                mask |= 1L << value.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    public static <E extends Enum<E>> EnumSet<E> fromMask(long mask, Class<E> type) {
+        EnumSet<E> values = EnumSet.noneOf(type);
+        for (E value : type.getEnumConstants()) {
+            if ((mask & (1L << value.ordinal())) != 0) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+}
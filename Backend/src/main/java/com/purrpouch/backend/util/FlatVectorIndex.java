@@ -0,0 +1,157 @@
+package com.purrpouch.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Exact nearest-neighbour index over unit vectors. Rows are stored back to
+ * back in one float array, so a scan is a tight dot-product loop the JIT can
+ * vectorize; for a few thousand rows that beats a graph index and needs no
+ * tuning. Similarity is cosine. Not thread-safe.
+ */
+public class FlatVectorIndex<K> {
+
+    private final int dimensions;
+
+    private float[] vectors;
+
+    private final List<K> keys = new ArrayList<>();
+
+    private final Map<K, Integer> rows = new HashMap<>();
+
+    public FlatVectorIndex(int dimensions) {
+        this(dimensions, 16);
+    }
+
+    public FlatVectorIndex(int dimensions, int initialCapacity) {
+        this.dimensions = dimensions;
+        this.vectors = new float[dimensions * Math.max(initialCapacity, 1)];
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public boolean contains(K key) {
+        return rows.containsKey(key);
+    }
+
+    /**
+     * Add or replace the vector of a key; the vector is copied and normalized
+     */
+    public void put(K key, float[] vector) {
+        float[] unit = normalize(vector);
+        Integer row = rows.get(key);
+        if (row == null) {
+            row = keys.size();
+            if ((row + 1) * dimensions > vectors.length) {
+                vectors = Arrays.copyOf(vectors, vectors.length * 2);
+            }
+            keys.add(key);
+            rows.put(key, row);
+        }
+        System.arraycopy(unit, 0, vectors, row * dimensions, dimensions);
+    }
+
+    /**
+     * Remove a key; the last row moves into its place
+     */
+    public boolean remove(K key) {
+        Integer row = rows.remove(key);
+        if (row == null) {
+            return false;
+        }
+        int last = keys.size() - 1;
+        if (row != last) {
+            K moved = keys.get(last);
+            System.arraycopy(vectors, last * dimensions, vectors, row * dimensions, dimensions);
+            keys.set(row, moved);
+            rows.put(moved, row);
+        }
+        keys.remove(last);
+        return true;
+    }
+
+    /**
+     * Stored unit vector of a key, or null
+     */
+    public float[] get(K key) {
+        Integer row = rows.get(key);
+        return row != null ? Arrays.copyOfRange(vectors, row * dimensions, (row + 1) * dimensions) : null;
+    }
+
+    /**
+     * Cosine similarity between a key's vector and a query, or NaN when the
+     * key is not indexed
+     */
+    public double similarity(K key, float[] query) {
+        Integer row = rows.get(key);
+        return row != null ? dot(row, normalize(query)) : Double.NaN;
+    }
+
+    /**
+     * The k keys most similar to the query with at least the given
+     * similarity, best first
+     */
+    public List<Match<K>> nearest(float[] query, int k, double minSimilarity) {
+        if (k <= 0 || keys.isEmpty()) {
+            return List.of();
+        }
+        float[] unit = normalize(query);
+        PriorityQueue<Match<K>> best = new PriorityQueue<>(Comparator.comparingDouble(Match::similarity));
+        for (int row = 0; row < keys.size(); row++) {
+            double similarity = dot(row, unit);
+            if (similarity < minSimilarity) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Match<>(keys.get(row), similarity));
+            } else if (similarity > best.peek().similarity()) {
+                best.poll();
+                best.add(new Match<>(keys.get(row), similarity));
+            }
+        }
+        List<Match<K>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble((Match<K> match) -> match.similarity()).reversed());
+        return result;
+    }
+
+    private double dot(int row, float[] unit) {
+        int offset = row * dimensions;
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += vectors[offset + i] * unit[i];
+        }
+        return sum;
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] unit = new float[dimensions];
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                unit[i] = vector[i] * scale;
+            }
+        }
+        return unit;
+    }
+
+    public record Match<K>(K key, double similarity) {
+    }
+}
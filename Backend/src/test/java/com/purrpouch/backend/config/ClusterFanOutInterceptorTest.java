@@ -0,0 +1,134 @@
+package com.purrpouch.backend.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs three broker nodes in one JVM, joined by an in-memory bus that
+ * serializes messages the same way the Redis bus does.
+ */
+class ClusterFanOutInterceptorTest {
+
+    @Test
+    void paymentUpdateReachesSubscribersOnEveryNode() throws Exception {
+        InMemoryBus bus = new InMemoryBus();
+        Node nodeA = new Node(bus);
+        Node nodeB = new Node(bus);
+        Node nodeC = new Node(bus);
+
+        nodeA.subscribe("session-a", "/topic/payment/42");
+        nodeB.subscribe("session-b", "/topic/payment/42");
+        nodeC.subscribe("session-c", "/topic/payment/7");
+
+        nodeA.publish("/topic/payment/42", Map.of("orderId", 42, "status", "PAID"));
+
+        assertThat(nodeA.deliveredTo("session-a")).hasSize(1);
+        assertThat(nodeB.deliveredTo("session-b")).hasSize(1);
+        assertThat(nodeC.deliveredTo("session-c")).isEmpty();
+
+        Map<String, Object> payload = new ObjectMapper().readValue(
+                (byte[]) nodeB.deliveredTo("session-b").get(0).getPayload(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        assertThat(payload).containsEntry("status", "PAID");
+
+        // Published once by the origin, replayed once on each other node and never echoed back
+        assertThat(nodeA.interceptor.getPublishedCount()).isEqualTo(1);
+        assertThat(nodeA.interceptor.getReceivedCount()).isZero();
+        assertThat(nodeB.interceptor.getReceivedCount()).isEqualTo(1);
+        assertThat(nodeB.interceptor.getPublishedCount()).isZero();
+        assertThat(nodeC.interceptor.getReceivedCount()).isEqualTo(1);
+        assertThat(bus.published).isEqualTo(1);
+    }
+
+    private static class Node {
+        private final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        private final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        private final ClusterFanOutInterceptor interceptor = new ClusterFanOutInterceptor();
+        private final SimpleBrokerMessageHandler broker;
+        private final SimpMessagingTemplate messagingTemplate;
+        private final List<Message<?>> delivered = new CopyOnWriteArrayList<>();
+
+        Node(ClusterMessageBus bus) {
+            ReflectionTestUtils.setField(interceptor, "clusterMessageBus", bus);
+            ReflectionTestUtils.setField(interceptor, "brokerChannel", brokerChannel);
+            interceptor.subscribe();
+            brokerChannel.addInterceptor(interceptor);
+
+            broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+            broker.start();
+            clientOutbound.subscribe(delivered::add);
+
+            messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+            messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+        }
+
+        void subscribe(String sessionId, String destination) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId(sessionId);
+            clientInbound.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(destination);
+            clientInbound.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+
+        void publish(String destination, Object payload) {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+
+        List<Message<?>> deliveredTo(String sessionId) {
+            return delivered.stream()
+                    .filter(message -> SimpMessageHeaderAccessor.getMessageType(message.getHeaders())
+                            == SimpMessageType.MESSAGE)
+                    .filter(message -> sessionId.equals(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())))
+                    .toList();
+        }
+    }
+
+    private static class InMemoryBus implements ClusterMessageBus {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final List<Consumer<ClusterMessage>> listeners = new CopyOnWriteArrayList<>();
+        private int published;
+
+        @Override
+        public void publish(ClusterMessage message) {
+            published++;
+            try {
+                byte[] wire = objectMapper.writeValueAsBytes(message);
+                for (Consumer<ClusterMessage> listener : listeners) {
+                    listener.accept(objectMapper.readValue(wire, ClusterMessage.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void subscribe(Consumer<ClusterMessage> listener) {
+            listeners.add(listener);
+        }
+    }
+}
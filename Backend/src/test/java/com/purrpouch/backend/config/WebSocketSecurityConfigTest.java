@@ -0,0 +1,83 @@
+package com.purrpouch.backend.config;
+
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.service.MealKitJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketSecurityConfigTest {
+
+    private static final String OWNER = "owner@example.com";
+    private static final String JOB_ID = "3f2b8c1e-0d4a-4e7b-9c61-5a2f0e9d7b43";
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MealKitJobService mealKitJobService = mock(MealKitJobService.class);
+
+    private WebSocketSecurityConfig interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new WebSocketSecurityConfig();
+        ReflectionTestUtils.setField(interceptor, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(interceptor, "mealKitJobService", mealKitJobService);
+        when(orderRepository.existsByIdAndUserEmail(42L, OWNER)).thenReturn(true);
+        when(mealKitJobService.isOwnedBy(JOB_ID, OWNER)).thenReturn(true);
+    }
+
+    @Test
+    void ownDestinationsAreAllowed() {
+        assertThatCode(() -> subscribe("/user/queue/payments")).doesNotThrowAnyException();
+        assertThatCode(() -> subscribe("/topic/payment/42")).doesNotThrowAnyException();
+        assertThatCode(() -> subscribe(MealKitJobService.JOB_TOPIC + JOB_ID)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void patternAndUnknownDestinationsAreRejected() {
+        for (String destination : new String[] {"/topic/**", "/topic/*/42", "/topic/payment/*",
+                "/topic/payment/{id}", "/topic/payment.#", "/topic/payments", "/queue/payments-usersession-1"}) {
+            assertThatThrownBy(() -> subscribe(destination)).as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+    @Test
+    void anotherUsersOrderIsRejected() {
+        assertThatThrownBy(() -> subscribe("/topic/payment/7")).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void jobTopicPatternsAndOtherUsersJobsAreRejected() {
+        for (String destination : new String[] {"/topic/meal-kit-jobs/*", "/topic/meal-kit-jobs/**",
+                "/topic/meal-kit-jobs/" + JOB_ID + "/*", "/topic/meal-kit-jobs/0a1b2c3d-0000-4000-8000-000000000000"}) {
+            assertThatThrownBy(() -> subscribe(destination)).as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+        verify(mealKitJobService, never()).isOwnedBy(eq("*"), anyString());
+    }
+
+    private void subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(new UsernamePasswordAuthenticationToken(OWNER, null, null));
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, null);
+    }
+}
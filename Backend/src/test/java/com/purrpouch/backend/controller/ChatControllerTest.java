@@ -0,0 +1,91 @@
+package com.purrpouch.backend.controller;
+
+import com.purrpouch.backend.security.firebase.FirebaseAuthenticationFilter;
+import com.purrpouch.backend.service.ChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ChatController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = FirebaseAuthenticationFilter.class))
+@Import(ChatControllerTest.Services.class)
+class ChatControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        reset(chatService);
+    }
+
+    @Test
+    void anonymousCallersAreRejected() throws Exception {
+        mockMvc.perform(get("/api/chat/conversations/7/stats"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/chat/conversations/7").with(csrf()))
+                .andExpect(status().isUnauthorized());
+
+        verify(chatService, never()).getConversationStats("7");
+        verify(chatService, never()).clearConversation("7");
+    }
+
+    @Test
+    @WithMockUser
+    void signedInUserGetsAndClearsTheirConversation() throws Exception {
+        when(chatService.getConversationStats("7")).thenReturn(Map.of("turns", 3));
+
+        mockMvc.perform(get("/api/chat/conversations/7/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.turns").value(3));
+        mockMvc.perform(delete("/api/chat/conversations/7").with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(chatService).clearConversation("7");
+    }
+
+    @Test
+    @WithMockUser
+    void principalWithoutAnAccountIsUnauthorized() throws Exception {
+        when(chatService.getConversationStats("7")).thenThrow(new IllegalStateException("No authenticated user found"));
+        doThrow(new IllegalStateException("No authenticated user found")).when(chatService).clearConversation("7");
+
+        mockMvc.perform(get("/api/chat/conversations/7/stats"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/chat/conversations/7").with(csrf()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @EnableMethodSecurity
+    static class Services {
+        @Bean
+        ChatService chatService() {
+            return mock(ChatService.class);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.purrpouch.backend.repository;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.KitSuggestion;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.response.CatProfileResponse;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CatProfileRepositoryTest {
+
+    @Autowired
+    private CatProfileRepository catProfileRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void listingCatsUsesConstantNumberOfQueries() {
+        User fewCatsOwner = persistOwnerWithCats("few", 1);
+        User manyCatsOwner = persistOwnerWithCats("many", 25);
+        entityManager.flush();
+        entityManager.clear();
+
+        long fewCatsStatements = countStatementsWhileListing(fewCatsOwner, 1);
+        entityManager.clear();
+        long manyCatsStatements = countStatementsWhileListing(manyCatsOwner, 25);
+
+        // One query for the cats plus one per element collection
+        assertThat(fewCatsStatements).isEqualTo(4);
+        assertThat(manyCatsStatements).isEqualTo(fewCatsStatements);
+    }
+
+    @Test
+    void findNeedingKitSuggestionSkipsFreshSuggestions() {
+        User owner = new User("suggest", "suggest@example.com");
+        entityManager.persist(owner);
+        CatProfile missing = persistCat(owner, "missing", null);
+        CatProfile fresh = persistCat(owner, "fresh", null);
+        CatProfile otherCatalog = persistCat(owner, "other-catalog", null);
+        CatProfile editedSince = persistCat(owner, "edited", LocalDateTime.now());
+        CatProfile deleted = persistCat(owner, "deleted", null);
+        deleted.softDelete();
+        persistSuggestion(fresh, 7, LocalDateTime.now());
+        persistSuggestion(otherCatalog, 6, LocalDateTime.now());
+        persistSuggestion(editedSince, 7, LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CatProfile> needing = catProfileRepository.findNeedingKitSuggestion(7, 0L, PageRequest.of(0, 10));
+
+        assertThat(needing).extracting(CatProfile::getId)
+                .containsExactly(missing.getId(), otherCatalog.getId(), editedSince.getId());
+        assertThat(catProfileRepository.findNeedingKitSuggestion(7, otherCatalog.getId(), PageRequest.of(0, 10)))
+                .extracting(CatProfile::getId).containsExactly(editedSince.getId());
+    }
+
+    private CatProfile persistCat(User owner, String name, LocalDateTime updatedAt) {
+        CatProfile catProfile = new CatProfile();
+        catProfile.setOwner(owner);
+        catProfile.setName(name);
+        catProfile.setUpdatedAt(updatedAt);
+        entityManager.persist(catProfile);
+        return catProfile;
+    }
+
+    private void persistSuggestion(CatProfile catProfile, int catalogVersion, LocalDateTime generatedAt) {
+        FoodKit foodKit = new FoodKit();
+        foodKit.setCatProfile(catProfile);
+        foodKit.setName("kit");
+        entityManager.persist(foodKit);
+
+        KitSuggestion suggestion = new KitSuggestion();
+        suggestion.setCatProfile(catProfile);
+        suggestion.setFoodKit(foodKit);
+        suggestion.setCatalogVersion(catalogVersion);
+        suggestion.setKitJson("{}");
+        suggestion.setGeneratedAt(generatedAt);
+        entityManager.persist(suggestion);
+    }
+
+    private long countStatementsWhileListing(User owner, int expectedCats) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<CatProfileResponse> responses = catProfileRepository.findByUser(owner)
+                .stream()
+                .map(CatProfileResponse::fromEntity)
+                .collect(Collectors.toList());
+
+        assertThat(responses).hasSize(expectedCats);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getProteinPreferences()).containsExactly(CatProfile.ProteinType.SALMON,
+                    CatProfile.ProteinType.TUNA);
+            assertThat(response.getDietaryRequirements())
+                    .containsExactly(CatProfile.DietaryRequirement.HAIRBALL_CONTROL);
+            assertThat(response.getAllergies()).containsExactly(CatProfile.Allergy.NO_BEEF);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistOwnerWithCats(String name, int cats) {
+        User owner = new User(name, name + "@example.com");
+        entityManager.persist(owner);
+
+        for (int i = 0; i < cats; i++) {
+            CatProfile catProfile = new CatProfile();
+            catProfile.setOwner(owner);
+            catProfile.setName(name + "-cat-" + i);
+            catProfile.setProteinPreferences(List.of(CatProfile.ProteinType.SALMON, CatProfile.ProteinType.TUNA));
+            catProfile.setDietaryRequirements(List.of(CatProfile.DietaryRequirement.HAIRBALL_CONTROL));
+            catProfile.setAllergies(List.of(CatProfile.Allergy.NO_BEEF));
+            entityManager.persist(catProfile);
+        }
+        return owner;
+    }
+}
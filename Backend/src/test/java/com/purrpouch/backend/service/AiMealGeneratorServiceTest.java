@@ -0,0 +1,232 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiMealGeneratorServiceTest {
+
+    // Lunch and dinner of a valid kit, appended after its breakfast
+    private static final String LUNCH_AND_DINNER = ", {\"mealType\": \"LUNCH\", \"foodItems\": ["
+            + "{\"foodSkuId\": 30, \"quantity\": 1.0}, {\"foodSkuId\": 40, \"quantity\": 1.0}]}, "
+            + "{\"mealType\": \"DINNER\", \"foodItems\": ["
+            + "{\"foodSkuId\": 10, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}";
+
+    private final ChatModel chatModel = mock(ChatModel.class);
+    private final FoodService foodService = mock(FoodService.class);
+    private final CatContextCacheService catContextCacheService = mock(CatContextCacheService.class);
+    private final FoodSkuIndexService foodSkuIndexService = mock(FoodSkuIndexService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private AiMealGeneratorService aiMealGeneratorService;
+
+    @BeforeEach
+    void setUp() {
+        aiMealGeneratorService = new AiMealGeneratorService();
+        ReflectionTestUtils.setField(aiMealGeneratorService, "chatModelRouter",
+                ChatModelRouterTest.router(chatModel, chatModel, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(aiMealGeneratorService, "foodService", foodService);
+        ReflectionTestUtils.setField(aiMealGeneratorService, "catContextCacheService", catContextCacheService);
+        ReflectionTestUtils.setField(aiMealGeneratorService, "foodSkuIndexService", foodSkuIndexService);
+        ReflectionTestUtils.setField(aiMealGeneratorService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(aiMealGeneratorService, "householdMaxCats", 3);
+        aiMealGeneratorService.init();
+
+        FoodSku wet = sku(10L, FoodSku.FoodType.WET);
+        FoodSku topping = sku(20L, FoodSku.FoodType.TOPPING);
+        FoodSku dry = sku(30L, FoodSku.FoodType.DRY);
+        FoodSku snack = sku(40L, FoodSku.FoodType.SNACK);
+        FoodSku chickenFreeWet = sku(11L, FoodSku.FoodType.WET);
+        // Cat 2 has an allergy that rules out food 10
+        for (Long catId : List.of(1L, 2L)) {
+            when(catContextCacheService.getCatContext(catId)).thenReturn(new CatContextCacheService.CatContext(
+                    99L, 0, "Cat " + catId, "", "Name: Cat " + catId + "\n", "", "adult:0:0", 0, 0, catId - 1));
+        }
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), anyLong(), eq(FoodSku.FoodType.WET)))
+                .thenReturn(List.of(wet));
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), eq(1L), eq(FoodSku.FoodType.WET)))
+                .thenReturn(List.of(chickenFreeWet));
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), anyLong(), eq(FoodSku.FoodType.TOPPING)))
+                .thenReturn(List.of(topping));
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), anyLong(), eq(FoodSku.FoodType.DRY)))
+                .thenReturn(List.of(dry));
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), anyLong(), eq(FoodSku.FoodType.SNACK)))
+                .thenReturn(List.of(snack));
+        for (FoodSku sku : List.of(wet, chickenFreeWet, topping, dry, snack)) {
+            when(foodService.getFoodSkuById(sku.getId())).thenReturn(sku);
+        }
+        when(foodService.createFoodKit(eq(1L), any())).thenReturn(kit(100L, "AI kit"));
+        when(foodService.addMealToKit(eq(100L), any())).thenReturn(new KitMeal());
+        when(foodService.generateAiMealKit(eq(2L), any())).thenReturn(kit(200L, "Fallback kit"));
+    }
+
+    @Test
+    void householdKitsShareOneCallAndFallBackPerCat() {
+        // Cat 2's kit uses food 10, which is only allowed for cat 1
+        answer("{\"kits\": ["
+                + "{\"catId\": 1, \"kitName\": \"AI kit\", \"meals\": [{\"mealType\": \"BREAKFAST\", \"foodItems\": ["
+                + "{\"foodSkuId\": 10, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}"
+                + LUNCH_AND_DINNER + "]},"
+                + "{\"catId\": 2, \"kitName\": \"Bad kit\", \"meals\": [{\"mealType\": \"BREAKFAST\", \"foodItems\": ["
+                + "{\"foodSkuId\": 10, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}"
+                + LUNCH_AND_DINNER + "]}]}");
+
+        Map<Long, List<String>> histories = new LinkedHashMap<>();
+        histories.put(1L, List.of("She loves salmon"));
+        histories.put(2L, List.of());
+        List<AiMealKitDto> kits = aiMealGeneratorService.generateHouseholdMealKits(histories);
+
+        assertThat(kits).extracting(AiMealKitDto::getKitId).containsExactly(100L, 200L);
+        assertThat(kits.get(0).getMeals()).hasSize(3).allSatisfy(meal -> assertThat(meal.getFoodItems()).hasSize(2));
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel, times(1)).call(prompt.capture());
+        String systemPrompt = prompt.getValue().getInstructions().get(0).getContent();
+        // The catalog is listed once for the whole household, with each cat's allowed foods in its section
+        assertThat(systemPrompt.split("ID: 10, ", -1)).hasSize(2);
+        assertThat(systemPrompt).contains("Cat ID: 1\nName: Cat 1\nAllowed food IDs for this cat:\n- WET: 10\n",
+                "Cat ID: 2\nName: Cat 2\nAllowed food IDs for this cat:\n- WET: 11\n", "She loves salmon");
+        verify(foodService, never()).createFoodKit(eq(2L), any());
+    }
+
+    @Test
+    void householdKitWithoutEveryMealFallsBack() {
+        answer("{\"kits\": [{\"catId\": 1, \"kitName\": \"AI kit\", \"meals\": [{\"mealType\": \"BREAKFAST\", "
+                + "\"foodItems\": [{\"foodSkuId\": 10, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}]}]}");
+        when(foodService.generateAiMealKit(eq(1L), any())).thenReturn(kit(101L, "Fallback kit"));
+
+        Map<Long, List<String>> histories = new LinkedHashMap<>();
+        histories.put(1L, List.of());
+        List<AiMealKitDto> kits = aiMealGeneratorService.generateHouseholdMealKits(histories);
+
+        assertThat(kits).extracting(AiMealKitDto::getKitId).containsExactly(101L);
+        verify(foodService, never()).createFoodKit(eq(1L), any());
+    }
+
+    @Test
+    void unparseableAnswerFallsBackForEveryCat() {
+        answer("Sorry, I can't help with that.");
+        when(foodService.generateAiMealKit(eq(1L), any())).thenReturn(kit(101L, "Fallback kit"));
+
+        Map<Long, List<String>> histories = new LinkedHashMap<>();
+        histories.put(1L, List.of());
+        histories.put(2L, List.of());
+        List<AiMealKitDto> kits = aiMealGeneratorService.generateHouseholdMealKits(histories);
+
+        assertThat(kits).extracting(AiMealKitDto::getKitId).containsExactly(101L, 200L);
+    }
+
+    @Test
+    void streamedKitIsAbandonedAtFirstInvalidFoodAndRetried() {
+        ReflectionTestUtils.setField(aiMealGeneratorService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(aiMealGeneratorService, "streamingMaxAttempts", 2);
+        AtomicInteger badChunks = new AtomicInteger();
+        String bad = "{\"kitName\": \"Bad kit\", \"meals\": [{\"mealType\": \"BREAKFAST\", \"foodItems\": ["
+                + "{\"foodSkuId\": 999, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}]}";
+        String good = "```json\n{\"kitName\": \"AI kit\", \"meals\": [{\"mealType\": \"BREAKFAST\", \"foodItems\": ["
+                + "{\"foodSkuId\": 10, \"quantity\": 1.0}, {\"foodSkuId\": 20, \"quantity\": 0.5}]}"
+                + LUNCH_AND_DINNER + "]}\n```";
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(chunks(bad).doOnNext(chunk -> badChunks.incrementAndGet()))
+                .thenReturn(chunks(good));
+
+        AiMealKitDto kit = aiMealGeneratorService.generateMealKit(1L, List.of());
+
+        assertThat(kit.getKitId()).isEqualTo(100L);
+        assertThat(kit.getMeals()).hasSize(3).allSatisfy(meal -> assertThat(meal.getFoodItems()).hasSize(2));
+        assertThat(badChunks.get()).isLessThan(chunks(bad).count().block().intValue());
+        ArgumentCaptor<Prompt> prompts = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel, times(2)).stream(prompts.capture());
+        assertThat(prompts.getAllValues().get(1).getInstructions()).last()
+                .satisfies(message -> assertThat(message.getContent()).contains("food 999 was not offered"));
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void catAllergicToEveryWetFoodGetsNoConflictingFoodOffered() {
+        when(catContextCacheService.getCatContext(3L)).thenReturn(new CatContextCacheService.CatContext(
+                99L, 0, "Cat 3", "", "Name: Cat 3\n", "", "adult:0:0", 0, 0, 2L));
+        when(foodSkuIndexService.findCompatible(anyLong(), anyLong(), eq(2L), eq(FoodSku.FoodType.WET)))
+                .thenReturn(List.of());
+        when(foodService.generateAiMealKit(eq(3L), any())).thenReturn(kit(300L, "Fallback kit"));
+
+        AiMealKitDto kit = aiMealGeneratorService.generateMealKit(3L, List.of());
+
+        assertThat(kit.getKitId()).isEqualTo(300L);
+        verify(chatModel, never()).call(any(Prompt.class));
+        verify(foodService, never()).getAvailableFoodSkusByType(any());
+    }
+
+    @Test
+    void tooManyCatsAreRejectedBeforeTheCall() {
+        Map<Long, List<String>> histories = new LinkedHashMap<>();
+        for (long catId = 1; catId <= 4; catId++) {
+            histories.put(catId, List.of());
+        }
+
+        assertThatThrownBy(() -> aiMealGeneratorService.generateHouseholdMealKits(histories))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    private void answer(String text) {
+        when(chatModel.call(any(Prompt.class)))
+                .thenReturn(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))));
+    }
+
+    // Splits an answer into token-sized streamed responses
+    private static Flux<ChatResponse> chunks(String text) {
+        List<ChatResponse> responses = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += 6) {
+            String chunk = text.substring(i, Math.min(text.length(), i + 6));
+            responses.add(new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+        }
+        return Flux.fromIterable(responses);
+    }
+
+    private static FoodSku sku(Long id, FoodSku.FoodType type) {
+        FoodSku sku = new FoodSku();
+        sku.setId(id);
+        sku.setName("Food " + id);
+        sku.setType(type);
+        sku.setAvailableStock(5);
+        return sku;
+    }
+
+    private static FoodKit kit(Long id, String name) {
+        FoodKit foodKit = new FoodKit();
+        foodKit.setId(id);
+        foodKit.setName(name);
+        return foodKit;
+    }
+}
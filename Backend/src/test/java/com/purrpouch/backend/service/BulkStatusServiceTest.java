@@ -0,0 +1,158 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent.OrderEventType;
+import com.purrpouch.backend.model.Delivery;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.model.OutboxEvent;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.request.BulkStatusUpdateRequest;
+import com.purrpouch.backend.payload.response.BulkStatusUpdateResponse;
+import com.purrpouch.backend.payload.response.BulkStatusUpdateResponse.Outcome;
+import com.purrpouch.backend.repository.DeliveryRepository;
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.repository.OutboxEventRepository;
+import com.purrpouch.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ BulkStatusService.class, OutboxService.class, BulkStatusServiceTest.Notifications.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkStatusServiceTest {
+
+    @Autowired
+    private BulkStatusService bulkStatusService;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentNotificationService paymentNotificationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        deliveryRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        reset(paymentNotificationService);
+        user = userRepository.save(new User("bulk", "bulk@example.com"));
+    }
+
+    @Test
+    void ordersByIdReportPerIdResultsAndQueuePaidEvents() {
+        Order pending = orderRepository.save(newOrder(Order.OrderStatus.PENDING));
+        Order paid = orderRepository.save(newOrder(Order.OrderStatus.PAID));
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setStatus("PAID");
+        request.setIds(List.of(pending.getId(), paid.getId(), -1L));
+        BulkStatusUpdateResponse response = bulkStatusService.updateOrderStatuses(request);
+
+        assertThat(response.getResults()).containsEntry(pending.getId(), Outcome.UPDATED)
+                .containsEntry(paid.getId(), Outcome.UNCHANGED)
+                .containsEntry(-1L, Outcome.NOT_FOUND);
+        assertThat(orderRepository.findById(pending.getId()).orElseThrow().getStatus())
+                .isEqualTo(Order.OrderStatus.PAID);
+        // Same events as a single admin change; only the newly paid order needs its deliveries scheduled
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getOrderId, OutboxEvent::getEventType)
+                .containsExactly(tuple(pending.getId(), OrderEventType.UPDATED),
+                        tuple(pending.getId(), OrderEventType.PAID));
+        verify(paymentNotificationService).sendPaymentStatusUpdate(pending.getId(), "PAID");
+        verifyNoMoreInteractions(paymentNotificationService);
+    }
+
+    @Test
+    void tenThousandDeliveriesByFilterInChunks() {
+        Order order = orderRepository.save(newOrder(Order.OrderStatus.PAID));
+        LocalDate today = LocalDate.now();
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setOrder(order);
+            delivery.setScheduledTime(today.atTime(9, 0).plusSeconds(i));
+            deliveries.add(delivery);
+        }
+        Delivery tomorrow = new Delivery();
+        tomorrow.setOrder(order);
+        tomorrow.setScheduledTime(today.plusDays(1).atTime(9, 0));
+        deliveries.add(tomorrow);
+        deliveryRepository.saveAll(deliveries);
+        ReflectionTestUtils.setField(bulkStatusService, "chunkSize", 1000);
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setStatus("DELIVERED");
+        request.setFromStatus("PENDING");
+        request.setFrom(today);
+        request.setTo(today);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkStatusUpdateResponse response = bulkStatusService.updateDeliveryStatuses(request);
+
+        // Per chunk of 1000: the id lookup, the status lookup and one UPDATE; then one empty lookup
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(10 * 3 + 1);
+        assertThat(response.getUpdated()).isEqualTo(10_000);
+        assertThat(response.getResults()).hasSize(10_000);
+        // Delivery changes have no downstream events, as with a single admin change
+        assertThat(outboxEventRepository.count()).isZero();
+        verifyNoInteractions(paymentNotificationService);
+        assertThat(deliveryRepository.findIdsByFilter(Delivery.DeliveryStatus.PENDING, null, null, 0L,
+                PageRequest.of(0, 10))).containsExactly(tomorrow.getId());
+        Delivery delivered = deliveryRepository.findById(deliveries.get(0).getId()).orElseThrow();
+        assertThat(delivered.getDeliveredTime()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+
+    private Order newOrder(Order.OrderStatus status) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotalPrice(new BigDecimal("100000"));
+        order.setStatus(status);
+        return order;
+    }
+
+    static class Notifications {
+        @Bean
+        PaymentNotificationService paymentNotificationService() {
+            return mock(PaymentNotificationService.class);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.purrpouch.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatModelRouterTest {
+
+    private final FakeChatModel standardModel = new FakeChatModel("standard");
+    private final FakeChatModel fastModel = new FakeChatModel("fast");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ChatModelRouter chatModelRouter;
+
+    @BeforeEach
+    void setUp() {
+        chatModelRouter = router(standardModel, fastModel, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatModelRouter.shutdown();
+    }
+
+    @Test
+    void shortChatTurnsUseTheFastTier() {
+        assertThat(answer(ChatModelRouter.Endpoint.CHAT, "Is tuna safe?")).isEqualTo("fast");
+        assertThat(answer(ChatModelRouter.Endpoint.CHAT, "x".repeat(201))).isEqualTo("standard");
+        assertThat(answer(ChatModelRouter.Endpoint.MEAL_KIT, "Is tuna safe?")).isEqualTo("standard");
+        assertThat(meterRegistry.get("purrpouch.llm.latency").tag("tier", "FAST").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallIsHedgedAfterTheTierP95() {
+        for (int i = 0; i < 20; i++) {
+            answer(ChatModelRouter.Endpoint.MEAL_KIT, "Kit please");
+        }
+        standardModel.delays(3000);
+
+        long started = System.nanoTime();
+        assertThat(answer(ChatModelRouter.Endpoint.MEAL_KIT, "Kit please")).isEqualTo("standard");
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(2000);
+        assertThat(standardModel.calls()).isEqualTo(22);
+        assertThat(meterRegistry.get("purrpouch.llm.hedges").tag("tier", "STANDARD").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("purrpouch.llm.latency").tag("outcome", "hedged").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void noHedgingUntilTheTierHasEnoughSamples() {
+        standardModel.delays(300);
+
+        assertThat(answer(ChatModelRouter.Endpoint.MEAL_KIT, "Kit please")).isEqualTo("standard");
+
+        assertThat(standardModel.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void callOverBudgetIsAbandoned() {
+        ReflectionTestUtils.setField(chatModelRouter, "chatBudgetMs", 100L);
+        fastModel.delays(3000);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> answer(ChatModelRouter.Endpoint.CHAT, "Is tuna safe?"))
+                .isInstanceOf(ChatModelRouter.BudgetExceededException.class);
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(2000);
+        assertThat(meterRegistry.get("purrpouch.llm.latency").tag("outcome", "budget_exceeded").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void steadyStreamIsCutAtTheTotalBudget() {
+        ReflectionTestUtils.setField(chatModelRouter, "mealKitBudgetMs", 300L);
+        // Each chunk arrives well inside the budget, the whole stream would take two seconds
+        standardModel.chunked(20, 100);
+        Prompt prompt = new Prompt(List.of(new UserMessage("Kit please")));
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> chatModelRouter.stream(ChatModelRouter.Endpoint.MEAL_KIT, prompt)
+                .blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(ChatModelRouter.BudgetExceededException.class);
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isLessThan(1000);
+        assertThat(meterRegistry.get("purrpouch.llm.latency").tag("outcome", "budget_exceeded").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void streamWithinBudgetCompletes() {
+        standardModel.chunked(3, 20);
+        Prompt prompt = new Prompt(List.of(new UserMessage("Kit please")));
+
+        assertThat(chatModelRouter.stream(ChatModelRouter.Endpoint.MEAL_KIT, prompt).collectList()
+                .block(Duration.ofSeconds(5))).hasSize(3);
+        assertThat(meterRegistry.get("purrpouch.llm.latency").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    private String answer(ChatModelRouter.Endpoint endpoint, String question) {
+        Prompt prompt = new Prompt(List.of(new SystemMessage("You are a cat nutrition expert."),
+                new UserMessage(question)));
+        return chatModelRouter.call(endpoint, prompt).getResult().getOutput().getContent();
+    }
+
+    /**
+     * A router over the given models with generous budgets and a 50 ms
+     * minimum hedge delay
+     */
+    static ChatModelRouter router(ChatModel standardModel, ChatModel fastModel, MeterRegistry meterRegistry) {
+        ChatModelRouter router = new ChatModelRouter();
+        ReflectionTestUtils.setField(router, "standardModel", standardModel);
+        ReflectionTestUtils.setField(router, "fastModel", fastModel);
+        ReflectionTestUtils.setField(router, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(router, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(router, "chatBudgetMs", 5000L);
+        ReflectionTestUtils.setField(router, "mealKitBudgetMs", 5000L);
+        ReflectionTestUtils.setField(router, "householdMealKitBudgetMs", 5000L);
+        ReflectionTestUtils.setField(router, "fastTierEnabled", true);
+        ReflectionTestUtils.setField(router, "fastTierMaxChars", 200);
+        ReflectionTestUtils.setField(router, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(router, "hedgeMinSamples", 20);
+        ReflectionTestUtils.setField(router, "hedgeMinDelayMs", 50L);
+        router.init();
+        return router;
+    }
+}
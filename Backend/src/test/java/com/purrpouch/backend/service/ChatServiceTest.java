@@ -0,0 +1,120 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.config.HashingEmbeddingModel;
+import com.purrpouch.backend.model.ChatMessage;
+import com.purrpouch.backend.model.ChatResponse;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.service.CatContextCacheService.CatContext;
+import com.purrpouch.backend.service.ConversationMemoryService.ConversationContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatServiceTest {
+
+    private static final String SIGNATURE = "senior:4:0";
+
+    private final ChatModelRouter chatModelRouter = mock(ChatModelRouter.class);
+    private final CatContextCacheService catContextCacheService = mock(CatContextCacheService.class);
+    private final ConversationMemoryService conversationMemoryService = mock(ConversationMemoryService.class);
+    private final AuthService authService = mock(AuthService.class);
+
+    private SemanticAnswerCacheService semanticAnswerCacheService;
+
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        semanticAnswerCacheService = new SemanticAnswerCacheService();
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "embeddingModel", new HashingEmbeddingModel(256));
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "enabled", true);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "similarityThreshold", 0.9);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "maxEntries", 10);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "ttlMinutes", 60L);
+        semanticAnswerCacheService.init();
+
+        chatService = new ChatService();
+        ReflectionTestUtils.setField(chatService, "chatModelRouter", chatModelRouter);
+        ReflectionTestUtils.setField(chatService, "catContextCacheService", catContextCacheService);
+        ReflectionTestUtils.setField(chatService, "conversationMemoryService", conversationMemoryService);
+        ReflectionTestUtils.setField(chatService, "authService", authService);
+        ReflectionTestUtils.setField(chatService, "semanticAnswerCacheService", semanticAnswerCacheService);
+
+        when(conversationMemoryService.getContext(anyLong(), any()))
+                .thenReturn(new ConversationContext("", new ArrayList<>()));
+        when(chatModelRouter.call(eq(ChatModelRouter.Endpoint.CHAT), any(Prompt.class)))
+                .thenReturn(new org.springframework.ai.chat.model.ChatResponse(
+                        List.of(new Generation(new AssistantMessage("Choose a low phosphorus renal diet.")))));
+    }
+
+    @Test
+    void sharedOpeningAnswerIsGeneratedWithoutTheOwnersDetails() {
+        signIn(1L);
+        when(catContextCacheService.getCatContext(10L)).thenReturn(catContext(1L, "Mochi",
+                "Cat Name: Mochi. Weight: 6.2 kg. Additional Notes: Vet is Dr. Tran at 12 Elm Street. "));
+
+        ChatResponse first = chatService.processMessage(
+                new ChatMessage("What should I feed a senior cat with kidney disease?", "10", null));
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModelRouter).call(eq(ChatModelRouter.Endpoint.CHAT), prompt.capture());
+        String systemPrompt = prompt.getValue().getInstructions().get(0).getContent();
+        assertThat(systemPrompt).contains("Life stage: senior").doesNotContain("Mochi", "Elm Street", "6.2 kg");
+
+        // Another owner's cat of the same kind gets the shared answer without a model call
+        signIn(2L);
+        when(catContextCacheService.getCatContext(20L)).thenReturn(catContext(2L, "Pepper",
+                "Cat Name: Pepper. Additional Notes: Lives with a dog. "));
+
+        ChatResponse second = chatService.processMessage(
+                new ChatMessage("what food should I feed my senior cat with kidney disease", "20", null));
+
+        assertThat(second.getMessage()).isEqualTo(first.getMessage());
+        verify(chatModelRouter, times(1)).call(eq(ChatModelRouter.Endpoint.CHAT), any(Prompt.class));
+    }
+
+    @Test
+    void answerThatIsNeverSharedUsesTheFullProfile() {
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "enabled", false);
+        signIn(1L);
+        when(catContextCacheService.getCatContext(10L)).thenReturn(catContext(1L, "Mochi",
+                "Cat Name: Mochi. Weight: 6.2 kg. Additional Notes: Vet is Dr. Tran at 12 Elm Street. "));
+
+        chatService.processMessage(new ChatMessage("What should I feed a senior cat with kidney disease?", "10", null));
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModelRouter).call(eq(ChatModelRouter.Endpoint.CHAT), prompt.capture());
+        assertThat(prompt.getValue().getInstructions().get(0).getContent())
+                .contains("Cat Name: Mochi", "6.2 kg")
+                .doesNotContain("Life stage: senior");
+    }
+
+    private void signIn(Long userId) {
+        User user = new User("owner" + userId, "owner" + userId + "@example.com");
+        ReflectionTestUtils.setField(user, "id", userId);
+        when(authService.getCurrentUser()).thenReturn(user);
+    }
+
+    private CatContext catContext(Long ownerId, String name, String chatContext) {
+        return new CatContext(ownerId, 0, name, chatContext, "", "Life stage: senior. Dietary Requirements: "
+                + "KIDNEY SUPPORT. ", SIGNATURE, 0, 4, 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.payload.response.DeliveryRouteResponse;
+import com.purrpouch.backend.payload.response.DeliveryRouteResponse.Stop;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryRoutePlannerTest {
+
+    private static final double DEPOT_LATITUDE = 10.7769;
+    private static final double DEPOT_LONGITUDE = 106.7009;
+
+    private final DeliveryRoutePlanner planner = new DeliveryRoutePlanner(1.5, 30, 5, DEPOT_LATITUDE,
+            DEPOT_LONGITUDE);
+
+    @Test
+    void separateNeighbourhoodsBecomeSeparateRoutesInDrivingOrder() {
+        // Three stops in a line near the depot, two stops 20 km away, one without coordinates
+        List<Stop> stops = List.of(
+                stop(1, 10.780, 106.700),
+                stop(2, 10.790, 106.700),
+                stop(3, 10.785, 106.700),
+                stop(4, 10.960, 106.700),
+                stop(5, 10.961, 106.701),
+                new Stop(6L, 6L, null, null, null, "District 1", "Ben Nghe", "1 Le Loi"));
+
+        List<DeliveryRouteResponse> routes = planner.plan(stops);
+
+        assertThat(routes).hasSize(3);
+        assertThat(routes.get(0).getStops()).extracting(Stop::getDeliveryId).containsExactly(5L, 4L);
+        assertThat(routes.get(1).getStops()).extracting(Stop::getDeliveryId).containsExactly(2L, 3L, 1L);
+        assertThat(routes.get(1).getDistanceKm()).isEqualTo(1.1);
+        assertThat(routes.get(2).isGeocoded()).isFalse();
+        assertThat(routes.get(2).getZone()).isEqualTo("district 1 / ben nghe");
+    }
+
+    @Test
+    void plansFortyThousandDeliveriesWellUnderASecond() {
+        Random random = new Random(42);
+        List<Stop> stops = new ArrayList<>();
+        for (long id = 0; id < 40_000; id++) {
+            if (id % 20 == 0) {
+                stops.add(new Stop(id, id, null, null, null, "District " + random.nextInt(12), "Ward " + random.nextInt(10),
+                        null));
+            } else {
+                // Roughly a 40 x 40 km city around the depot
+                stops.add(stop(id, DEPOT_LATITUDE + (random.nextDouble() - 0.5) * 0.36,
+                        DEPOT_LONGITUDE + (random.nextDouble() - 0.5) * 0.36));
+            }
+        }
+        planner.plan(stops);
+
+        long start = System.nanoTime();
+        List<DeliveryRouteResponse> routes = planner.plan(stops);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Set<Long> seen = new HashSet<>();
+        for (DeliveryRouteResponse route : routes) {
+            assertThat(route.getStops()).hasSizeLessThanOrEqualTo(30);
+            route.getStops().forEach(stop -> assertThat(seen.add(stop.getDeliveryId())).isTrue());
+        }
+        assertThat(seen).hasSize(stops.size());
+        assertThat(millis).isLessThan(1000);
+    }
+
+    private static Stop stop(long id, double latitude, double longitude) {
+        return new Stop(id, id, null, latitude, longitude, null, null, null);
+    }
+}
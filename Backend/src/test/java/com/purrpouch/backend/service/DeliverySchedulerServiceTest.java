@@ -0,0 +1,195 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent;
+import com.purrpouch.backend.model.Delivery;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.model.UserAddress;
+import com.purrpouch.backend.repository.DeliveryRepository;
+import com.purrpouch.backend.repository.DeliveryRepository.DeliverySummary;
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.repository.UserAddressRepository;
+import com.purrpouch.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DataJpaTest
+@Import({ DeliverySchedulerService.class, DeliverySchedulerServiceTest.Orders.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliverySchedulerServiceTest {
+
+    @Autowired
+    private DeliverySchedulerService deliverySchedulerService;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserAddressRepository userAddressRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private UserAddress address;
+
+    @BeforeEach
+    void setUp() {
+        reset(orderService);
+        deliveryRepository.deleteAll();
+        orderRepository.deleteAll();
+        userAddressRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = userRepository.save(new User("scheduler", "scheduler@example.com"));
+        address = new UserAddress();
+        address.setUser(user);
+        address.setStreetAddress("1 Le Loi");
+        address.setProvince("Ho Chi Minh City");
+        address = userAddressRepository.save(address);
+    }
+
+    @Test
+    void paidEventSchedulesOneDeliveryAndIsIdempotent() {
+        Order order = orderRepository.save(newOrder(false));
+
+        publishPaid(order);
+        publishPaid(order);
+
+        List<DeliverySummary> deliveries = userDeliveries();
+        assertThat(deliveries).hasSize(1);
+        assertThat(deliveries.get(0).getOrderId()).isEqualTo(order.getId());
+        assertThat(deliveries.get(0).getScheduledTime().toLocalTime()).isEqualTo(LocalTime.of(9, 0));
+        assertThat(deliveries.get(0).getScheduledTime()).isAfter(LocalDateTime.now().plusHours(12));
+        assertThat(deliveries.get(0).getCity()).isEqualTo("Ho Chi Minh City");
+    }
+
+    @Test
+    void laterPeriodsOfRecurringOrdersBecomeTheirOwnOrders() {
+        Order weekly = newOrder(true);
+        weekly.setNextDeliveryDate(LocalDateTime.now().plusDays(2));
+        weekly = orderRepository.save(weekly);
+
+        publishPaid(weekly);
+        publishPaid(weekly);
+
+        // The paid order covers its first period only
+        LocalDateTime firstSlot = LocalDateTime.now().plusDays(2).toLocalDate().atTime(18, 30);
+        assertThat(userDeliveries()).extracting(DeliverySummary::getScheduledTime).containsExactly(firstSlot);
+        assertThat(orderRepository.findById(weekly.getId()).orElseThrow().getNextDeliveryDate())
+                .isEqualTo(firstSlot.plusDays(7));
+
+        // The sweep also covers a paid subscription that never had its event relayed, in small chunks
+        ReflectionTestUtils.setField(deliverySchedulerService, "chunkSize", 1);
+        Order missed = newOrder(true);
+        missed.setStatus(Order.OrderStatus.PAID);
+        missed.setNextDeliveryDate(LocalDateTime.now().plusDays(3));
+        missed = orderRepository.save(missed);
+
+        // Slots nine and ten days out fall inside the 14 day horizon, sixteen and seventeen do not
+        assertThat(deliverySchedulerService.extendRecurringSchedules()).isEqualTo(2);
+        assertThat(deliverySchedulerService.extendRecurringSchedules()).isZero();
+
+        Long weeklyId = weekly.getId();
+        Long missedId = missed.getId();
+        verify(orderService).createRecurringOrderInstance(argThat(order -> order.getId().equals(weeklyId)),
+                eq(firstSlot.plusDays(7)));
+        verify(orderService).createRecurringOrderInstance(argThat(order -> order.getId().equals(missedId)),
+                eq(LocalDateTime.now().plusDays(10).toLocalDate().atTime(18, 30)));
+        verifyNoMoreInteractions(orderService);
+        assertThat(userDeliveries()).extracting(DeliverySummary::getOrderId)
+                .containsExactlyInAnyOrder(weeklyId, missedId);
+        assertThat(orderRepository.findById(weeklyId).orElseThrow().getNextDeliveryDate())
+                .isEqualTo(firstSlot.plusDays(14));
+    }
+
+    @Test
+    void overduePendingDeliveriesAreFlaggedForReviewInChunks() {
+        Order order = orderRepository.save(newOrder(false));
+        for (int i = 0; i < 5; i++) {
+            deliveryRepository.save(newDelivery(order, LocalDateTime.now().minusDays(1).minusMinutes(i)));
+        }
+        Delivery upcoming = deliveryRepository.save(newDelivery(order, LocalDateTime.now().plusDays(1)));
+        ReflectionTestUtils.setField(deliverySchedulerService, "chunkSize", 2);
+
+        assertThat(deliverySchedulerService.sweepOverdueDeliveries()).isEqualTo(5);
+        assertThat(deliverySchedulerService.sweepOverdueDeliveries()).isZero();
+
+        // Still pending, for an admin or a late courier scan to resolve
+        assertThat(deliveryRepository.findAll()).filteredOn(d -> d.getOverdueAt() != null)
+                .hasSize(5)
+                .allSatisfy(d -> assertThat(d.getStatus()).isEqualTo(Delivery.DeliveryStatus.PENDING));
+        assertThat(deliveryRepository.findById(upcoming.getId()).orElseThrow().getOverdueAt()).isNull();
+    }
+
+    private List<DeliverySummary> userDeliveries() {
+        return deliveryRepository.findSummariesByUserId(user.getId(), null, null, PageRequest.of(0, 100));
+    }
+
+    // Same transaction shape as the outbox relay
+    private void publishPaid(Order order) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Order managed = orderRepository.findById(order.getId()).orElseThrow();
+            deliverySchedulerService.onOrderEvent(new OrderEvent(this, managed, OrderEvent.OrderEventType.PAID));
+        });
+    }
+
+    private Order newOrder(boolean recurring) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotalPrice(new BigDecimal("100000"));
+        order.setDeliveryAddress(address);
+        if (recurring) {
+            order.setRecurring(true);
+            order.setRecurringFrequency(Order.RecurringFrequency.WEEKLY);
+            order.setPreferredDeliveryTime(LocalTime.of(18, 30));
+        }
+        return order;
+    }
+
+    private Delivery newDelivery(Order order, LocalDateTime scheduledTime) {
+        Delivery delivery = new Delivery();
+        delivery.setOrder(order);
+        delivery.setScheduledTime(scheduledTime);
+        return delivery;
+    }
+
+    static class Orders {
+        @Bean
+        OrderService orderService() {
+            return mock(OrderService.class);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.purrpouch.backend.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChatModel for tests that answers with a fixed text after a scripted delay
+ * per call, and counts its calls. Streams send the answer at once, or as
+ * evenly spaced chunks when set up with {@link #chunked}.
+ */
+class FakeChatModel implements ChatModel {
+
+    private final String answer;
+
+    private final Queue<Long> delaysMs = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private int streamChunks;
+
+    private long chunkIntervalMs;
+
+    FakeChatModel(String answer) {
+        this.answer = answer;
+    }
+
+    /**
+     * Delay the next calls by these amounts, in call order; later calls answer
+     * at once
+     */
+    FakeChatModel delays(long... millis) {
+        for (long delay : millis) {
+            delaysMs.add(delay);
+        }
+        return this;
+    }
+
+    /**
+     * Stream the answer as this many chunks, one every interval
+     */
+    FakeChatModel chunked(int chunks, long intervalMs) {
+        this.streamChunks = chunks;
+        this.chunkIntervalMs = intervalMs;
+        return this;
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        Long delay = delaysMs.poll();
+        if (delay != null && delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Cancelled", e);
+            }
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(answer))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        if (streamChunks > 0) {
+            return Flux.interval(Duration.ofMillis(chunkIntervalMs))
+                    .take(streamChunks)
+                    .doOnSubscribe(subscription -> calls.incrementAndGet())
+                    .map(i -> new ChatResponse(List.of(new Generation(new AssistantMessage(answer)))));
+        }
+        return Flux.defer(() -> Flux.just(call(prompt)));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.CatProfile.Allergy;
+import com.purrpouch.backend.model.CatProfile.ProteinType;
+import com.purrpouch.backend.model.FoodAttributes;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+import com.purrpouch.backend.model.KitMealItem;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import com.purrpouch.backend.repository.FoodSkuRepository;
+import com.purrpouch.backend.repository.KitMealItemRepository;
+import com.purrpouch.backend.repository.KitMealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FoodServiceTest {
+
+    private final FoodSkuRepository foodSkuRepository = mock(FoodSkuRepository.class);
+    private final FoodKitRepository foodKitRepository = mock(FoodKitRepository.class);
+    private final KitMealRepository kitMealRepository = mock(KitMealRepository.class);
+    private final KitMealItemRepository kitMealItemRepository = mock(KitMealItemRepository.class);
+    private final CatProfileService catProfileService = mock(CatProfileService.class);
+
+    private final List<FoodSku> catalog = new ArrayList<>();
+
+    private FoodService foodService;
+
+    @BeforeEach
+    void setUp() {
+        FoodSkuIndexService foodSkuIndexService = new FoodSkuIndexService();
+        ReflectionTestUtils.setField(foodSkuIndexService, "foodSkuRepository", foodSkuRepository);
+        when(foodSkuRepository.findAll()).thenReturn(catalog);
+
+        foodService = new FoodService();
+        ReflectionTestUtils.setField(foodService, "foodSkuRepository", foodSkuRepository);
+        ReflectionTestUtils.setField(foodService, "foodKitRepository", foodKitRepository);
+        ReflectionTestUtils.setField(foodService, "kitMealRepository", kitMealRepository);
+        ReflectionTestUtils.setField(foodService, "kitMealItemRepository", kitMealItemRepository);
+        ReflectionTestUtils.setField(foodService, "catProfileService", catProfileService);
+        ReflectionTestUtils.setField(foodService, "foodSkuIndexService", foodSkuIndexService);
+        ReflectionTestUtils.setField(foodService, "kitSnapshotService", mock(KitSnapshotService.class));
+        when(foodKitRepository.save(any(FoodKit.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(kitMealRepository.save(any(KitMeal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void ruleBasedKitLeavesOutFoodsTheCatIsAllergicTo() {
+        // Every in-stock WET food contains chicken or seafood
+        FoodSku chickenPate = sku(FoodSku.FoodType.WET, ProteinType.CHICKEN, Allergy.NO_CHICKEN);
+        sku(FoodSku.FoodType.WET, ProteinType.TUNA, Allergy.NO_SEAFOOD);
+        FoodSku beefKibble = sku(FoodSku.FoodType.DRY, ProteinType.BEEF, Allergy.NO_BEEF);
+        FoodSku duckTopping = sku(FoodSku.FoodType.TOPPING, ProteinType.DUCK, Allergy.DAIRY_FREE);
+        when(foodSkuRepository.findByTypeAndAvailableStockGreaterThan(FoodSku.FoodType.WET, 0))
+                .thenReturn(List.of(chickenPate));
+
+        CatProfile cat = new CatProfile();
+        cat.setAllergies(List.of(Allergy.NO_CHICKEN, Allergy.NO_SEAFOOD));
+        when(catProfileService.getCatProfileById(1L)).thenReturn(cat);
+
+        foodService.generateAiMealKit(1L, List.of());
+
+        ArgumentCaptor<KitMealItem> items = ArgumentCaptor.forClass(KitMealItem.class);
+        verify(kitMealItemRepository, atLeastOnce()).save(items.capture());
+        assertThat(items.getAllValues()).extracting(KitMealItem::getFoodSku)
+                .containsExactlyInAnyOrder(beefKibble, duckTopping, duckTopping)
+                .noneMatch(sku -> sku.getType() == FoodSku.FoodType.WET);
+    }
+
+    private FoodSku sku(FoodSku.FoodType type, ProteinType protein, Allergy allergen) {
+        FoodSku sku = new FoodSku();
+        sku.setId((long) catalog.size() + 1);
+        sku.setName(protein + " " + type);
+        sku.setType(type);
+        sku.setAvailableStock(10);
+        sku.setAttributeMask(FoodAttributes.encode(List.of(protein), List.of(), List.of(allergen)));
+        catalog.add(sku);
+        return sku;
+    }
+}
@@ -0,0 +1,100 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.config.HashingEmbeddingModel;
+import com.purrpouch.backend.model.FoodSku;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FoodSkuEmbeddingServiceTest {
+
+    private final FoodSkuIndexService foodSkuIndexService = mock(FoodSkuIndexService.class);
+    private final EmbeddingModel embeddingModel = spy(new HashingEmbeddingModel(256));
+    private final List<List<String>> embeddedBatches = new ArrayList<>();
+
+    private FoodSkuEmbeddingService foodSkuEmbeddingService;
+    private List<FoodSku> catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ArrayList<>(List.of(
+                sku(1L, "Chicken Pate", "Whiskas", "Tender chicken in gravy"),
+                sku(2L, "Salmon Feast", "Royal Canin", "Wild salmon for sensitive stomachs"),
+                sku(3L, "Beef Chunks", "Me-O", "Hearty beef in jelly"),
+                sku(4L, "Tuna Flakes", "Ciao", "Skipjack tuna flakes"),
+                sku(5L, "Salmon & Rice", "Hill's", "Gentle salmon recipe, easy on the stomach")));
+        when(foodSkuIndexService.getCatalog()).thenAnswer(invocation -> List.copyOf(catalog));
+        when(foodSkuIndexService.getCatalogVersion()).thenReturn(1L);
+        doAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            embeddedBatches.add(texts);
+            return texts.stream().map(embeddingModel::embed).toList();
+        }).when(embeddingModel).embed(anyList());
+
+        foodSkuEmbeddingService = new FoodSkuEmbeddingService();
+        ReflectionTestUtils.setField(foodSkuEmbeddingService, "embeddingModel", embeddingModel);
+        ReflectionTestUtils.setField(foodSkuEmbeddingService, "foodSkuIndexService", foodSkuIndexService);
+        ReflectionTestUtils.setField(foodSkuEmbeddingService, "embedBatchSize", 64);
+    }
+
+    @Test
+    void keepsMostSimilarCandidatesInOriginalOrder() {
+        float[] query = foodSkuEmbeddingService.embedQuery("Allergies: NO CHICKEN\nShe loves salmon, sensitive stomach");
+
+        List<FoodSku> selected = foodSkuEmbeddingService.selectRelevant(catalog, query, 2);
+
+        assertThat(selected).extracting(FoodSku::getId).containsExactly(2L, 5L);
+    }
+
+    @Test
+    void smallSlotsAndMissingQueriesSkipRanking() {
+        assertThat(foodSkuEmbeddingService.selectRelevant(catalog, null, 3)).extracting(FoodSku::getId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(foodSkuEmbeddingService.selectRelevant(catalog.subList(0, 2), new float[256], 3))
+                .hasSize(2);
+        assertThat(embeddedBatches).isEmpty();
+    }
+
+    @Test
+    void catalogChangesOnlyEmbedChangedSkus() {
+        float[] query = foodSkuEmbeddingService.embedQuery("tuna");
+        foodSkuEmbeddingService.selectRelevant(catalog, query, 1);
+        assertThat(embeddedBatches).singleElement().satisfies(batch -> assertThat(batch).hasSize(5));
+
+        catalog.get(2).setDescription("Beef and tuna in jelly");
+        catalog.add(sku(6L, "Duck Mousse", "Ciao", "Smooth duck mousse"));
+        when(foodSkuIndexService.getCatalogVersion()).thenReturn(2L);
+        List<FoodSku> selected = foodSkuEmbeddingService.selectRelevant(catalog, query, 2);
+
+        assertThat(embeddedBatches).hasSize(2);
+        assertThat(embeddedBatches.get(1)).hasSize(2)
+                .anySatisfy(text -> assertThat(text).contains("Beef and tuna"))
+                .anySatisfy(text -> assertThat(text).contains("Duck Mousse"));
+        assertThat(selected).extracting(FoodSku::getId).containsExactly(3L, 4L);
+        verify(foodSkuIndexService, times(2)).getCatalog();
+    }
+
+    private static FoodSku sku(Long id, String name, String brand, String description) {
+        FoodSku sku = new FoodSku();
+        sku.setId(id);
+        sku.setName(name);
+        sku.setBrand(brand);
+        sku.setDescription(description);
+        sku.setType(FoodSku.FoodType.WET);
+        sku.setAvailableStock(10);
+        return sku;
+    }
+}
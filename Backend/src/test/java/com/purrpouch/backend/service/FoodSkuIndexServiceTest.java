@@ -0,0 +1,138 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.CatProfile.Allergy;
+import com.purrpouch.backend.model.CatProfile.DietaryRequirement;
+import com.purrpouch.backend.model.CatProfile.ProteinType;
+import com.purrpouch.backend.model.FoodAttributes;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.repository.FoodSkuRepository;
+import com.purrpouch.backend.util.BitmaskUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FoodSkuIndexServiceTest {
+
+    private final FoodSkuRepository foodSkuRepository = mock(FoodSkuRepository.class);
+
+    private final List<FoodSku> catalog = new ArrayList<>();
+
+    private FoodSkuIndexService foodSkuIndexService;
+
+    private FoodSku chickenPate;
+    private FoodSku salmonKidney;
+    private FoodSku beefKibble;
+    private FoodSku untagged;
+    private FoodSku duckTopping;
+
+    @BeforeEach
+    void setUp() {
+        chickenPate = sku(FoodSku.FoodType.WET, 10, FoodAttributes.encode(List.of(ProteinType.CHICKEN),
+                List.of(), List.of(Allergy.NO_CHICKEN)));
+        salmonKidney = sku(FoodSku.FoodType.WET, 10, FoodAttributes.encode(List.of(ProteinType.SALMON),
+                List.of(DietaryRequirement.KIDNEY_SUPPORT), List.of(Allergy.NO_SEAFOOD)));
+        beefKibble = sku(FoodSku.FoodType.DRY, 10, FoodAttributes.encode(List.of(ProteinType.BEEF),
+                List.of(DietaryRequirement.WEIGHT_CONTROL), List.of(Allergy.NO_BEEF, Allergy.GRAIN_FREE)));
+        untagged = sku(FoodSku.FoodType.WET, 10, null);
+        sku(FoodSku.FoodType.WET, 0, FoodAttributes.encode(List.of(ProteinType.TUNA), List.of(), List.of()));
+        duckTopping = sku(FoodSku.FoodType.TOPPING, 5, FoodAttributes.encode(List.of(ProteinType.DUCK), List.of(),
+                List.of(Allergy.DAIRY_FREE)));
+
+        when(foodSkuRepository.findAll()).thenReturn(catalog);
+        foodSkuIndexService = new FoodSkuIndexService();
+        ReflectionTestUtils.setField(foodSkuIndexService, "foodSkuRepository", foodSkuRepository);
+    }
+
+    @Test
+    void foodBreakingAnAllergyIsExcluded() {
+        assertThat(FoodAttributes.isCompatible(chickenPate.getAttributeMask(),
+                BitmaskUtils.toMask(List.of(Allergy.NO_CHICKEN)))).isFalse();
+        assertThat(FoodAttributes.isCompatible(chickenPate.getAttributeMask(),
+                BitmaskUtils.toMask(List.of(Allergy.NO_BEEF)))).isTrue();
+
+        CatProfile cat = cat(List.of(), List.of(), List.of(Allergy.NO_CHICKEN, Allergy.GRAIN_FREE));
+
+        assertThat(foodSkuIndexService.findCompatible(cat, null))
+                .containsExactlyInAnyOrder(salmonKidney, untagged, duckTopping)
+                .doesNotContain(chickenPate, beefKibble);
+    }
+
+    @Test
+    void dietaryRequirementsRankButDoNotExclude() {
+        CatProfile cat = cat(List.of(), List.of(DietaryRequirement.KIDNEY_SUPPORT), List.of());
+
+        assertThat(foodSkuIndexService.findCompatible(cat, FoodSku.FoodType.WET))
+                .containsExactly(salmonKidney, chickenPate, untagged);
+    }
+
+    @Test
+    void compatibleFoodsMatchTheListBasedFilter() {
+        FoodService foodService = new FoodService();
+        ReflectionTestUtils.setField(foodService, "foodSkuIndexService", foodSkuIndexService);
+        List<CatProfile> cats = List.of(
+                cat(List.of(), List.of(), List.of()),
+                cat(List.of(ProteinType.CHICKEN), List.of(), List.of(Allergy.NO_SEAFOOD)),
+                cat(List.of(ProteinType.BEEF), List.of(DietaryRequirement.WEIGHT_CONTROL),
+                        List.of(Allergy.NO_CHICKEN, Allergy.DAIRY_FREE)),
+                cat(List.of(), List.of(), List.of(Allergy.NO_BEEF, Allergy.NO_SEAFOOD, Allergy.NO_CHICKEN)),
+                // Saved before the mask columns existed: only the lists are set
+                legacyCat(List.of(ProteinType.SALMON), List.of(Allergy.NO_CHICKEN)),
+                legacyCat(null, List.of(Allergy.GRAIN_FREE, Allergy.DAIRY_FREE)));
+
+        for (CatProfile cat : cats) {
+            for (FoodSku.FoodType type : new FoodSku.FoodType[] {null, FoodSku.FoodType.WET, FoodSku.FoodType.DRY}) {
+                assertThat(foodService.getCompatibleFoodSkus(cat, type))
+                        .as("allergies %s, type %s", cat.getAllergies(), type)
+                        .containsExactlyInAnyOrderElementsOf(listFilter(cat, type));
+            }
+        }
+    }
+
+    // Filter used before the index: in-stock foods of the type that contain none of the cat's allergens
+    private List<FoodSku> listFilter(CatProfile cat, FoodSku.FoodType type) {
+        List<Allergy> allergies = cat.getAllergies() != null ? cat.getAllergies() : List.of();
+        return catalog.stream()
+                .filter(sku -> sku.getAvailableStock() != null && sku.getAvailableStock() > 0)
+                .filter(sku -> type == null || sku.getType() == type)
+                .filter(sku -> sku.getAttributeMask() == null
+                        || FoodAttributes.allergens(sku.getAttributeMask()).stream().noneMatch(allergies::contains))
+                .toList();
+    }
+
+    private FoodSku sku(FoodSku.FoodType type, int stock, Long attributeMask) {
+        FoodSku sku = new FoodSku();
+        sku.setId((long) catalog.size() + 1);
+        sku.setName(type + " " + sku.getId());
+        sku.setType(type);
+        sku.setAvailableStock(stock);
+        sku.setAttributeMask(attributeMask);
+        catalog.add(sku);
+        return sku;
+    }
+
+    private static CatProfile cat(List<ProteinType> proteins, List<DietaryRequirement> requirements,
+            List<Allergy> allergies) {
+        CatProfile cat = new CatProfile();
+        cat.setProteinPreferences(proteins);
+        cat.setDietaryRequirements(requirements);
+        cat.setAllergies(allergies);
+        return cat;
+    }
+
+    // Lists set without the setters, so the mask columns stay null
+    private static CatProfile legacyCat(List<ProteinType> proteins, List<Allergy> allergies) {
+        CatProfile cat = new CatProfile();
+        ReflectionTestUtils.setField(cat, "proteinPreferences", proteins);
+        ReflectionTestUtils.setField(cat, "allergies", allergies);
+        assertThat(cat.getAllergyMask()).isNull();
+        return cat;
+    }
+}
@@ -0,0 +1,189 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+import com.purrpouch.backend.model.KitMealItem;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class KitPricingServiceTest {
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final FoodSkuIndexService foodSkuIndexService = mock(FoodSkuIndexService.class);
+
+    private KitPricingService kitPricingService;
+
+    private CatProfile cat;
+    private FoodSku wet;
+    private FoodSku topping;
+
+    @BeforeEach
+    void setUp() {
+        kitPricingService = new KitPricingService();
+        ReflectionTestUtils.setField(kitPricingService, "foodKitRepository", foodKitRepository);
+        ReflectionTestUtils.setField(kitPricingService, "foodSkuIndexService", foodSkuIndexService);
+        ReflectionTestUtils.setField(kitPricingService, "maxEntries", 100);
+        ReflectionTestUtils.setField(kitPricingService, "totalTolerance", BigDecimal.ONE);
+
+        User owner = new User("pricing", "pricing@example.com");
+        entityManager.persist(owner);
+        cat = new CatProfile();
+        cat.setOwner(owner);
+        cat.setName("Miso");
+        entityManager.persist(cat);
+        wet = persistSku("Tuna pate", FoodSku.FoodType.WET, "25000");
+        topping = persistSku("Bonito flakes", FoodSku.FoodType.TOPPING, "12000");
+    }
+
+    @Test
+    void pricesFromSnapshotsAndSumsOnlyKitsWithout() {
+        FoodKit first = withSnapshot(persistKit(Map.of(wet, "2", topping, "0.5")), "56000");
+        FoodKit second = withSnapshot(persistKit(Map.of(wet, "1")), "25000");
+        FoodKit unsnapshotted = persistKit(Map.of(topping, "1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        assertThat(kitPricingService.priceOrder(Map.of(first.getId(), 1, second.getId(), 3)))
+                .isEqualByComparingTo("131000");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(kitPricingService.priceOrder(Map.of(first.getId(), 1, unsnapshotted.getId(), 2)))
+                .isEqualByComparingTo("80000");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        assertThat(kitPricingService.priceKit(first.getId())).isEqualByComparingTo("56000");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void snapshotFromAnotherCatalogIsIgnored() {
+        FoodKit kit = withSnapshot(persistKit(Map.of(wet, "1")), "20000");
+        kit.setPriceFingerprint(7);
+        entityManager.flush();
+
+        assertThat(kitPricingService.priceKit(kit.getId())).isEqualByComparingTo("25000");
+    }
+
+    @Test
+    void changedKitsAndCatalogAreRepriced() {
+        FoodKit kit = persistKit(Map.of(wet, "1"));
+        entityManager.flush();
+        assertThat(kitPricingService.priceKit(kit.getId())).isEqualByComparingTo("25000");
+
+        KitMealItem extra = new KitMealItem();
+        extra.setKitMeal(entityManager.createQuery("SELECT m FROM KitMeal m WHERE m.foodKit = :kit", KitMeal.class)
+                .setParameter("kit", kit).getSingleResult());
+        extra.setFoodSku(topping);
+        extra.setQuantity(new BigDecimal("1"));
+        entityManager.persist(extra);
+        entityManager.flush();
+        assertThat(kitPricingService.priceKit(kit.getId())).isEqualByComparingTo("25000");
+        kitPricingService.invalidate(kit.getId());
+        assertThat(kitPricingService.priceKit(kit.getId())).isEqualByComparingTo("37000");
+
+        wet.setPricePerUnit(new BigDecimal("30000"));
+        entityManager.flush();
+        when(foodSkuIndexService.getCatalogVersion()).thenReturn(1L);
+        assertThat(kitPricingService.priceKit(kit.getId())).isEqualByComparingTo("42000");
+    }
+
+    @Test
+    void verifiesClientTotals() {
+        FoodKit kit = persistKit(Map.of(wet, "1", topping, "0.5"));
+        entityManager.flush();
+        Map<Long, Integer> items = Map.of(kit.getId(), 2);
+
+        assertThat(kitPricingService.verifyOrderTotal(items, null)).isEqualByComparingTo("62000");
+        assertThat(kitPricingService.verifyOrderTotal(items, new BigDecimal("62000.4")))
+                .isEqualByComparingTo("62000");
+        assertThatThrownBy(() -> kitPricingService.verifyOrderTotal(items, new BigDecimal("31000")))
+                .isInstanceOf(KitPricingService.PriceMismatchException.class)
+                .satisfies(e -> assertThat(((KitPricingService.PriceMismatchException) e).getExpectedTotal())
+                        .isEqualByComparingTo("62000"));
+    }
+
+    @Test
+    void rejectsUnknownKitsAndBadQuantities() {
+        FoodKit kit = persistKit(Map.of(wet, "1"));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> kitPricingService.priceOrder(Map.of(kit.getId(), 1, -1L, 1)))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> kitPricingService.priceOrder(Map.of(kit.getId(), 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> kitPricingService.priceOrder(Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private FoodSku persistSku(String name, FoodSku.FoodType type, String price) {
+        FoodSku sku = new FoodSku();
+        sku.setName(name);
+        sku.setType(type);
+        sku.setPricePerUnit(new BigDecimal(price));
+        sku.setAvailableStock(10);
+        entityManager.persist(sku);
+        return sku;
+    }
+
+    // One BREAKFAST meal holding the given SKUs and quantities
+    private FoodKit persistKit(Map<FoodSku, String> items) {
+        FoodKit kit = new FoodKit();
+        kit.setCatProfile(cat);
+        kit.setName("Kit");
+        entityManager.persist(kit);
+        KitMeal meal = new KitMeal();
+        meal.setFoodKit(kit);
+        meal.setMealType(KitMeal.MealType.BREAKFAST);
+        entityManager.persist(meal);
+        for (Map.Entry<FoodSku, String> entry : items.entrySet()) {
+            KitMealItem item = new KitMealItem();
+            item.setKitMeal(meal);
+            item.setFoodSku(entry.getKey());
+            item.setQuantity(new BigDecimal(entry.getValue()));
+            entityManager.persist(item);
+        }
+        return kit;
+    }
+
+    // Snapshot price at the catalog fingerprint the mocked index reports
+    private FoodKit withSnapshot(FoodKit kit, String price) {
+        kit.setPrice(new BigDecimal(price));
+        kit.setPriceFingerprint(0);
+        kit.setSnapshotAt(LocalDateTime.now());
+        return kit;
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,163 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.model.CatProfile;
+import com.purrpouch.backend.model.FoodKit;
+import com.purrpouch.backend.model.FoodSku;
+import com.purrpouch.backend.model.KitMeal;
+import com.purrpouch.backend.model.KitMealItem;
+import com.purrpouch.backend.model.KitSkuLine;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.repository.FoodKitRepository;
+import com.purrpouch.backend.repository.KitMealItemRepository;
+import com.purrpouch.backend.repository.KitMealRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KitSnapshotServiceTest {
+
+    @Autowired
+    private FoodKitRepository foodKitRepository;
+
+    @Autowired
+    private KitMealRepository kitMealRepository;
+
+    @Autowired
+    private KitMealItemRepository kitMealItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final FoodSkuIndexService foodSkuIndexService = mock(FoodSkuIndexService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private KitSnapshotService kitSnapshotService;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        kitSnapshotService = new KitSnapshotService();
+        ReflectionTestUtils.setField(kitSnapshotService, "foodKitRepository", foodKitRepository);
+        ReflectionTestUtils.setField(kitSnapshotService, "kitMealRepository", kitMealRepository);
+        ReflectionTestUtils.setField(kitSnapshotService, "kitMealItemRepository", kitMealItemRepository);
+        ReflectionTestUtils.setField(kitSnapshotService, "foodSkuIndexService", foodSkuIndexService);
+        ReflectionTestUtils.setField(kitSnapshotService, "objectMapper", objectMapper);
+        when(foodSkuIndexService.getCatalogFingerprint()).thenReturn(42);
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void snapshotIsBuiltWhenTheChangingTransactionCommits() {
+        Long kitId = tx.execute(status -> {
+            FoodKit kit = persistKit("snapshot");
+            FoodSku wet = persistSku("Salmon pate", FoodSku.FoodType.WET, "20000");
+            FoodSku dry = persistSku("Chicken kibble", FoodSku.FoodType.DRY, "8000");
+            KitMeal breakfast = persistMeal(kit, KitMeal.MealType.BREAKFAST);
+            KitMeal dinner = persistMeal(kit, KitMeal.MealType.DINNER);
+            persistMeal(kit, KitMeal.MealType.LUNCH);
+            persistItem(breakfast, wet, "1");
+            persistItem(dinner, wet, "0.5");
+            persistItem(dinner, dry, "2");
+            kitSnapshotService.markChanged(kit.getId());
+            kitSnapshotService.markChanged(kit.getId());
+
+            // Not built before the commit
+            assertThat(kit.getSnapshotAt()).isNull();
+            return kit.getId();
+        });
+
+        tx.executeWithoutResult(status -> {
+            FoodKit kit = foodKitRepository.findById(kitId).orElseThrow();
+            assertThat(kit.getPrice()).isEqualByComparingTo("46000");
+            assertThat(kit.getPriceFingerprint()).isEqualTo(42);
+            assertThat(kitSnapshotService.isStale(kit)).isFalse();
+            assertThat(kit.getSkuLines())
+                    .extracting(KitSkuLine::getSkuName, line -> line.getQuantity().stripTrailingZeros())
+                    .containsExactlyInAnyOrder(tuple("Salmon pate", new BigDecimal("1.5")),
+                            tuple("Chicken kibble", new BigDecimal("2")));
+
+            JsonNode composition;
+            try {
+                composition = objectMapper.readTree(kit.getComposition());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertThat(composition.get("kitId").asLong()).isEqualTo(kitId);
+            assertThat(composition.get("meals")).hasSize(3);
+            for (JsonNode meal : composition.get("meals")) {
+                int expectedItems = switch (meal.get("mealType").asText()) {
+                    case "BREAKFAST" -> 1;
+                    case "DINNER" -> 2;
+                    default -> 0;
+                };
+                assertThat(meal.get("foodItems")).hasSize(expectedItems);
+            }
+        });
+
+        when(foodSkuIndexService.getCatalogFingerprint()).thenReturn(43);
+        tx.executeWithoutResult(status ->
+                assertThat(kitSnapshotService.isStale(foodKitRepository.findById(kitId).orElseThrow())).isTrue());
+    }
+
+    private FoodKit persistKit(String name) {
+        User owner = new User(name, name + "@example.com");
+        entityManager.persist(owner);
+        CatProfile cat = new CatProfile();
+        cat.setOwner(owner);
+        cat.setName(name);
+        entityManager.persist(cat);
+        FoodKit kit = new FoodKit();
+        kit.setCatProfile(cat);
+        kit.setName(name);
+        entityManager.persist(kit);
+        return kit;
+    }
+
+    private FoodSku persistSku(String name, FoodSku.FoodType type, String price) {
+        FoodSku sku = new FoodSku();
+        sku.setName(name);
+        sku.setType(type);
+        sku.setPricePerUnit(new BigDecimal(price));
+        entityManager.persist(sku);
+        return sku;
+    }
+
+    private KitMeal persistMeal(FoodKit kit, KitMeal.MealType mealType) {
+        KitMeal meal = new KitMeal();
+        meal.setFoodKit(kit);
+        meal.setMealType(mealType);
+        entityManager.persist(meal);
+        return meal;
+    }
+
+    private void persistItem(KitMeal meal, FoodSku sku, String quantity) {
+        KitMealItem item = new KitMealItem();
+        item.setKitMeal(meal);
+        item.setFoodSku(sku);
+        item.setQuantity(new BigDecimal(quantity));
+        entityManager.persist(item);
+    }
+}
@@ -0,0 +1,127 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.purrpouch.backend.dto.AiMealKitDto;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.payload.response.MealKitJobResponse;
+import com.purrpouch.backend.payload.response.MealKitJobResponse.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MealKitJobServiceTest {
+
+    private final ChatService chatService = mock(ChatService.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+    private MealKitJobService mealKitJobService;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("owner", "owner@example.com");
+        user.setId(1L);
+        AuthService authService = mock(AuthService.class);
+        when(authService.getCurrentUser()).thenReturn(user);
+
+        mealKitJobService = new MealKitJobService();
+        ReflectionTestUtils.setField(mealKitJobService, "chatService", chatService);
+        ReflectionTestUtils.setField(mealKitJobService, "catContextCacheService",
+                mock(CatContextCacheService.class));
+        ReflectionTestUtils.setField(mealKitJobService, "authService", authService);
+        ReflectionTestUtils.setField(mealKitJobService, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(mealKitJobService, "objectMapper",
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(mealKitJobService, "workers", 1);
+        ReflectionTestUtils.setField(mealKitJobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(mealKitJobService, "retentionMinutes", 60L);
+        ReflectionTestUtils.setField(mealKitJobService, "maxJobs", 100);
+        mealKitJobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mealKitJobService.shutdown();
+    }
+
+    @Test
+    void submitReturnsQueuedJobAndPushesResult() {
+        when(chatService.generateAiMealKit(eq("7"), anyList())).thenReturn(new AiMealKitDto());
+
+        MealKitJobResponse queued = mealKitJobService.submit(7L, List.of("hi"), null);
+
+        assertThat(queued.getStatus()).isEqualTo(Status.QUEUED);
+        // RUNNING then COMPLETED
+        verify(messagingTemplate, timeout(5000).times(2))
+                .send(eq(MealKitJobService.JOB_TOPIC + queued.getJobId()), any(Message.class));
+        MealKitJobResponse done = mealKitJobService.getJob(queued.getJobId());
+        assertThat(done.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(done.getResult()).isNotNull();
+        assertThat(mealKitJobService.isOwnedBy(queued.getJobId(), "owner@example.com")).isTrue();
+        assertThat(mealKitJobService.isOwnedBy(queued.getJobId(), "other@example.com")).isFalse();
+    }
+
+    @Test
+    void sameIdempotencyKeyReturnsSameJob() {
+        when(chatService.generateAiMealKit(anyString(), anyList())).thenReturn(new AiMealKitDto());
+
+        MealKitJobResponse first = mealKitJobService.submit(7L, List.of(), "key-1");
+        MealKitJobResponse second = mealKitJobService.submit(7L, List.of(), "key-1");
+
+        assertThat(second.getJobId()).isEqualTo(first.getJobId());
+        verify(messagingTemplate, timeout(5000).times(2)).send(anyString(), any(Message.class));
+        verify(chatService, times(1)).generateAiMealKit(anyString(), anyList());
+        assertThatThrownBy(() -> mealKitJobService.submit(8L, List.of(), "key-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void failedJobCanBeRetriedWithSameKey() {
+        when(chatService.generateAiMealKit(anyString(), anyList())).thenReturn(null);
+
+        MealKitJobResponse first = mealKitJobService.submit(7L, List.of(), "key-2");
+        verify(messagingTemplate, timeout(5000).times(2)).send(anyString(), any(Message.class));
+        assertThat(mealKitJobService.getJob(first.getJobId()).getStatus()).isEqualTo(Status.FAILED);
+
+        MealKitJobResponse retry = mealKitJobService.submit(7L, List.of(), "key-2");
+        assertThat(retry.getJobId()).isNotEqualTo(first.getJobId());
+    }
+
+    @Test
+    void fullQueueRejectsSubmit() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(chatService.generateAiMealKit(anyString(), anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new AiMealKitDto();
+        });
+
+        mealKitJobService.submit(7L, List.of(), null);
+        // Wait until the single worker has taken the first job
+        verify(messagingTemplate, timeout(5000)).send(anyString(), any(Message.class));
+        mealKitJobService.submit(7L, List.of(), null);
+
+        assertThatThrownBy(() -> mealKitJobService.submit(7L, List.of(), null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(mealKitJobService.getStats()).containsEntry("jobs", 2);
+        release.countDown();
+    }
+}
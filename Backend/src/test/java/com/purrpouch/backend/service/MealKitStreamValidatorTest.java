@@ -0,0 +1,91 @@
+package com.purrpouch.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purrpouch.backend.model.FoodSku;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MealKitStreamValidatorTest {
+
+    private static final Map<Long, FoodSku.FoodType> OFFERED = Map.of(
+            10L, FoodSku.FoodType.WET,
+            20L, FoodSku.FoodType.TOPPING,
+            30L, FoodSku.FoodType.DRY,
+            40L, FoodSku.FoodType.SNACK);
+
+    private static final String KIT = "{\"kitName\": \"Kit\", \"meals\": ["
+            + "{\"mealType\": \"BREAKFAST\", \"foodItems\": [{\"foodSkuId\": 10, \"quantity\": 1.0}, "
+            + "{\"foodSkuId\": 20, \"quantity\": 0.5}]}, "
+            + "{\"foodItems\": [{\"foodSkuId\": 30, \"quantity\": 1}, {\"foodSkuId\": 40, \"quantity\": 1}], "
+            + "\"mealType\": \"LUNCH\"}, "
+            + "{\"mealType\": \"DINNER\", \"foodItems\": [{\"foodSkuId\": 10, \"quantity\": 1}, "
+            + "{\"foodSkuId\": 20, \"quantity\": 1}]}]}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void fencedKitSplitAcrossChunksIsComplete() throws Exception {
+        MealKitStreamValidator validator = feed("```json\n" + KIT + "\n```");
+
+        assertThat(validator.isComplete()).isTrue();
+        assertThat(validator.getViolation()).isNull();
+        JsonNode kit = mapper.readTree(validator.completedDocument());
+        assertThat(kit.get("meals")).hasSize(3);
+        assertThat(kit.at("/meals/1/foodItems/0/foodSkuId").asLong()).isEqualTo(30L);
+    }
+
+    @Test
+    void rejectsAtTheFirstBadFood() {
+        assertThat(feed(KIT.replace("\"foodSkuId\": 20", "\"foodSkuId\": 99")).getViolation())
+                .isEqualTo("food 99 was not offered");
+        // The meal type comes after its foods here, so the slot is checked when it arrives
+        assertThat(feed(KIT.replace("\"foodSkuId\": 30", "\"foodSkuId\": 20")).getViolation())
+                .isEqualTo("TOPPING food does not belong in LUNCH");
+        assertThat(feed(KIT.replace("0.5", "0")).getViolation()).isEqualTo("quantity must be positive");
+        assertThat(feed(KIT.replace("BREAKFAST", "BRUNCH")).getViolation()).isEqualTo("unknown meal type BRUNCH");
+    }
+
+    @Test
+    void stopsAskingForTextOnceDone() {
+        MealKitStreamValidator validator = new MealKitStreamValidator(OFFERED, mapper);
+
+        assertThat(validator.feed("Here is the kit: ")).isTrue();
+        assertThat(validator.feed("{\"meals\": [{\"mealType\": \"DINNER\", \"foodItems\": [{\"foodSkuId\": 30, "))
+                .isFalse();
+        assertThat(validator.getViolation()).isEqualTo("DRY food does not belong in DINNER");
+    }
+
+    @Test
+    void truncatedOrMissingKitIsRejectedOnFinish() {
+        assertThat(feed(KIT.substring(0, KIT.length() / 2)).getViolation())
+                .isEqualTo("answer ended before the kit was complete");
+        assertThat(feed("Sorry, I can't help with that.").getViolation())
+                .isEqualTo("answer contained no JSON object");
+        assertThat(feed("{\"kitName\": \"Empty\", \"meals\": []}").getViolation()).isEqualTo("kit has no meals");
+    }
+
+    @Test
+    void kitWithoutEveryMealIsRejected() {
+        String withoutDinner = KIT.substring(0, KIT.indexOf(", {\"mealType\": \"DINNER\"")) + "]}";
+
+        MealKitStreamValidator validator = feed(withoutDinner);
+
+        assertThat(validator.isComplete()).isFalse();
+        assertThat(validator.getViolation()).isEqualTo("kit is missing [DINNER]");
+    }
+
+    private MealKitStreamValidator feed(String answer) {
+        MealKitStreamValidator validator = new MealKitStreamValidator(OFFERED, mapper);
+        for (int i = 0; i < answer.length(); i += 5) {
+            if (!validator.feed(answer.substring(i, Math.min(answer.length(), i + 5)))) {
+                break;
+            }
+        }
+        validator.finish();
+        return validator;
+    }
+}
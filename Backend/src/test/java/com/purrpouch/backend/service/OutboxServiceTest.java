@@ -0,0 +1,124 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.event.OrderEvent;
+import com.purrpouch.backend.event.OrderEvent.OrderEventType;
+import com.purrpouch.backend.model.Order;
+import com.purrpouch.backend.model.User;
+import com.purrpouch.backend.repository.OrderRepository;
+import com.purrpouch.backend.repository.OutboxEventRepository;
+import com.purrpouch.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ OutboxService.class, OutboxServiceTest.RecordingListener.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void relaysEventsInOrderPerOrderAndRetriesFailures() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User user = userRepository.save(new User("outbox", "outbox@example.com"));
+        Order first = orderRepository.save(newOrder(user));
+        Order second = orderRepository.save(newOrder(user));
+
+        tx.executeWithoutResult(status -> {
+            outboxService.record(first, OrderEventType.CREATED);
+            outboxService.record(second, OrderEventType.CREATED);
+            outboxService.record(first, OrderEventType.UPDATED);
+            outboxService.record(first, OrderEventType.CANCELLED);
+            outboxService.record(second, OrderEventType.UPDATED);
+        });
+        listener.failOnce(first.getId(), OrderEventType.UPDATED);
+
+        outboxService.relayBatch();
+
+        // The failure holds back the rest of the first order but not the second
+        assertThat(listener.deliveredFor(first.getId())).containsExactly(OrderEventType.CREATED);
+        assertThat(listener.deliveredFor(second.getId()))
+                .containsExactly(OrderEventType.CREATED, OrderEventType.UPDATED);
+        assertThat(outboxService.getStats()).containsEntry("pending", 2L).containsEntry("failed", 1L);
+
+        // Skip the retry backoff
+        tx.executeWithoutResult(status -> outboxEventRepository.findAll()
+                .forEach(event -> event.setClaimedUntil(LocalDateTime.now().minusSeconds(1))));
+        outboxService.relayBatch();
+
+        assertThat(listener.deliveredFor(first.getId()))
+                .containsExactly(OrderEventType.CREATED, OrderEventType.UPDATED, OrderEventType.CANCELLED);
+        assertThat(outboxService.getStats()).containsEntry("pending", 0L).containsEntry("lagSeconds", 0L);
+
+        // Replaying an order delivers its events again, still in order
+        assertThat(outboxService.replay(null, second.getId())).isEqualTo(2);
+        outboxService.relayBatch();
+
+        assertThat(listener.deliveredFor(second.getId())).containsExactly(OrderEventType.CREATED,
+                OrderEventType.UPDATED, OrderEventType.CREATED, OrderEventType.UPDATED);
+    }
+
+    private Order newOrder(User user) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotalPrice(new BigDecimal("100000"));
+        return order;
+    }
+
+    static class RecordingListener {
+        private final List<OrderEvent> delivered = new ArrayList<>();
+        private Long failOrderId;
+        private OrderEventType failType;
+
+        void failOnce(Long orderId, OrderEventType type) {
+            failOrderId = orderId;
+            failType = type;
+        }
+
+        @EventListener
+        public synchronized void onOrderEvent(OrderEvent event) {
+            if (event.getOrder().getId().equals(failOrderId) && event.getEventType() == failType) {
+                failOrderId = null;
+                throw new IllegalStateException("Listener failure");
+            }
+            delivered.add(event);
+        }
+
+        synchronized List<OrderEventType> deliveredFor(Long orderId) {
+            return delivered.stream()
+                    .filter(event -> event.getOrder().getId().equals(orderId))
+                    .map(OrderEvent::getEventType)
+                    .toList();
+        }
+    }
+}
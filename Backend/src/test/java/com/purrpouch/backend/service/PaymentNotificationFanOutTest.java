@@ -0,0 +1,191 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fan-out benchmark with 10k connected clients. Compares the old global
+ * /topic/payments broadcast with owner-targeted delivery through the real
+ * broker and user destination handlers.
+ */
+class PaymentNotificationFanOutTest {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int PAYMENTS = 100;
+
+    private final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong payloadBytes = new AtomicLong();
+    private final Map<String, AtomicLong> framesBySession = new HashMap<>();
+
+    private SimpMessagingTemplate messagingTemplate;
+    private PaymentNotificationService paymentNotificationService;
+
+    @BeforeEach
+    void setUp() {
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound,
+                brokerChannel, List.of("/topic", "/queue"));
+        UserDestinationMessageHandler userDestinations = new UserDestinationMessageHandler(clientInbound,
+                brokerChannel, new DefaultUserDestinationResolver(userRegistry));
+        broker.start();
+        userDestinations.start();
+
+        clientOutbound.subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                frames.incrementAndGet();
+                payloadBytes.addAndGet(((byte[]) message.getPayload()).length);
+                framesBySession.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()))
+                        .incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            String sessionId = "session-" + i;
+            Principal user = new UsernamePasswordAuthenticationToken(email(i), null, null);
+            framesBySession.put(sessionId, new AtomicLong());
+
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId(sessionId);
+            connect.setUser(user);
+            Message<byte[]> connectMessage = MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders());
+            clientInbound.send(connectMessage);
+            userRegistry.onApplicationEvent(new SessionConnectedEvent(this, connectMessage, user));
+
+            // Every client listens both to the legacy broadcast and to its own queue
+            subscribe(sessionId, user, "sub-all", "/topic/payments");
+            subscribe(sessionId, user, "sub-mine", "/user" + PaymentNotificationService.USER_PAYMENTS_QUEUE);
+        }
+
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findOwnersByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> orderIds = invocation.getArgument(0);
+            return orderIds.stream().map(PaymentNotificationFanOutTest::owner).toList();
+        });
+
+        paymentNotificationService = new PaymentNotificationService();
+        ReflectionTestUtils.setField(paymentNotificationService, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(paymentNotificationService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(paymentNotificationService, "dedupeWindowMs", 5000L);
+    }
+
+    @Test
+    void targetedDeliverySendsOneFramePerPaymentInsteadOfOnePerClient() {
+        for (long orderId = 0; orderId < PAYMENTS; orderId++) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("orderId", orderId);
+            payload.put("status", "PAID");
+            payload.put("timestamp", System.currentTimeMillis());
+            messagingTemplate.convertAndSend("/topic/payments", payload);
+        }
+        long legacyFrames = frames.getAndSet(0);
+        long legacyBytes = payloadBytes.getAndSet(0);
+        framesBySession.values().forEach(counter -> counter.set(0));
+
+        for (long orderId = 0; orderId < PAYMENTS; orderId++) {
+            paymentNotificationService.sendPaymentStatusUpdate(orderId, "PAID");
+        }
+        paymentNotificationService.flush();
+        long targetedFrames = frames.get();
+        long targetedBytes = payloadBytes.get();
+
+        assertThat(legacyFrames).isEqualTo((long) SUBSCRIBERS * PAYMENTS);
+        assertThat(targetedFrames).isEqualTo(PAYMENTS);
+        // Every payment frame is at least a few dozen bytes, and the broadcast copies each one to every client
+        assertThat(legacyBytes).isGreaterThan((long) SUBSCRIBERS * PAYMENTS * 30);
+        assertThat(targetedBytes).isPositive().isLessThan(legacyBytes / 1000);
+        for (long orderId = 0; orderId < PAYMENTS; orderId++) {
+            assertThat(framesBySession.get("session-" + ownerIndex(orderId)).get()).isEqualTo(1);
+        }
+        assertThat(framesBySession.get("session-" + (SUBSCRIBERS - 1)).get()).isZero();
+    }
+
+    @Test
+    void duplicateUpdatesAreCoalescedAndBatchedPerUser() {
+        // Orders 0 and 1 belong to different users, order 9999 shares order 0's owner
+        paymentNotificationService.sendPaymentStatusUpdate(0L, "PAID");
+        paymentNotificationService.sendPaymentStatusUpdate(0L, "PAID");
+        paymentNotificationService.sendPaymentStatusUpdate(9999L, "PAID");
+        paymentNotificationService.sendPaymentStatusUpdate(1L, "PAID");
+        paymentNotificationService.flush();
+
+        assertThat(frames.get()).isEqualTo(2);
+        assertThat(framesBySession.get("session-0").get()).isEqualTo(1);
+        assertThat(framesBySession.get("session-" + ownerIndex(1L)).get()).isEqualTo(1);
+
+        // The webhook repeating a status that was just sent produces no frames
+        paymentNotificationService.sendPaymentStatusUpdate(1L, "PAID");
+        paymentNotificationService.flush();
+
+        assertThat(frames.get()).isEqualTo(2);
+        assertThat(paymentNotificationService.getStats())
+                .containsEntry("requested", 5L)
+                .containsEntry("coalesced", 2L)
+                .containsEntry("framesSent", 5L);
+    }
+
+    private void subscribe(String sessionId, Principal user, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setSessionId(sessionId);
+        subscribe.setUser(user);
+        subscribe.setSubscriptionId(subscriptionId);
+        subscribe.setDestination(destination);
+        clientInbound.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+    }
+
+    // Orders are spread over the clients 37 apart; order 9999 wraps to client 0
+    private static int ownerIndex(long orderId) {
+        return (int) (orderId * 37 % (SUBSCRIBERS - 1));
+    }
+
+    private static OrderRepository.OrderOwner owner(Long orderId) {
+        return new OrderRepository.OrderOwner() {
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public String getEmail() {
+                return email(ownerIndex(orderId));
+            }
+        };
+    }
+
+    private static String email(int index) {
+        return "user" + index + "@example.com";
+    }
+}
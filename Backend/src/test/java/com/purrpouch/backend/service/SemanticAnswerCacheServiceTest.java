@@ -0,0 +1,99 @@
+package com.purrpouch.backend.service;
+
+import com.purrpouch.backend.config.HashingEmbeddingModel;
+import com.purrpouch.backend.model.ChatResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticAnswerCacheServiceTest {
+
+    private static final String QUESTION = "What should I feed a senior cat with kidney disease?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SemanticAnswerCacheService semanticAnswerCacheService;
+
+    @BeforeEach
+    void setUp() {
+        semanticAnswerCacheService = new SemanticAnswerCacheService();
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "embeddingModel", new HashingEmbeddingModel(256));
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "enabled", true);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "similarityThreshold", 0.9);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "maxEntries", 2);
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "ttlMinutes", 60L);
+        semanticAnswerCacheService.init();
+    }
+
+    @Test
+    void similarQuestionForSameKindOfCatIsAnsweredFromCache() {
+        store(QUESTION, "senior:0:4", "Choose a low phosphorus renal diet.");
+
+        SemanticAnswerCacheService.Lookup lookup = semanticAnswerCacheService.lookup(
+                "what food should I feed my senior cat with kidney disease", "senior:0:4", false);
+
+        assertThat(lookup.isHit()).isTrue();
+        assertThat(lookup.getResponse().getMessage()).isEqualTo("Choose a low phosphorus renal diet.");
+        assertThat(lookup.getResponse().getRecommendations()).containsExactly("Renal support wet food");
+        assertThat(meterRegistry.get("purrpouch.chat.answer_cache.lookups").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("purrpouch.chat.answer_cache.saved").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void differentCatSignatureOrQuestionMisses() {
+        store(QUESTION, "senior:0:4", "Choose a low phosphorus renal diet.");
+
+        assertThat(semanticAnswerCacheService.lookup(QUESTION, "senior:0:0", false).isHit()).isFalse();
+        assertThat(semanticAnswerCacheService.lookup("How often should I brush my cat's teeth?", "senior:0:4", false)
+                .isHit()).isFalse();
+        assertThat(semanticAnswerCacheService.lookup(QUESTION, "senior:0:4", true).isHit()).isFalse();
+        assertThat(semanticAnswerCacheService.getStats())
+                .containsEntry("hits", 0L)
+                .containsEntry("misses", 3L)
+                .containsEntry("bypasses", 1L);
+    }
+
+    @Test
+    void bypassedAnswerReplacesCachedOne() {
+        store(QUESTION, "senior:0:4", "Old answer.");
+        SemanticAnswerCacheService.Lookup bypassed = semanticAnswerCacheService.lookup(QUESTION, "senior:0:4", true);
+        semanticAnswerCacheService.store(bypassed, new ChatResponse("New answer.", List.of(), true), 1_000_000L);
+
+        assertThat(semanticAnswerCacheService.size()).isEqualTo(1);
+        assertThat(semanticAnswerCacheService.lookup(QUESTION, "senior:0:4", false).getResponse().getMessage())
+                .isEqualTo("New answer.");
+    }
+
+    @Test
+    void leastRecentlyUsedAndExpiredAnswersAreEvicted() {
+        store(QUESTION, "senior:0:4", "Renal diet.");
+        store("Is wet food better than dry food for kittens?", "kitten:0:0", "Mix both.");
+        assertThat(semanticAnswerCacheService.lookup(QUESTION, "senior:0:4", false).isHit()).isTrue();
+
+        store("How often should I brush my cat's teeth?", "adult:0:0", "Daily if possible.");
+
+        assertThat(semanticAnswerCacheService.size()).isEqualTo(2);
+        assertThat(semanticAnswerCacheService.lookup("Is wet food better than dry food for kittens?", "kitten:0:0",
+                false).isHit()).isFalse();
+        assertThat(semanticAnswerCacheService.lookup(QUESTION, "senior:0:4", false).isHit()).isTrue();
+
+        ReflectionTestUtils.setField(semanticAnswerCacheService, "ttlMinutes", -1L);
+        semanticAnswerCacheService.evictExpired();
+
+        assertThat(semanticAnswerCacheService.size()).isZero();
+        assertThat(semanticAnswerCacheService.getStats()).containsEntry("signatures", 0);
+    }
+
+    private void store(String question, String catSignature, String answer) {
+        SemanticAnswerCacheService.Lookup lookup = semanticAnswerCacheService.lookup(question, catSignature, false);
+        semanticAnswerCacheService.store(lookup,
+                new ChatResponse(answer, List.of("Renal support wet food"), true), 2_000_000_000L);
+    }
+}
@@ -0,0 +1,40 @@
+package com.purrpouch.backend.util;
+
+import com.purrpouch.backend.model.CatProfile.Allergy;
+import com.purrpouch.backend.model.CatProfile.ProteinType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitmaskUtilsTest {
+
+    @Test
+    void toMaskSetsOneBitPerOrdinal() {
+        assertThat(BitmaskUtils.toMask(List.of(ProteinType.CHICKEN))).isEqualTo(0b1L);
+        assertThat(BitmaskUtils.toMask(List.of(ProteinType.SALMON, ProteinType.PLANT_BASED)))
+                .isEqualTo((1L << 2) | (1L << 7));
+        // Duplicates and order do not matter
+        assertThat(BitmaskUtils.toMask(List.of(Allergy.NO_EGG, Allergy.NO_BEEF, Allergy.NO_EGG)))
+                .isEqualTo(BitmaskUtils.toMask(List.of(Allergy.NO_BEEF, Allergy.NO_EGG)));
+    }
+
+    @Test
+    void toMaskOfNullOrEmptyIsZero() {
+        assertThat(BitmaskUtils.toMask(null)).isZero();
+        assertThat(BitmaskUtils.toMask(List.<Allergy>of())).isZero();
+    }
+
+    @Test
+    void fromMaskRestoresTheSet() {
+        EnumSet<Allergy> allergies = EnumSet.of(Allergy.NO_CHICKEN, Allergy.GRAIN_FREE,
+                Allergy.NO_ARTIFICIAL_PRESERVATIVES);
+
+        assertThat(BitmaskUtils.fromMask(BitmaskUtils.toMask(allergies), Allergy.class)).isEqualTo(allergies);
+        assertThat(BitmaskUtils.fromMask(0L, Allergy.class)).isEmpty();
+        // Bits past the last constant are ignored
+        assertThat(BitmaskUtils.fromMask(1L << 40, Allergy.class)).isEmpty();
+    }
+}
@@ -45,6 +45,8 @@ const Deliveries = () => {
   const [rowsPerPage, setRowsPerPage] = useState(10);
   const [loading, setLoading] = useState(true);
   const [totalDeliveries, setTotalDeliveries] = useState(0);
+  // cursors[n] is the cursor that loads page n
+  const [cursors, setCursors] = useState([null]);
   const [selectedDelivery, setSelectedDelivery] = useState(null);
   const [detailsOpen, setDetailsOpen] = useState(false);
   const [statusUpdateOpen, setStatusUpdateOpen] = useState(false);
@@ -55,9 +57,22 @@ const Deliveries = () => {
   const fetchDeliveries = async () => {
     setLoading(true);
     try {
-      const response = await getAllDeliveries(page, rowsPerPage, statusFilter);
-      setDeliveries(response.data.content);
-      setTotalDeliveries(response.data.totalElements);
+      const response = await getAllDeliveries(
+        cursors[page],
+        rowsPerPage,
+        statusFilter
+      );
+      const { content, nextCursor, hasMore } = response.data;
+      setDeliveries(content);
+      if (hasMore) {
+        setCursors((previous) => {
+          const next = previous.slice(0, page + 1);
+          next[page + 1] = nextCursor;
+          return next;
+        });
+      }
+      // -1 tells the paginator there are more rows than it has seen
+      setTotalDeliveries(hasMore ? -1 : page * rowsPerPage + content.length);
     } catch (error) {
       console.error("Error fetching deliveries:", error);
       // Mock data for development
@@ -111,6 +126,7 @@ const Deliveries = () => {
 
   const handleChangeRowsPerPage = (event) => {
     setRowsPerPage(parseInt(event.target.value, 10));
+    setCursors([null]);
     setPage(0);
   };
 
@@ -169,9 +185,11 @@ const Deliveries = () => {
 
   const filteredDeliveries = deliveries.filter(
     (delivery) =>
-      delivery.id.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      delivery.orderId.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      delivery.customerName.toLowerCase().includes(searchTerm.toLowerCase())
+      String(delivery.id).toLowerCase().includes(searchTerm.toLowerCase()) ||
+      String(delivery.orderId).toLowerCase().includes(searchTerm.toLowerCase()) ||
+      String(delivery.customerName)
+        .toLowerCase()
+        .includes(searchTerm.toLowerCase())
   );
 
   const formatDate = (dateString) => {
@@ -205,7 +223,11 @@ const Deliveries = () => {
             <InputLabel>Filter by Status</InputLabel>
             <Select
               value={statusFilter}
-              onChange={(e) => setStatusFilter(e.target.value)}
+              onChange={(e) => {
+                setStatusFilter(e.target.value);
+                setCursors([null]);
+                setPage(0);
+              }}
               label="Filter by Status"
             >
               <MenuItem value="">All</MenuItem>
@@ -250,13 +272,24 @@ const Deliveries = () => {
                   <TableCell>{delivery.id}</TableCell>
                   <TableCell>{delivery.orderId}</TableCell>
                   <TableCell>{delivery.customerName}</TableCell>
-                  <TableCell>{formatDate(delivery.scheduledDate)}</TableCell>
+                  <TableCell>
+                    {formatDate(delivery.scheduledTime || delivery.scheduledDate)}
+                  </TableCell>
                   <TableCell>
                     <Chip
                       label={delivery.status}
                       color={statusColors[delivery.status] || "default"}
                       size="small"
                     />
+                    {delivery.overdueAt && delivery.status === "PENDING" && (
+                      <Chip
+                        label="Overdue"
+                        color="error"
+                        variant="outlined"
+                        size="small"
+                        sx={{ ml: 1 }}
+                      />
+                    )}
                   </TableCell>
                   <TableCell>
                     <Button
@@ -332,7 +365,10 @@ const Deliveries = () => {
                       </Typography>
                       <Typography variant="body1">
                         <strong>Scheduled Date:</strong>{" "}
-                        {formatDate(selectedDelivery.scheduledDate)}
+                        {formatDate(
+                          selectedDelivery.scheduledTime ||
+                            selectedDelivery.scheduledDate
+                        )}
                       </Typography>
                       <Typography variant="body1">
                         <strong>Preferred Time:</strong>{" "}
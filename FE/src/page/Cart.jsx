@@ -5,6 +5,9 @@ import {
   removeItemFromCart,
   updateCartItemQuantity,
   clearCart,
+  saveCartItems,
+  syncServerCart,
+  clearServerCart,
   createOrder,
   createOrderWithDelivery,
   getUserInfo,
@@ -55,9 +58,32 @@ const Cart = () => {
     loadUserInfo();
   }, []);
 
-  const loadCartItems = () => {
+  const loadCartItems = async () => {
     const items = getCartItems();
     setCartItems(items);
+    if (items.length === 0) return;
+
+    // Reprice with the server so the total shown is the one checkout accepts
+    try {
+      const kitItems = {};
+      items.forEach((item) => {
+        kitItems[item.kitId] = item.quantity;
+      });
+      const response = await syncServerCart(kitItems);
+      const unitPrices = {};
+      response.data.items.forEach((line) => {
+        unitPrices[line.kitId] = line.unitPrice;
+      });
+      const priced = items.map((item) =>
+        unitPrices[item.kitId] !== undefined
+          ? { ...item, price: unitPrices[item.kitId] }
+          : item
+      );
+      saveCartItems(priced);
+      setCartItems(priced);
+    } catch (error) {
+      console.error("Error pricing cart:", error);
+    }
   };
 
   const loadUserInfo = async () => {
@@ -126,7 +152,15 @@ const Cart = () => {
       // This will be triggered when the QR code is generated
     } catch (error) {
       console.error("Error creating order:", error);
-      setError("Failed to create order. Please try again.");
+      if (error.response?.status === 409) {
+        // Prices changed since the cart was priced
+        await loadCartItems();
+        setError(
+          "Prices have changed. Please review the updated total and try again."
+        );
+      } else {
+        setError("Failed to create order. Please try again.");
+      }
     } finally {
       setLoading(false);
     }
@@ -135,6 +169,9 @@ const Cart = () => {
   const handlePaymentComplete = () => {
     // Clear cart after payment
     clearCart();
+    clearServerCart().catch((error) =>
+      console.error("Error clearing server cart:", error)
+    );
     loadCartItems();
     setOrderSuccess(true);
     setShowVietQR(false);
@@ -45,9 +45,12 @@ export const createDefaultAdmin = (email, password, username) => {
   });
 };
 
-// Get all deliveries (admin-only)
-export const getAllDeliveries = (page = 0, size = 10, status = null) => {
-  let url = `/admin/deliveries?page=${page}&size=${size}`;
+// Get deliveries newest first (admin-only); pass the previous page's nextCursor
+export const getAllDeliveries = (cursor = null, size = 10, status = null) => {
+  let url = `/admin/deliveries?size=${size}`;
+  if (cursor) {
+    url += `&cursor=${cursor}`;
+  }
   if (status) {
     url += `&status=${status}`;
   }
@@ -292,8 +292,10 @@ export const createOrderWithDelivery = (
   });
 };
 
-export const getUserDeliveries = (userId) => {
-  return api.get(`/orders/user/${userId}/deliveries`);
+export const getUserDeliveries = (userId, cursor = null, size = 20) => {
+  return api.get(`/orders/user/${userId}/deliveries`, {
+    params: { cursor, size },
+  });
 };
 
 export const getOrderDeliveries = (orderId) => {
@@ -304,6 +306,15 @@ export const updateDeliveryStatus = (deliveryId, status) => {
   return api.put(`/deliveries/${deliveryId}/status`, { status });
 };
 
+// Server-side cart; prices come from the backend and are the ones checkout accepts
+export const syncServerCart = (kitItems) => {
+  return api.put("/cart", { kitItems });
+};
+
+export const clearServerCart = () => {
+  return api.delete("/cart");
+};
+
 // Cart functions (using local storage)
 export const getCartItems = () => {
   try {
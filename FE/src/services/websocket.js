@@ -244,9 +244,10 @@ class WebSocketService {
     return this.subscribe(`/topic/payment/${orderId}`, callback);
   }
 
-  // Subscribe to all payment updates
-  subscribeToAllPayments(callback) {
-    return this.subscribe("/topic/payments", callback);
+  // Subscribe to payment updates for all of the current user's orders.
+  // Each message is a batch: { updates: [{ orderId, status, timestamp }] }
+  subscribeToMyPayments(callback) {
+    return this.subscribe("/user/queue/payments", callback);
   }
 }
 